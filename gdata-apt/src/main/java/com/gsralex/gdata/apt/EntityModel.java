@@ -0,0 +1,91 @@
+package com.gsralex.gdata.apt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译期解析出的@Table实体
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class EntityModel {
+
+    private String packageName;
+    private String typeName;
+    private String mapperSimpleName;
+    private String tableName;
+    private boolean instantiable;
+    private List<FieldModel> fields = new ArrayList<>();
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public void setPackageName(String packageName) {
+        this.packageName = packageName;
+    }
+
+    /**
+     * 实体的规范名(canonical name)
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public void setTypeName(String typeName) {
+        this.typeName = typeName;
+    }
+
+    public String getMapperSimpleName() {
+        return mapperSimpleName;
+    }
+
+    public void setMapperSimpleName(String mapperSimpleName) {
+        this.mapperSimpleName = mapperSimpleName;
+    }
+
+    public String getMapperName() {
+        return packageName.length() == 0 ? mapperSimpleName : packageName + "." + mapperSimpleName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public boolean isInstantiable() {
+        return instantiable;
+    }
+
+    public void setInstantiable(boolean instantiable) {
+        this.instantiable = instantiable;
+    }
+
+    public List<FieldModel> getFields() {
+        return fields;
+    }
+
+    public List<FieldModel> getIdFields() {
+        List<FieldModel> list = new ArrayList<>();
+        for (FieldModel field : fields) {
+            if (field.isId()) {
+                list.add(field);
+            }
+        }
+        return list;
+    }
+
+    public List<FieldModel> getInsertFields() {
+        List<FieldModel> list = new ArrayList<>();
+        for (FieldModel field : fields) {
+            if (!(field.isId() && field.isGeneratedKey())) {
+                list.add(field);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gsralex.gdata.apt;
+
+/**
+ * 编译期解析出的一个映射字段
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class FieldModel {
+
+    private String name;
+    private String label;
+    private String typeName;
+    private String boxedTypeName;
+    private boolean id;
+    private boolean generatedKey;
+    private String getterName;
+    private String setterName;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * 擦除后的类型名，可直接写 xxx.class
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public void setTypeName(String typeName) {
+        this.typeName = typeName;
+    }
+
+    public String getBoxedTypeName() {
+        return boxedTypeName;
+    }
+
+    public void setBoxedTypeName(String boxedTypeName) {
+        this.boxedTypeName = boxedTypeName;
+    }
+
+    public boolean isId() {
+        return id;
+    }
+
+    public void setId(boolean id) {
+        this.id = id;
+    }
+
+    public boolean isGeneratedKey() {
+        return generatedKey;
+    }
+
+    public void setGeneratedKey(boolean generatedKey) {
+        this.generatedKey = generatedKey;
+    }
+
+    public String getGetterName() {
+        return getterName;
+    }
+
+    public void setGetterName(String getterName) {
+        this.getterName = getterName;
+    }
+
+    public String getSetterName() {
+        return setterName;
+    }
+
+    public void setSetterName(String setterName) {
+        this.setterName = setterName;
+    }
+}
@@ -0,0 +1,291 @@
+package com.gsralex.gdata.apt;
+
+import com.gsralex.gdata.bean.annotation.Column;
+import com.gsralex.gdata.bean.annotation.Id;
+import com.gsralex.gdata.bean.annotation.Ignore;
+import com.gsralex.gdata.bean.annotation.Table;
+import com.gsralex.gdata.bean.mapper.GeneratedMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 为@Table实体生成GeneratedMapper实现，并注册到META-INF/services
+ * getter/setter的查找规则与运行时反射(BeanMethods)一致
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+@SupportedAnnotationTypes("com.gsralex.gdata.bean.annotation.Table")
+public class MapperProcessor extends AbstractProcessor {
+
+    private static final String SERVICE_FILE = "META-INF/services/" + GeneratedMapper.class.getName();
+
+    private Set<String> serviceNames = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@Table is only supported on classes");
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getNestingKind() == NestingKind.MEMBER
+                    && !typeElement.getModifiers().contains(Modifier.STATIC)) {
+                warning(element, "inner class is not supported, mapper not generated");
+                continue;
+            }
+            if (typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+                warning(element, "private class is not supported, mapper not generated");
+                continue;
+            }
+            EntityModel model = parse(typeElement);
+            try {
+                write(model, typeElement);
+                serviceNames.add(model.getMapperName());
+            } catch (IOException e) {
+                error(element, "write mapper failed:" + e.getMessage());
+            }
+        }
+        if (roundEnv.processingOver() && !serviceNames.isEmpty()) {
+            writeServices();
+        }
+        return false;
+    }
+
+    private EntityModel parse(TypeElement typeElement) {
+        EntityModel model = new EntityModel();
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(typeElement);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        model.setPackageName(packageName);
+        model.setTypeName(typeElement.getQualifiedName().toString());
+        String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        String simpleName = packageName.length() == 0 ? binaryName : binaryName.substring(packageName.length() + 1);
+        model.setMapperSimpleName(simpleName.replace('$', '_') + GeneratedMapper.CLASS_SUFFIX);
+
+        Table table = typeElement.getAnnotation(Table.class);
+        String tableName = table.name();
+        if (tableName == null || tableName.length() == 0) {
+            tableName = typeElement.getSimpleName().toString();
+        }
+        model.setTableName(tableName);
+        model.setInstantiable(isInstantiable(typeElement));
+
+        List<ExecutableElement> methods = getPublicMethods(typeElement);
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (field.getAnnotation(Ignore.class) != null) {
+                continue;
+            }
+            FieldModel fieldModel = new FieldModel();
+            String fieldName = field.getSimpleName().toString();
+            fieldModel.setName(fieldName);
+            Column column = field.getAnnotation(Column.class);
+            if (column != null && column.name().length() != 0) {
+                fieldModel.setLabel(column.name());
+            } else {
+                fieldModel.setLabel(fieldName);
+            }
+            Id id = field.getAnnotation(Id.class);
+            if (id != null) {
+                fieldModel.setId(true);
+                fieldModel.setGeneratedKey(id.generatedKey());
+            }
+            TypeMirror fieldType = field.asType();
+            TypeMirror erasure = processingEnv.getTypeUtils().erasure(fieldType);
+            fieldModel.setTypeName(erasure.toString());
+            if (fieldType.getKind().isPrimitive()) {
+                fieldModel.setBoxedTypeName(processingEnv.getTypeUtils()
+                        .boxedClass(processingEnv.getTypeUtils().getPrimitiveType(fieldType.getKind()))
+                        .getQualifiedName().toString());
+            } else {
+                fieldModel.setBoxedTypeName(erasure.toString());
+            }
+            ExecutableElement getter = findGetter(methods, fieldType, fieldName);
+            if (getter != null) {
+                fieldModel.setGetterName(getter.getSimpleName().toString());
+            }
+            ExecutableElement setter = findSetter(methods, fieldType, fieldName);
+            if (setter != null) {
+                fieldModel.setSetterName(setter.getSimpleName().toString());
+            }
+            model.getFields().add(fieldModel);
+        }
+        return model;
+    }
+
+    private boolean isInstantiable(TypeElement typeElement) {
+        if (typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(typeElement.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ExecutableElement> getPublicMethods(TypeElement typeElement) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(typeElement))) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private ExecutableElement findGetter(List<ExecutableElement> methods, TypeMirror fieldType, String fieldName) {
+        ExecutableElement method;
+        if (fieldType.getKind() == TypeKind.BOOLEAN) {
+            method = getMethod(methods, "is" + initCaps(fieldName), null);
+            if (method == null) {
+                method = getMethod(methods, "get" + initCaps(fieldName), null);
+            }
+            if (method == null) {
+                method = getMethod(methods, "get" + initCaps(removeIs(fieldName)), null);
+            }
+        } else if (isJavaLangBoolean(fieldType)) {
+            method = getMethod(methods, "get" + initCaps(removeIs(fieldName)), null);
+            if (method == null) {
+                method = getMethod(methods, "get" + initCaps(fieldName), null);
+            }
+            if (method == null) {
+                method = getMethod(methods, "is" + initCaps(fieldName), null);
+            }
+        } else {
+            method = getMethod(methods, "get" + initCaps(fieldName), null);
+        }
+        return method;
+    }
+
+    private ExecutableElement findSetter(List<ExecutableElement> methods, TypeMirror fieldType, String fieldName) {
+        ExecutableElement method = null;
+        if (fieldType.getKind() == TypeKind.BOOLEAN || isJavaLangBoolean(fieldType)) {
+            method = getMethod(methods, "set" + initCaps(removeIs(fieldName)), fieldType);
+        }
+        if (method == null) {
+            method = getMethod(methods, "set" + initCaps(fieldName), fieldType);
+        }
+        return method;
+    }
+
+    private ExecutableElement getMethod(List<ExecutableElement> methods, String methodName, TypeMirror fieldType) {
+        for (ExecutableElement method : methods) {
+            if (!method.getSimpleName().toString().equalsIgnoreCase(methodName)) {
+                continue;
+            }
+            if (fieldType == null) {
+                if (method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+                    return method;
+                }
+            } else if (method.getParameters().size() == 1) {
+                TypeMirror paramType = method.getParameters().get(0).asType();
+                if (processingEnv.getTypeUtils().isSameType(
+                        processingEnv.getTypeUtils().erasure(paramType),
+                        processingEnv.getTypeUtils().erasure(fieldType))) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isJavaLangBoolean(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && "java.lang.Boolean".equals(type.toString());
+    }
+
+    private static String removeIs(String fieldName) {
+        return fieldName.startsWith("is") ? fieldName.substring(2) : fieldName;
+    }
+
+    private static String initCaps(String name) {
+        if (name.length() == 0) {
+            return name;
+        }
+        return name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    private void write(EntityModel model, TypeElement typeElement) throws IOException {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(model.getMapperName(), typeElement);
+        try (Writer writer = file.openWriter()) {
+            writer.write(new MapperWriter(model).write());
+        }
+    }
+
+    private void writeServices() {
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Reader reader = existing.openReader(true);
+                 BufferedReader bufferedReader = new BufferedReader(reader)) {
+                String line;
+                while ((line = bufferedReader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.length() != 0 && !line.startsWith("#")) {
+                        names.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            //no previous registration
+        }
+        names.addAll(serviceNames);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String name : names) {
+                    writer.write(name);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "write " + SERVICE_FILE + " failed:" + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+}
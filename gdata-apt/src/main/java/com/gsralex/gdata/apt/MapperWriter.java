@@ -0,0 +1,194 @@
+package com.gsralex.gdata.apt;
+
+import com.gsralex.gdata.bean.sqlstatement.SqlAlias;
+
+import java.util.List;
+
+/**
+ * 生成GeneratedMapper实现的源码
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class MapperWriter {
+
+    private static final String DEFAULT_FORMAT = "%s";
+
+    private EntityModel model;
+    private StringBuilder out;
+
+    public MapperWriter(EntityModel model) {
+        this.model = model;
+    }
+
+    public String write() {
+        out = new StringBuilder();
+        String type = model.getTypeName();
+        if (model.getPackageName().length() != 0) {
+            line("package " + model.getPackageName() + ";");
+            line("");
+        }
+        line("import com.gsralex.gdata.bean.exception.DataException;");
+        line("import com.gsralex.gdata.bean.mapper.FieldColumn;");
+        line("import com.gsralex.gdata.bean.mapper.GeneratedMapper;");
+        line("import com.gsralex.gdata.bean.mapper.Mapper;");
+        line("import com.gsralex.gdata.bean.mapper.PropertyAccessor;");
+        line("");
+        line("/**");
+        line(" * Generated by gdata-apt from " + type + ", do not edit.");
+        line(" */");
+        line("public final class " + model.getMapperSimpleName() + " implements GeneratedMapper<" + type + "> {");
+        line("");
+        line("    @Override");
+        line("    public Class<" + type + "> getType() {");
+        line("        return " + type + ".class;");
+        line("    }");
+        line("");
+        writeCreateMapper(type);
+        writeNewInstance(type);
+        writeSql("getInsertSql", true);
+        writeSql("getUpdateSql", model.getIdFields().size() != 0);
+        writeSql("getDeleteSql", model.getIdFields().size() != 0);
+        line("}");
+        return out.toString();
+    }
+
+    private void writeCreateMapper(String type) {
+        line("    @Override");
+        line("    public Mapper createMapper() {");
+        line("        Mapper mapper = new Mapper();");
+        line("        mapper.setType(" + type + ".class);");
+        line("        mapper.setTableName(" + literal(model.getTableName()) + ");");
+        line("        FieldColumn column;");
+        for (FieldModel field : model.getFields()) {
+            line("        column = new FieldColumn();");
+            line("        column.setName(" + literal(field.getName()) + ");");
+            line("        column.setLabel(" + literal(field.getLabel()) + ");");
+            line("        column.setType(" + field.getTypeName() + ".class);");
+            String getter = field.getGetterName() == null ? "null"
+                    : "t -> ((" + type + ") t)." + field.getGetterName() + "()";
+            String setter = field.getSetterName() == null ? "null"
+                    : "(t, v) -> ((" + type + ") t)." + field.getSetterName() + "((" + field.getBoxedTypeName() + ") v)";
+            line("        column.setAccessor(PropertyAccessor.create(" + type + ".class, " + field.getTypeName() + ".class, "
+                    + literal(field.getName()) + ",");
+            line("                " + getter + ",");
+            line("                " + setter + "));");
+            if (field.isId()) {
+                line("        column.setId(true);");
+                line("        column.setGeneratedKey(" + field.isGeneratedKey() + ");");
+                line("        mapper.getIdColumns().add(column);");
+            }
+            line("        mapper.getMapper().put(" + literal(field.getName()) + ", column);");
+        }
+        line("        return mapper;");
+        line("    }");
+        line("");
+    }
+
+    private void writeNewInstance(String type) {
+        line("    @Override");
+        line("    public " + type + " newInstance() {");
+        if (model.isInstantiable()) {
+            line("        return new " + type + "();");
+        } else {
+            line("        throw new DataException(\"newInstance:" + escape(type) + "\");");
+        }
+        line("    }");
+        line("");
+    }
+
+    private void writeSql(String methodName, boolean valid) {
+        line("    @Override");
+        line("    public String " + methodName + "(String aliasFormat) {");
+        if (!valid) {
+            line("        return null;");
+        } else {
+            line("        switch (aliasFormat) {");
+            for (String format : SqlAlias.getAliasFormats()) {
+                if (DEFAULT_FORMAT.equals(format)) {
+                    continue;
+                }
+                line("            case " + literal(format) + ":");
+                line("                return " + literal(buildSql(methodName, format)) + ";");
+            }
+            line("            default:");
+            line("                return " + literal(buildSql(methodName, DEFAULT_FORMAT)) + ";");
+            line("        }");
+        }
+        line("    }");
+        line("");
+    }
+
+    private String buildSql(String methodName, String format) {
+        StringBuilder sql = new StringBuilder();
+        String table = String.format(format, model.getTableName());
+        switch (methodName) {
+            case "getInsertSql": {
+                List<FieldModel> fields = model.getInsertFields();
+                sql.append("insert into ").append(table).append("(");
+                for (int i = 0; i < fields.size(); i++) {
+                    sql.append(i == 0 ? "" : ",").append(String.format(format, fields.get(i).getLabel()));
+                }
+                sql.append(") values(");
+                for (int i = 0; i < fields.size(); i++) {
+                    sql.append(i == 0 ? "?" : ",?");
+                }
+                sql.append(")");
+                break;
+            }
+            case "getUpdateSql": {
+                sql.append("update ").append(table).append(" set ");
+                int i = 0;
+                for (FieldModel field : model.getFields()) {
+                    if (!field.isId()) {
+                        sql.append(i++ == 0 ? "" : ",").append(String.format(format, field.getLabel())).append("=?");
+                    }
+                }
+                appendWhere(sql, format);
+                break;
+            }
+            default: {
+                sql.append("delete from ").append(table);
+                appendWhere(sql, format);
+                break;
+            }
+        }
+        return sql.toString();
+    }
+
+    private void appendWhere(StringBuilder sql, String format) {
+        sql.append(" where ");
+        List<FieldModel> idFields = model.getIdFields();
+        for (int i = 0; i < idFields.size(); i++) {
+            sql.append(i == 0 ? "" : " and ").append(String.format(format, idFields.get(i).getLabel())).append("=?");
+        }
+    }
+
+    private void line(String text) {
+        out.append(text).append("\n");
+    }
+
+    private static String literal(String value) {
+        return "\"" + escape(value) + "\"";
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.gsralex.gdata.apt;
+
+import com.gsralex.gdata.bean.mapper.GeneratedMapper;
+import com.gsralex.gdata.bean.mapper.Mapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class MapperProcessorTest {
+
+    private static final String SOURCE = "package apt.domain;\n"
+            + "import com.gsralex.gdata.bean.annotation.*;\n"
+            + "@Table(name = \"t_foo\")\n"
+            + "public class Foo {\n"
+            + "    @Id\n"
+            + "    private int id;\n"
+            + "    @Column(name = \"foo_1\")\n"
+            + "    private String foo1;\n"
+            + "    @Column(name = \"foo_5\")\n"
+            + "    private boolean foo5;\n"
+            + "    @Column(name = \"foo_6\")\n"
+            + "    private Boolean isFoo6;\n"
+            + "    @Ignore\n"
+            + "    private String other;\n"
+            + "    public int getId() { return id; }\n"
+            + "    public void setId(int id) { this.id = id; }\n"
+            + "    public String getFoo1() { return foo1; }\n"
+            + "    public void setFoo1(String foo1) { this.foo1 = foo1; }\n"
+            + "    public boolean isFoo5() { return foo5; }\n"
+            + "    public void setFoo5(boolean foo5) { this.foo5 = foo5; }\n"
+            + "    public Boolean getFoo6() { return isFoo6; }\n"
+            + "    public void setFoo6(Boolean foo6) { this.isFoo6 = foo6; }\n"
+            + "}\n";
+
+    @Test
+    public void generate() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File out = Files.createTempDirectory("gdata-apt").toFile();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        String classPath = new File(GeneratedMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        List<String> options = Arrays.asList("-d", out.getPath(), "-s", out.getPath(), "-classpath", classPath);
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+                Collections.singletonList(new StringSource("apt.domain.Foo", SOURCE)));
+        task.setProcessors(Collections.singletonList(new MapperProcessor()));
+        Assert.assertTrue(task.call());
+        Assert.assertTrue(new File(out, "META-INF/services/" + GeneratedMapper.class.getName()).exists());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{out.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> fooType = loader.loadClass("apt.domain.Foo");
+            GeneratedMapper mapper = (GeneratedMapper) loader.loadClass("apt.domain.Foo_GdataMapper").newInstance();
+            Assert.assertEquals(mapper.getType(), fooType);
+            Assert.assertEquals(mapper.getInsertSql("`%s`"), "insert into `t_foo`(`foo_1`,`foo_5`,`foo_6`) values(?,?,?)");
+            Assert.assertEquals(mapper.getUpdateSql("%s"), "update t_foo set foo_1=?,foo_5=?,foo_6=? where id=?");
+            Assert.assertEquals(mapper.getDeleteSql("[%s]"), "delete from [t_foo] where [id]=?");
+
+            Object foo = mapper.newInstance();
+            Mapper fieldMapper = mapper.createMapper();
+            Assert.assertEquals(fieldMapper.getTableName(), "t_foo");
+            Assert.assertEquals(fieldMapper.getMapper().size(), 4);
+            Assert.assertEquals(fieldMapper.getIdColumns().size(), 1);
+            fieldMapper.getMapper().get("id").getAccessor().setValue(foo, 7);
+            fieldMapper.getMapper().get("foo1").getAccessor().setValue(foo, "a");
+            fieldMapper.getMapper().get("isFoo6").getAccessor().setValue(foo, true);
+            Assert.assertEquals(fieldMapper.getMapper().get("foo1").getAccessor().getValue(foo), "a");
+            Assert.assertEquals(fieldMapper.getMapper().get("isFoo6").getAccessor().getValue(foo), true);
+        }
+    }
+
+    private static class StringSource extends SimpleJavaFileObject {
+        private final String code;
+
+        StringSource(String name, String code) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
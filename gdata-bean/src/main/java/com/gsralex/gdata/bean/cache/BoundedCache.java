@@ -0,0 +1,63 @@
+package com.gsralex.gdata.bean.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 有上限的并发缓存，读无锁；超过容量时淘汰部分旧条目
+ * 用于sql、映射计划这类可重建的元数据
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class BoundedCache<K, V> {
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, V> map;
+
+    public BoundedCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity:" + capacity);
+        }
+        this.capacity = capacity;
+        this.map = new ConcurrentHashMap<>();
+    }
+
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    public V put(K key, V value) {
+        V old = map.put(key, value);
+        if (old == null && map.size() > capacity) {
+            evict();
+        }
+        return old;
+    }
+
+    public V remove(K key) {
+        return map.remove(key);
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void evict() {
+        //drop about an eighth of the entries, the iteration order is arbitrary
+        int target = capacity - (capacity >> 3);
+        Iterator<K> iterator = map.keySet().iterator();
+        while (map.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
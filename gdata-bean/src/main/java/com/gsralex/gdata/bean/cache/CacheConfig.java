@@ -0,0 +1,69 @@
+package com.gsralex.gdata.bean.cache;
+
+/**
+ * 缓存的容量和过期配置
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class CacheConfig {
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private long maximumWeight = 0;
+    private Weigher weigher;
+    private long expireAfterWriteMillis = 0;
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize:" + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * 与weigher一起使用，设置后maximumSize被忽略
+     */
+    public void setMaximumWeight(long maximumWeight, Weigher weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight:" + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    public Weigher getWeigher() {
+        return weigher;
+    }
+
+    public long getExpireAfterWriteMillis() {
+        return expireAfterWriteMillis;
+    }
+
+    /**
+     * 写入后多久过期，0表示不过期
+     */
+    public void setExpireAfterWriteMillis(long expireAfterWriteMillis) {
+        if (expireAfterWriteMillis < 0) {
+            throw new IllegalArgumentException("expireAfterWriteMillis:" + expireAfterWriteMillis);
+        }
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+    }
+
+    public <K, V> TinyLfuCache<K, V> build(CacheStats stats) {
+        if (maximumWeight > 0) {
+            return new TinyLfuCache<>(maximumWeight, (Weigher<K, V>) weigher,
+                    expireAfterWriteMillis * 1000000L, stats);
+        }
+        return new TinyLfuCache<>(maximumSize, null, expireAfterWriteMillis * 1000000L, stats);
+    }
+}
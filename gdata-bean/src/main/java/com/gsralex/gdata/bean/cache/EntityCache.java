@@ -0,0 +1,168 @@
+package com.gsralex.gdata.bean.cache;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.mapper.EntityCopier;
+import com.gsralex.gdata.bean.mapper.FieldColumn;
+import com.gsralex.gdata.bean.mapper.MapperHolder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按@Id缓存某个实体类型，存入和取出时都拷贝，调用方修改返回的对象不会影响缓存
+ * 整数类型的主键统一按Long比较，findById(Foo.class, 1)和1L命中同一个条目
+ * 每次失效都会增加主键所在分段的版本号，查询前取版本号，put时版本号已变说明期间有写入，不再缓存查到的旧行
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class EntityCache<T> {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Class<T> type;
+    private final List<FieldColumn> idColumns;
+    private final CacheStats stats = new CacheStats();
+    private final TinyLfuCache<Object, T> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public EntityCache(Class<T> type, CacheConfig config) {
+        this.type = type;
+        this.idColumns = MapperHolder.getMapperCache(type).getIdColumns();
+        if (idColumns.size() == 0) {
+            throw new DataException(ExceptionMessage.NOTID_FORSELECT);
+        }
+        this.cache = config.build(stats);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int getIdCount() {
+        return idColumns.size();
+    }
+
+    public T get(Object... ids) {
+        Object key = getKey(ids);
+        return key == null ? null : EntityCopier.copy(cache.get(key));
+    }
+
+    public void put(T t) {
+        Object key = getEntityKey(t);
+        if (key != null) {
+            cache.put(key, EntityCopier.copy(t));
+        }
+    }
+
+    /**
+     * 从数据库读取前调用，结果传给put(T, long)
+     */
+    public long getGeneration(Object... ids) {
+        Object key = getKey(ids);
+        return key == null ? 0 : generations.get(getStripe(key));
+    }
+
+    /**
+     * 只在读取后没有失效过时存入，t是getGeneration之后从数据库读取的
+     *
+     * @return 是否存入
+     */
+    public boolean put(T t, long generation) {
+        Object key = getEntityKey(t);
+        if (key == null) {
+            return false;
+        }
+        int stripe = getStripe(key);
+        if (generations.get(stripe) != generation) {
+            return false;
+        }
+        cache.put(key, EntityCopier.copy(t));
+        if (generations.get(stripe) != generation) {
+            //invalidated while putting
+            cache.invalidate(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按实体的主键失效
+     */
+    public void invalidate(Object t) {
+        invalidateKey(getEntityKey(t));
+    }
+
+    public void invalidateById(Object... ids) {
+        invalidateKey(getKey(ids));
+    }
+
+    /**
+     * 按getKey/getEntityKey返回的key失效
+     */
+    public void invalidateKey(Object key) {
+        if (key != null) {
+            generations.incrementAndGet(getStripe(key));
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public Object getEntityKey(Object t) {
+        Object[] ids = new Object[idColumns.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idColumns.get(i).getAccessor().getValue(t);
+        }
+        return getKey(ids);
+    }
+
+    /**
+     * 主键值中有null时返回null
+     */
+    public Object getKey(Object... ids) {
+        if (ids.length != idColumns.size()) {
+            return null;
+        }
+        for (Object id : ids) {
+            if (id == null) {
+                return null;
+            }
+        }
+        if (ids.length == 1) {
+            return normalize(ids[0]);
+        }
+        Object[] key = new Object[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            key[i] = normalize(ids[i]);
+        }
+        return Arrays.asList(key);
+    }
+
+    private static int getStripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static Object normalize(Object id) {
+        if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,353 @@
+package com.gsralex.gdata.bean.cache;
+
+import com.gsralex.gdata.bean.mapper.EntityCopier;
+import com.gsralex.gdata.bean.result.DataSet;
+import com.gsralex.gdata.bean.result.DataSetUtils;
+import com.gsralex.gdata.bean.sqlstatement.SqlTables;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存，key为规范化的sql、参数和结果类型，条目按读取的表打标签
+ * 表被写入时标签的版本号加一，版本不一致的条目视为失效；无法识别目标表的写入使全部条目失效
+ * 超过refreshAfterWrite的条目先返回旧值，同时在后台重新查询(stale-while-revalidate)
+ * 默认只缓存用declare声明过的sql，setCacheAll(true)后缓存所有能解析出表的查询
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class QueryCache {
+
+    private static Logger LOGGER = Logger.getLogger(QueryCache.class);
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    private final CacheStats stats = new CacheStats();
+    private final TinyLfuCache<QueryKey, Entry> cache;
+    private final Map<String, Set<String>> declared = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicReference<Executor> defaultExecutor = new AtomicReference<>();
+
+    private volatile boolean cacheAll;
+    private volatile long refreshAfterWriteNanos;
+    private volatile Executor refreshExecutor;
+
+    public QueryCache(CacheConfig config) {
+        this.cache = config.build(stats);
+    }
+
+    /**
+     * 声明需要缓存的sql(与查询时传入的sql一致，P方法为转换后的sql)，tables为空时从sql解析
+     */
+    public void declare(String sql, String... tables) {
+        Set<String> tags;
+        if (tables == null || tables.length == 0) {
+            tags = SqlTables.getReadTables(sql);
+        } else {
+            tags = new LinkedHashSet<>();
+            for (String table : tables) {
+                tags.add(SqlTables.getTableTag(table));
+            }
+        }
+        if (tags.isEmpty()) {
+            throw new IllegalArgumentException("tables:" + sql);
+        }
+        declared.put(SqlTables.normalize(sql), tags);
+    }
+
+    public boolean isCacheAll() {
+        return cacheAll;
+    }
+
+    public void setCacheAll(boolean cacheAll) {
+        this.cacheAll = cacheAll;
+    }
+
+    public long getRefreshAfterWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(refreshAfterWriteNanos);
+    }
+
+    /**
+     * 写入多久后在后台刷新，0表示不刷新，应小于CacheConfig的expireAfterWrite
+     */
+    public void setRefreshAfterWriteMillis(long refreshAfterWriteMillis) {
+        if (refreshAfterWriteMillis < 0) {
+            throw new IllegalArgumentException("refreshAfterWriteMillis:" + refreshAfterWriteMillis);
+        }
+        this.refreshAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(refreshAfterWriteMillis);
+    }
+
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    /**
+     * 执行后台刷新的线程池，未设置时使用最多2个线程的守护线程池
+     */
+    public void setRefreshExecutor(Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * sql读取的表，不缓存时返回null
+     */
+    public Set<String> getTables(String sql) {
+        Set<String> tables = declared.isEmpty() ? null : declared.get(SqlTables.normalize(sql));
+        if (tables == null && cacheAll) {
+            tables = SqlTables.getReadTables(sql);
+        }
+        return tables == null || tables.isEmpty() ? null : tables;
+    }
+
+    public boolean isCacheable(String sql) {
+        return getTables(sql) != null;
+    }
+
+    /**
+     * 命中时返回拷贝；未命中或已失效时调用loader查询并缓存，loader可能在后台线程上被调用
+     *
+     * @param resultType 结果的类型，同一sql映射成不同类型时分开缓存
+     */
+    public <V> V get(String sql, Object[] objects, Object resultType, Supplier<V> loader) {
+        Set<String> tables = getTables(sql);
+        if (tables == null) {
+            return loader.get();
+        }
+        //exact text: normalize lowercases and collapses whitespace inside string literals too
+        QueryKey key = new QueryKey(sql, objects, resultType);
+        Entry entry = cache.get(key);
+        if (entry != null && !isCurrent(entry)) {
+            cache.invalidate(key);
+            entry = null;
+        }
+        if (entry == null) {
+            entry = load(tables, loader);
+            cache.put(key, entry);
+        } else if (refreshAfterWriteNanos > 0 && System.nanoTime() - entry.loadTime >= refreshAfterWriteNanos
+                && entry.refreshing.compareAndSet(false, true)) {
+            refresh(key, entry, tables, loader);
+        }
+        return (V) copy(entry.value);
+    }
+
+    /**
+     * 写入sql后调用，按目标表失效
+     */
+    public void invalidateSql(String sql) {
+        String table = SqlTables.getWriteTable(sql);
+        if (table == null) {
+            globalVersion.incrementAndGet();
+        } else {
+            invalidateTable(table);
+        }
+    }
+
+    public void invalidateTable(String table) {
+        getVersion(SqlTables.getTableTag(table)).incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Entry load(Set<String> tables, Supplier<?> loader) {
+        //take the versions before reading, a write during the query leaves the entry stale
+        Entry entry = new Entry(tables.toArray(new String[0]));
+        entry.global = globalVersion.get();
+        for (int i = 0; i < entry.tables.length; i++) {
+            entry.versions[i] = getVersion(entry.tables[i]).get();
+        }
+        entry.value = loader.get();
+        entry.loadTime = System.nanoTime();
+        return entry;
+    }
+
+    private void refresh(QueryKey key, Entry stale, Set<String> tables, Supplier<?> loader) {
+        Runnable task = () -> {
+            try {
+                Entry entry = load(tables, loader);
+                cache.put(key, entry);
+                refreshCount.incrementAndGet();
+            } catch (RuntimeException e) {
+                LOGGER.error("refresh query cache failed:" + key.sql, e);
+                //let the next read try again
+                stale.refreshing.set(false);
+            }
+        };
+        try {
+            getExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    private Executor getExecutor() {
+        Executor executor = refreshExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        executor = defaultExecutor.get();
+        if (executor == null) {
+            int seq = SEQ.incrementAndGet();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(0, 2, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "gdata-query-cache-" + seq);
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (!defaultExecutor.compareAndSet(null, pool)) {
+                pool.shutdown();
+            }
+            executor = defaultExecutor.get();
+        }
+        return executor;
+    }
+
+    private boolean isCurrent(Entry entry) {
+        if (entry.global != globalVersion.get()) {
+            return false;
+        }
+        for (int i = 0; i < entry.tables.length; i++) {
+            if (entry.versions[i] != getVersion(entry.tables[i]).get()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AtomicLong getVersion(String table) {
+        AtomicLong version = tableVersions.get(table);
+        if (version == null) {
+            version = tableVersions.computeIfAbsent(table, k -> new AtomicLong());
+        }
+        return version;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copyItem(item));
+            }
+            return copy;
+        } else if (value instanceof DataSet) {
+            return DataSetUtils.copy((DataSet) value);
+        }
+        return copyItem(value);
+    }
+
+    private static Object copyItem(Object item) {
+        if (item == null || item instanceof String || item instanceof Number || item instanceof Boolean
+                || item instanceof Character || item instanceof Enum) {
+            return item;
+        } else if (item instanceof byte[] || item instanceof Date) {
+            return EntityCopier.copyValue(item);
+        } else if (item instanceof Map) {
+            Map<Object, Object> copy = new HashMap<>();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) item).entrySet()) {
+                copy.put(e.getKey(), EntityCopier.copyValue(e.getValue()));
+            }
+            return copy;
+        }
+        return EntityCopier.copy(item);
+    }
+
+    private static class Entry {
+        private final String[] tables;
+        private final long[] versions;
+        private long global;
+        private volatile Object value;
+        private volatile long loadTime;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(String[] tables) {
+            this.tables = tables;
+            this.versions = new long[tables.length];
+        }
+    }
+
+    private static class QueryKey {
+        private final String sql;
+        private final Object[] objects;
+        private final Object resultType;
+        private final int hash;
+
+        QueryKey(String sql, Object[] objects, Object resultType) {
+            this.sql = sql;
+            this.objects = normalize(objects);
+            this.resultType = resultType;
+            this.hash = 31 * (31 * sql.hashCode() + Arrays.deepHashCode(this.objects)) + resultType.hashCode();
+        }
+
+        private static Object[] normalize(Object[] objects) {
+            if (objects == null) {
+                return new Object[0];
+            }
+            Object[] normalized = new Object[objects.length];
+            for (int i = 0; i < objects.length; i++) {
+                Object object = objects[i];
+                if (object instanceof Integer || object instanceof Short || object instanceof Byte) {
+                    object = ((Number) object).longValue();
+                } else if (object instanceof byte[]) {
+                    object = ((byte[]) object).clone();
+                } else if (object instanceof Date) {
+                    object = ((Date) object).clone();
+                }
+                normalized[i] = object;
+            }
+            return normalized;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey key = (QueryKey) o;
+            return hash == key.hash && sql.equals(key.sql) && resultType.equals(key.resultType)
+                    && Arrays.deepEquals(objects, key.objects);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.gsralex.gdata.bean.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * W-TinyLFU缓存：新条目先进入约1%容量的LRU窗口，被挤出窗口时与主区(SLRU)的淘汰候选比较访问频率，
+ * 频率更高的留下；主区分为probation(20%)和protected(80%)，probation中再次命中的条目晋升到protected
+ * 容量按权重计，未设置Weigher时每个条目权重为1；可设置写入后的过期时间
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final Weigher<K, V> weigher;
+    private final long expireAfterWriteNanos;
+    private final CacheStats stats;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final FrequencySketch sketch;
+    private final Node<K, V>[] queues;
+    private final long[] weights = new long[3];
+
+    /**
+     * @param maximumWeight         权重上限，未设置weigher时即条目数上限
+     * @param weigher               可以为null
+     * @param expireAfterWriteNanos 0表示不过期
+     */
+    public TinyLfuCache(long maximumWeight, Weigher<K, V> weigher, long expireAfterWriteNanos, CacheStats stats) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight:" + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * 0.8);
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.stats = stats;
+        this.sketch = new FrequencySketch(weigher == null ? maximumWeight : Math.min(maximumWeight, 1 << 20));
+        this.queues = new Node[3];
+        for (int i = 0; i < 3; i++) {
+            queues[i] = new Node<>(null, null, 0, 0);
+            queues[i].prev = queues[i];
+            queues[i].next = queues[i];
+        }
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            stats.miss();
+            return null;
+        }
+        if (isExpired(node, System.nanoTime())) {
+            removeNode(node);
+            stats.expire();
+            stats.miss();
+            return null;
+        }
+        onAccess(node);
+        stats.hit();
+        return node.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        int weight = weigher == null ? 1 : weigher.weigh(key, value);
+        Node<K, V> node = data.get(key);
+        long now = System.nanoTime();
+        if (node != null) {
+            weights[node.queue] += weight - node.weight;
+            node.value = value;
+            node.weight = weight;
+            node.writeTime = now;
+            onAccess(node);
+        } else {
+            if (weight > maximumWeight) {
+                return;
+            }
+            sketch.increment(key);
+            node = new Node<>(key, value, weight, now);
+            data.put(key, node);
+            link(node, WINDOW);
+        }
+        evict();
+    }
+
+    public synchronized boolean invalidate(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return false;
+        }
+        removeNode(node);
+        stats.invalidate();
+        return true;
+    }
+
+    public synchronized void invalidateAll() {
+        data.clear();
+        for (int i = 0; i < 3; i++) {
+            queues[i].prev = queues[i];
+            queues[i].next = queues[i];
+            weights[i] = 0;
+        }
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public synchronized long weightedSize() {
+        return weights[WINDOW] + weights[PROBATION] + weights[PROTECTED];
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.queue == PROBATION) {
+            //second hit in the main space, promote
+            unlink(node);
+            link(node, PROTECTED);
+            while (weights[PROTECTED] > protectedMaximum) {
+                Node<K, V> demoted = queues[PROTECTED].next;
+                unlink(demoted);
+                link(demoted, PROBATION);
+            }
+        } else {
+            int queue = node.queue;
+            unlink(node);
+            link(node, queue);
+        }
+    }
+
+    private void evict() {
+        //entries pushed out of the window become candidates for the main space
+        while (weights[WINDOW] > windowMaximum) {
+            Node<K, V> candidate = queues[WINDOW].next;
+            unlink(candidate);
+            link(candidate, PROBATION);
+        }
+        while (weightedSize() > maximumWeight) {
+            Node<K, V> victim = queues[PROBATION].next;
+            Node<K, V> candidate = queues[PROBATION].prev;
+            if (victim == queues[PROBATION]) {
+                victim = queues[PROTECTED].next;
+                candidate = victim;
+            }
+            if (victim == queues[PROTECTED]) {
+                victim = queues[WINDOW].next;
+                candidate = victim;
+            }
+            //admit the candidate only if it is used more often than the victim
+            Node<K, V> evicted = victim;
+            if (candidate != victim && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                evicted = candidate;
+            }
+            removeNode(evicted);
+            stats.evict();
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private void removeNode(Node<K, V> node) {
+        unlink(node);
+        data.remove(node.key);
+    }
+
+    private void link(Node<K, V> node, int queue) {
+        Node<K, V> head = queues[queue];
+        node.queue = queue;
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        weights[queue] += node.weight;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        weights[node.queue] -= node.weight;
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private V value;
+        private int weight;
+        private long writeTime;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value, int weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+}
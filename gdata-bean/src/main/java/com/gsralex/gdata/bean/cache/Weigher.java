@@ -0,0 +1,12 @@
+package com.gsralex.gdata.bean.cache;
+
+/**
+ * 条目的估算权重，缓存按权重总和限制大小
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface Weigher<K, V> {
+
+    int weigh(K key, V value);
+}
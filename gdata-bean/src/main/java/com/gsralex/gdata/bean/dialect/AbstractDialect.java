@@ -0,0 +1,75 @@
+package com.gsralex.gdata.bean.dialect;
+
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public abstract class AbstractDialect implements Dialect {
+
+    protected static final int DEFAULT_MAX_PARAMETER_COUNT = 65535;
+
+    @Override
+    public String quote(String identifier) {
+        return String.format(getAliasFormat(), identifier);
+    }
+
+    @Override
+    public boolean supportsMultiRowInsert(boolean generatedKey) {
+        return true;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return DEFAULT_MAX_PARAMETER_COUNT;
+    }
+
+    @Override
+    public boolean supportsUpsert() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    protected void appendColumns(StringBuilder sql, List<String> columns, String prefix) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i != 0) {
+                sql.append(",");
+            }
+            sql.append(prefix).append(quote(columns.get(i)));
+        }
+    }
+
+    protected void appendValues(StringBuilder sql, int columnCount, int rows) {
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ",(");
+            for (int i = 0; i < columnCount; i++) {
+                sql.append(i == 0 ? "?" : ",?");
+            }
+            sql.append(")");
+        }
+    }
+
+    protected static boolean isIdColumn(String column, List<String> idColumns) {
+        for (String idColumn : idColumns) {
+            if (idColumn.equalsIgnoreCase(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getStreamingFetchSize(int fetchSize) {
+        return fetchSize;
+    }
+
+    @Override
+    public boolean isCursorRequiresTransaction() {
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * 未识别的数据库：不加别名，不使用多行insert和upsert
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class DefaultDialect extends AbstractDialect {
+
+    @Override
+    public String getName() {
+        return "default";
+    }
+
+    @Override
+    public DbType getDbType() {
+        return DbType.Other;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return true;
+    }
+
+    @Override
+    public String getAliasFormat() {
+        return "%s";
+    }
+
+    @Override
+    public boolean supportsMultiRowInsert(boolean generatedKey) {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUpsert() {
+        return false;
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows) {
+        throw new DataException(ExceptionMessage.UPSERT_NOTSUPPORT);
+    }
+}
@@ -0,0 +1,63 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * 数据库方言：标识符别名、多行insert能力、参数个数上限以及upsert语法
+ * 自定义实现可通过META-INF/services/com.gsralex.gdata.bean.dialect.Dialect注册
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface Dialect {
+
+    String getName();
+
+    DbType getDbType();
+
+    /**
+     * @param productName DatabaseMetaData.getDatabaseProductName()，已转为小写
+     */
+    boolean supports(String productName);
+
+    /**
+     * 形如 `%s` 的别名格式，与SqlAlias一致
+     */
+    String getAliasFormat();
+
+    String quote(String identifier);
+
+    /**
+     * 是否支持 insert into t(...) values(...),(...)，generatedKey为true时还需能返回每一行的自增主键
+     */
+    boolean supportsMultiRowInsert(boolean generatedKey);
+
+    /**
+     * 单条语句允许的最大绑定参数个数
+     */
+    int getMaxParameterCount();
+
+    boolean supportsUpsert();
+
+    /**
+     * 按主键插入或更新rows行，参数顺序为每行columns的顺序
+     *
+     * @param columns   全部列，包含主键列，未加别名
+     * @param idColumns 主键列，未加别名
+     */
+    String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows);
+
+    /**
+     * 流式查询实际设置给Statement的fetchSize
+     *
+     * @param fetchSize JdbcUtils配置的fetchSize
+     */
+    int getStreamingFetchSize(int fetchSize);
+
+    /**
+     * 驱动是否只在autoCommit=false时按fetchSize分批读取(如postgresql的游标模式)
+     */
+    boolean isCursorRequiresTransaction();
+}
@@ -0,0 +1,61 @@
+package com.gsralex.gdata.bean.dialect;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 按DatabaseProductName查找方言，ServiceLoader注册的方言优先于内置方言
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class Dialects {
+
+    private static final Dialect DEFAULT = new DefaultDialect();
+
+    private static volatile List<Dialect> dialects;
+
+    public static Dialect getDialect(String productName) {
+        String name = productName == null ? "" : productName.toLowerCase().trim();
+        for (Dialect dialect : getDialects()) {
+            if (dialect.supports(name)) {
+                return dialect;
+            }
+        }
+        return DEFAULT;
+    }
+
+    public static Dialect getDefault() {
+        return DEFAULT;
+    }
+
+    private static List<Dialect> getDialects() {
+        List<Dialect> list = dialects;
+        if (list == null) {
+            synchronized (Dialects.class) {
+                list = dialects;
+                if (list == null) {
+                    list = new ArrayList<>();
+                    try {
+                        Iterator<Dialect> iterator = ServiceLoader.load(Dialect.class, Dialects.class.getClassLoader()).iterator();
+                        while (iterator.hasNext()) {
+                            list.add(iterator.next());
+                        }
+                    } catch (ServiceConfigurationError e) {
+                        //ignore broken registration, builtin dialects still work
+                    }
+                    list.add(new MySqlDialect());
+                    list.add(new H2Dialect());
+                    list.add(new PostgreSqlDialect());
+                    list.add(new OracleDialect());
+                    list.add(new SqlServerDialect());
+                    dialects = list;
+                }
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,47 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * h2，upsert使用 merge into ... key(...)
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class H2Dialect extends AbstractDialect {
+
+    @Override
+    public String getName() {
+        return "h2";
+    }
+
+    @Override
+    public DbType getDbType() {
+        return DbType.H2;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.equals("h2");
+    }
+
+    @Override
+    public String getAliasFormat() {
+        //unquoted, quoting would make h2 identifiers case sensitive
+        return "%s";
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("merge into ").append(quote(tableName)).append("(");
+        appendColumns(sql, columns, "");
+        sql.append(") key(");
+        appendColumns(sql, idColumns, "");
+        sql.append(") values");
+        appendValues(sql, columns.size(), rows);
+        return sql.toString();
+    }
+}
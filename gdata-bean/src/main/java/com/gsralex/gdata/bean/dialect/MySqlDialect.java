@@ -0,0 +1,67 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * mysql/mariadb，upsert使用 on duplicate key update
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class MySqlDialect extends AbstractDialect {
+
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+
+    @Override
+    public DbType getDbType() {
+        return DbType.MySql;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.equals("mysql") || productName.equals("mariadb");
+    }
+
+    @Override
+    public String getAliasFormat() {
+        return "`%s`";
+    }
+
+    /**
+     * 未开启useCursorFetch时驱动会忽略正数fetchSize并读入整个结果集，
+     * Integer.MIN_VALUE使驱动逐行读取，结果集关闭前该连接不能执行其他语句
+     */
+    @Override
+    public int getStreamingFetchSize(int fetchSize) {
+        return fetchSize == 0 ? 0 : Integer.MIN_VALUE;
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("insert into ").append(quote(tableName)).append("(");
+        appendColumns(sql, columns, "");
+        sql.append(") values");
+        appendValues(sql, columns.size(), rows);
+        sql.append(" on duplicate key update ");
+        int i = 0;
+        for (String column : columns) {
+            if (isIdColumn(column, idColumns)) {
+                continue;
+            }
+            String label = quote(column);
+            sql.append(i++ == 0 ? "" : ",").append(label).append("=values(").append(label).append(")");
+        }
+        if (i == 0) {
+            //only key columns, keep the row as it is
+            String label = quote(idColumns.get(0));
+            sql.append(label).append("=").append(label);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * oracle没有多行values，upsert使用 merge into ... using (select ... from dual union all ...)
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class OracleDialect extends AbstractDialect {
+
+    @Override
+    public String getName() {
+        return "oracle";
+    }
+
+    @Override
+    public DbType getDbType() {
+        return DbType.Oracle;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.equals("oracle");
+    }
+
+    @Override
+    public String getAliasFormat() {
+        return "\"%s\"";
+    }
+
+    @Override
+    public boolean supportsMultiRowInsert(boolean generatedKey) {
+        return false;
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("merge into ").append(quote(tableName)).append(" d using (");
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "select " : " union all select ");
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i == 0 ? "? " : ",? ").append(quote(columns.get(i)));
+            }
+            sql.append(" from dual");
+        }
+        sql.append(") s on (");
+        for (int i = 0; i < idColumns.size(); i++) {
+            String label = quote(idColumns.get(i));
+            sql.append(i == 0 ? "" : " and ").append("d.").append(label).append("=s.").append(label);
+        }
+        sql.append(")");
+        int i = 0;
+        for (String column : columns) {
+            if (isIdColumn(column, idColumns)) {
+                continue;
+            }
+            String label = quote(column);
+            sql.append(i++ == 0 ? " when matched then update set " : ",")
+                    .append("d.").append(label).append("=s.").append(label);
+        }
+        sql.append(" when not matched then insert (");
+        appendColumns(sql, columns, "");
+        sql.append(") values (");
+        appendColumns(sql, columns, "s.");
+        sql.append(")");
+        return sql.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * postgresql，upsert使用 on conflict (...) do update
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class PostgreSqlDialect extends AbstractDialect {
+
+    @Override
+    public String getName() {
+        return "postgresql";
+    }
+
+    @Override
+    public DbType getDbType() {
+        return DbType.PostgreSql;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.equals("postgresql");
+    }
+
+    @Override
+    public String getAliasFormat() {
+        //unquoted, quoting would make identifiers case sensitive
+        return "%s";
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 32767;
+    }
+
+    @Override
+    public boolean isCursorRequiresTransaction() {
+        return true;
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("insert into ").append(quote(tableName)).append("(");
+        appendColumns(sql, columns, "");
+        sql.append(") values");
+        appendValues(sql, columns.size(), rows);
+        sql.append(" on conflict (");
+        appendColumns(sql, idColumns, "");
+        sql.append(")");
+        int i = 0;
+        for (String column : columns) {
+            if (isIdColumn(column, idColumns)) {
+                continue;
+            }
+            String label = quote(column);
+            sql.append(i++ == 0 ? " do update set " : ",").append(label).append("=excluded.").append(label);
+        }
+        if (i == 0) {
+            sql.append(" do nothing");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.gsralex.gdata.bean.dialect;
+
+import com.gsralex.gdata.bean.sqlstatement.DbType;
+
+import java.util.List;
+
+/**
+ * sql server，upsert使用 merge ... using (values ...)
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlServerDialect extends AbstractDialect {
+
+    @Override
+    public String getName() {
+        return "sqlserver";
+    }
+
+    @Override
+    public DbType getDbType() {
+        return DbType.SqlServer;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.endsWith("sql server");
+    }
+
+    @Override
+    public String getAliasFormat() {
+        return "[%s]";
+    }
+
+    /**
+     * getGeneratedKeys只返回最后一行的identity
+     */
+    @Override
+    public boolean supportsMultiRowInsert(boolean generatedKey) {
+        return !generatedKey;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 2100;
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, List<String> columns, List<String> idColumns, int rows) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("merge into ").append(quote(tableName)).append(" with (holdlock) as d using (values");
+        appendValues(sql, columns.size(), rows);
+        sql.append(") as s(");
+        appendColumns(sql, columns, "");
+        sql.append(") on ");
+        for (int i = 0; i < idColumns.size(); i++) {
+            String label = quote(idColumns.get(i));
+            sql.append(i == 0 ? "" : " and ").append("d.").append(label).append("=s.").append(label);
+        }
+        int i = 0;
+        for (String column : columns) {
+            if (isIdColumn(column, idColumns)) {
+                continue;
+            }
+            String label = quote(column);
+            sql.append(i++ == 0 ? " when matched then update set " : ",")
+                    .append("d.").append(label).append("=s.").append(label);
+        }
+        sql.append(" when not matched then insert (");
+        appendColumns(sql, columns, "");
+        sql.append(") values (");
+        appendColumns(sql, columns, "s.");
+        sql.append(");");
+        return sql.toString();
+    }
+}
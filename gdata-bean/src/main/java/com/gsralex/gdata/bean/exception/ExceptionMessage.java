@@ -11,7 +11,27 @@ public class ExceptionMessage {
     public static final String NOTID_FORDELETE = "The entity has no ID annotations, and the DELETE statement cannot be used";
 
 
+    public static final String NOTID_FORUPSERT = "The entity has no ID annotations, and the UPSERT statement cannot be used";
+
+    public static final String NOTID_FORSELECT = "The entity has no ID annotations, and the SELECT by id cannot be used";
+
+    public static final String NOTSINGLEID_FORIN = "The entity has more than one ID annotation, and the IN list cannot be used";
+
+    public static final String UPSERT_NOTSUPPORT = "The database dialect does not support UPSERT";
+
+    public static final String TX_ROLLBACKONLY = "Transaction rolled back because it has been marked as rollback-only";
+
+    public static final String TX_MANDATORY = "No existing transaction found for transaction marked with propagation MANDATORY";
+
+    public static final String TX_NEVER = "Existing transaction found for transaction marked with propagation NEVER";
+
+    public static final String WB_CLOSED = "The write-behind buffer has been closed";
+
+    public static final String DS_CLOSED = "The data set has been closed";
+
     public static final String PLH_NOTPROPBEANSOURCE = "The beansource has no match property";
 
     public static final String PLH_NOTKEYMAP = "The map has no match key";
+
+    public static final String PLH_EMPTYLIST = "The collection or array parameter is empty";
 }
@@ -0,0 +1,12 @@
+package com.gsralex.gdata.bean.flow;
+
+/**
+ * 与java.util.concurrent.Flow.Publisher(reactive-streams)相同的约定，java8下使用
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface Publisher<T> {
+
+    void subscribe(Subscriber<? super T> subscriber);
+}
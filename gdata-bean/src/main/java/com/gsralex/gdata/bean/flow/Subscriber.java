@@ -0,0 +1,18 @@
+package com.gsralex.gdata.bean.flow;
+
+/**
+ * 与java.util.concurrent.Flow.Subscriber相同的约定
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+}
@@ -0,0 +1,14 @@
+package com.gsralex.gdata.bean.flow;
+
+/**
+ * 与java.util.concurrent.Flow.Subscription相同的约定
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface Subscription {
+
+    void request(long n);
+
+    void cancel();
+}
@@ -0,0 +1,163 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+
+/**
+ * 按每次executeBatch的耗时自动调整批次大小(AIMD)
+ * 耗时在上限内且吞吐没有下降时加increment，超过上限、吞吐明显下降或遇到死锁/锁等待超时时乘以decreaseFactor
+ * 可以在多个任务间共享，同一张表的任务共用一个实例效果最好
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class AdaptiveBatchSize {
+
+    private static final double THROUGHPUT_DROP = 0.8;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long maxLatencyNanos;
+    private int increment;
+    private double decreaseFactor = 0.5;
+
+    private int batchSize;
+    private double rowsPerSecond;
+    private long lastLatencyNanos;
+    private long flushCount;
+    private long backoffCount;
+
+    /**
+     * @param maxLatencyMillis 单次executeBatch的耗时上限
+     */
+    public AdaptiveBatchSize(int minSize, int maxSize, long maxLatencyMillis) {
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("minSize:" + minSize + ",maxSize:" + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxLatencyNanos = maxLatencyMillis * 1000000L;
+        this.increment = Math.max(1, minSize);
+        this.batchSize = minSize;
+    }
+
+    public synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    public synchronized void setBatchSize(int batchSize) {
+        this.batchSize = clamp(batchSize);
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getIncrement() {
+        return increment;
+    }
+
+    public synchronized void setIncrement(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException("increment:" + increment);
+        }
+        this.increment = increment;
+    }
+
+    public synchronized double getDecreaseFactor() {
+        return decreaseFactor;
+    }
+
+    public synchronized void setDecreaseFactor(double decreaseFactor) {
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("decreaseFactor:" + decreaseFactor);
+        }
+        this.decreaseFactor = decreaseFactor;
+    }
+
+    /**
+     * 最近一次完整批次的吞吐(行/秒)
+     */
+    public synchronized double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public synchronized long getLastLatencyMillis() {
+        return lastLatencyNanos / 1000000L;
+    }
+
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+
+    public synchronized long getBackoffCount() {
+        return backoffCount;
+    }
+
+    /**
+     * 一次executeBatch完成后调用
+     */
+    public synchronized void onFlush(int rows, long elapsedNanos) {
+        flushCount++;
+        lastLatencyNanos = elapsedNanos;
+        if (rows < batchSize) {
+            //tail of the input, not a fair sample
+            return;
+        }
+        double current = elapsedNanos <= 0 ? Double.MAX_VALUE : rows * 1e9 / elapsedNanos;
+        if (elapsedNanos > maxLatencyNanos) {
+            decrease();
+        } else if (rowsPerSecond != 0 && current < rowsPerSecond * THROUGHPUT_DROP) {
+            //bigger batches stopped paying off
+            decrease();
+        } else {
+            batchSize = clamp(batchSize + increment);
+        }
+        rowsPerSecond = current;
+    }
+
+    /**
+     * 死锁或锁等待超时后调用
+     */
+    public synchronized void onBackoff() {
+        backoffCount++;
+        decrease();
+    }
+
+    /**
+     * 死锁/锁等待超时：SQLTransactionRollbackException、sqlstate 40001/40P01、mysql 1205/1213
+     */
+    public static boolean isLockFailure(SQLException e) {
+        for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+            if (ex instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+            String state = ex.getSQLState();
+            if ("40001".equals(state) || "40P01".equals(state)) {
+                return true;
+            }
+            if (ex.getErrorCode() == 1205 || ex.getErrorCode() == 1213) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void decrease() {
+        batchSize = clamp((int) (batchSize * decreaseFactor));
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptiveBatchSize{batchSize=" + batchSize + ", rowsPerSecond=" + (long) rowsPerSecond
+                + ", backoffs=" + backoffCount + "}";
+    }
+}
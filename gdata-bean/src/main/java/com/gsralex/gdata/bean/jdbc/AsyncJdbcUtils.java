@@ -0,0 +1,283 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.placeholder.BeanSource;
+import com.gsralex.gdata.bean.result.DataSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * JdbcUtils的异步版本，返回CompletableFuture
+ * 每个调用在独立线程上打开一个Session(独立连接)执行，线程数应不大于连接池大小
+ * 等待队列满时按blockWhenFull阻塞提交线程或返回RejectedExecutionException
+ * cancel(true)会调用正在执行语句的Statement.cancel()
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class AsyncJdbcUtils implements AutoCloseable {
+
+    private static final AtomicInteger POOL_SEQ = new AtomicInteger();
+
+    private final JdbcUtils jdbcUtils;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncJdbcUtils(JdbcUtils jdbcUtils, int threads, int queueSize) {
+        this(jdbcUtils, threads, queueSize, true);
+    }
+
+    public AsyncJdbcUtils(JdbcUtils jdbcUtils, int threads, int queueSize, boolean blockWhenFull) {
+        this.jdbcUtils = jdbcUtils;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new DaemonThreadFactory(),
+                blockWhenFull ? new BlockPolicy() : new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public JdbcUtils getJdbcUtils() {
+        return jdbcUtils;
+    }
+
+    /**
+     * 等待执行的任务数
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 在一个Session中执行action，action中可以使用事务
+     */
+    public <T> CompletableFuture<T> submit(Function<Session, T> action) {
+        AsyncTask<T> task = new AsyncTask<>(jdbcUtils, action);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    public <T> CompletableFuture<Boolean> insert(T t) {
+        return submit(session -> session.insert(t));
+    }
+
+    public <T> CompletableFuture<Boolean> insert(T t, boolean generatedKey) {
+        return submit(session -> session.insert(t, generatedKey));
+    }
+
+    public <T> CompletableFuture<Integer> batchInsert(List<T> list) {
+        return submit(session -> session.batchInsert(list));
+    }
+
+    public <T> CompletableFuture<Integer> batchInsert(List<T> list, boolean generatedKey) {
+        return submit(session -> session.batchInsert(list, generatedKey));
+    }
+
+    public <T> CompletableFuture<Boolean> update(T t) {
+        return submit(session -> session.update(t));
+    }
+
+    public <T> CompletableFuture<Integer> batchUpdate(List<T> list) {
+        return submit(session -> session.batchUpdate(list));
+    }
+
+    public <T> CompletableFuture<Boolean> upsert(T t) {
+        return submit(session -> session.upsert(t));
+    }
+
+    public <T> CompletableFuture<Integer> batchUpsert(List<T> list) {
+        return submit(session -> session.batchUpsert(list));
+    }
+
+    public <T> CompletableFuture<Boolean> delete(T t) {
+        return submit(session -> session.delete(t));
+    }
+
+    public <T> CompletableFuture<Integer> batchDelete(List<T> list) {
+        return submit(session -> session.batchDelete(list));
+    }
+
+    public CompletableFuture<Integer> executeUpdate(String sql, Object[] objects) {
+        return submit(session -> session.executeUpdate(sql, objects));
+    }
+
+    public CompletableFuture<Integer> executeUpdateP(String pSql, Map<String, Object> paramMap) {
+        return submit(session -> session.executeUpdateP(pSql, paramMap));
+    }
+
+    public CompletableFuture<Integer> executeBatch(String sql, List<Object[]> objects) {
+        return submit(session -> session.executeBatch(sql, objects));
+    }
+
+    public <T> CompletableFuture<T> queryForObject(String sql, Object[] objects, Class<T> type) {
+        return submit(session -> session.queryForObject(sql, objects, type));
+    }
+
+    public <T> CompletableFuture<T> queryForObjectP(String pSql, Map<String, Object> paramMap, Class<T> type) {
+        return submit(session -> session.queryForObjectP(pSql, paramMap, type));
+    }
+
+    public <T> CompletableFuture<T> queryForObjectP(String pSql, BeanSource beanSource, Class<T> type) {
+        return submit(session -> session.queryForObjectP(pSql, beanSource, type));
+    }
+
+    public <T> CompletableFuture<List<T>> queryForList(String sql, Object[] objects, Class<T> type) {
+        return submit(session -> session.queryForList(sql, objects, type));
+    }
+
+    public <T> CompletableFuture<List<T>> queryForListP(String pSql, Map<String, Object> paramMap, Class<T> type) {
+        return submit(session -> session.queryForListP(pSql, paramMap, type));
+    }
+
+    public <T> CompletableFuture<List<T>> queryForListP(String pSql, BeanSource beanSource, Class<T> type) {
+        return submit(session -> session.queryForListP(pSql, beanSource, type));
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> queryForList(String sql, Object... objects) {
+        return submit(session -> session.queryForList(sql, objects));
+    }
+
+    public CompletableFuture<DataSet> queryForDataSet(String sql, Object... objects) {
+        return submit(session -> session.queryForDataSet(sql, objects));
+    }
+
+    public CompletableFuture<DataSet> queryForDataSetP(String pSql, Map<String, Object> paramMap) {
+        return submit(session -> session.queryForDataSetP(pSql, paramMap));
+    }
+
+    public <T> CompletableFuture<T> findById(Class<T> type, Object... ids) {
+        return submit(session -> session.findById(type, ids));
+    }
+
+    public <T> CompletableFuture<Map<Object, T>> findByIds(Class<T> type, Collection<?> ids) {
+        return submit(session -> session.findByIds(type, ids));
+    }
+
+    /**
+     * 等待全部完成，结果按传入顺序返回；任一失败时整体失败
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        CompletableFuture<?>[] array = futures.toArray(new CompletableFuture[0]);
+        return CompletableFuture.allOf(array).thenApply(v -> {
+            List<T> list = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                list.add(future.join());
+            }
+            return list;
+        });
+    }
+
+    /**
+     * 任一失败时取消其余未完成的调用
+     */
+    public static CompletableFuture<Void> allOf(CompletableFuture<?>... futures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((v, e) -> {
+                if (e != null) {
+                    for (CompletableFuture<?> other : futures) {
+                        other.cancel(true);
+                    }
+                }
+            });
+        }
+        return all;
+    }
+
+    /**
+     * 不再接受新任务，已提交的继续执行
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private static class AsyncTask<T> extends CompletableFuture<T> implements Runnable {
+
+        private final JdbcUtils jdbcUtils;
+        private final Function<Session, T> action;
+        private volatile Session session;
+
+        AsyncTask(JdbcUtils jdbcUtils, Function<Session, T> action) {
+            this.jdbcUtils = jdbcUtils;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                //cancelled while queued
+                return;
+            }
+            try (Session session = jdbcUtils.openSession()) {
+                this.session = session;
+                if (isDone()) {
+                    return;
+                }
+                complete(action.apply(session));
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                this.session = null;
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Session running = session;
+            if (cancelled && mayInterruptIfRunning && running != null) {
+                running.cancel();
+            }
+            return cancelled;
+        }
+    }
+
+    private static class BlockPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("executor is shutdown");
+            }
+            try {
+                executor.getQueue().put(r);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+            }
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String prefix = "gdata-async-" + POOL_SEQ.incrementAndGet() + "-";
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + seq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
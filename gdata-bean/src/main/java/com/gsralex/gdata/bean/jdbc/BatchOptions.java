@@ -0,0 +1,72 @@
+package com.gsralex.gdata.bean.jdbc;
+
+/**
+ * 流式批量写入的参数
+ * 每batchSize行执行一次executeBatch；commitSize大于0时每commitSize行提交一次，否则全部写完后提交
+ * 已经在事务中(autoCommit=false)时不会提交，commitSize被忽略
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class BatchOptions {
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int commitSize = 0;
+    private boolean generatedKey = false;
+    private BatchProgressListener listener;
+    private AdaptiveBatchSize adaptive;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize:" + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getCommitSize() {
+        return commitSize;
+    }
+
+    public void setCommitSize(int commitSize) {
+        if (commitSize < 0) {
+            throw new IllegalArgumentException("commitSize:" + commitSize);
+        }
+        this.commitSize = commitSize;
+    }
+
+    public boolean isGeneratedKey() {
+        return generatedKey;
+    }
+
+    /**
+     * insert时回写自增主键，只保留当前批次的对象
+     */
+    public void setGeneratedKey(boolean generatedKey) {
+        this.generatedKey = generatedKey;
+    }
+
+    public BatchProgressListener getListener() {
+        return listener;
+    }
+
+    public void setListener(BatchProgressListener listener) {
+        this.listener = listener;
+    }
+
+    public AdaptiveBatchSize getAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * 设置后batchSize由adaptive按耗时调整，setBatchSize被忽略
+     */
+    public void setAdaptive(AdaptiveBatchSize adaptive) {
+        this.adaptive = adaptive;
+    }
+}
@@ -0,0 +1,16 @@
+package com.gsralex.gdata.bean.jdbc;
+
+/**
+ * 流式批量写入的进度回调，每次executeBatch及commit后调用
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface BatchProgressListener {
+
+    /**
+     * @param flushedRows   已执行executeBatch的行数
+     * @param committedRows 已提交的行数，加入外部事务时始终为0
+     */
+    void onProgress(long flushedRows, long committedRows);
+}
@@ -0,0 +1,39 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import javax.sql.DataSource;
+
+/**
+ * JdbcUtils从哪里取得当前连接
+ * 默认按线程绑定(JdbcConnHolder)，Session绑定到自己持有的一个连接
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface ConnectionBinding {
+
+    /**
+     * 当前连接，没有时从dataSource获取
+     */
+    ConnectionState getState(DataSource dataSource);
+
+    /**
+     * 当前连接，没有时返回null
+     */
+    ConnectionState getState();
+
+    boolean inTransaction();
+
+    /**
+     * 语句执行完后调用
+     */
+    void releaseConnection();
+
+    /**
+     * 事务结束后调用
+     */
+    void closeConnection();
+
+    ConnectionState suspend();
+
+    void resume(ConnectionState state);
+}
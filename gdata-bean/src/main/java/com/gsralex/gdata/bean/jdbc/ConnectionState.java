@@ -0,0 +1,243 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.exception.DataException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 线程持有的连接及其状态，autoCommit/readOnly/isolation在客户端记录
+ * 新连接的autoCommit/readOnly在创建时从驱动读取一次，之后只有状态真正变化时才调用驱动
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class ConnectionState {
+
+    private static final int ISOLATION_UNKNOWN = -1;
+
+    private final Connection connection;
+    private boolean autoCommit;
+    private boolean readOnly;
+    private int isolation = ISOLATION_UNKNOWN;
+    private int originalIsolation = ISOLATION_UNKNOWN;
+    private boolean rollbackOnly = false;
+    private StatementCache statementCache;
+    private volatile Statement executing;
+    private List<Runnable> completionCallbacks;
+    private List<Runnable> commitCallbacks;
+
+    public ConnectionState(Connection connection) throws SQLException {
+        this.connection = connection;
+        //a DataSource may hand out autoCommit=false connections (dbcp defaultAutoCommit)
+        this.autoCommit = connection.getAutoCommit();
+        this.readOnly = connection.isReadOnly();
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public boolean isAutoCommit() {
+        return autoCommit;
+    }
+
+    public void setAutoCommit(boolean autoCommit) {
+        if (this.autoCommit == autoCommit) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+        } catch (SQLException e) {
+            throw new DataException("setAutoCommit", e);
+        }
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public void setReadOnly(boolean readOnly) {
+        if (this.readOnly == readOnly) {
+            return;
+        }
+        try {
+            connection.setReadOnly(readOnly);
+            this.readOnly = readOnly;
+        } catch (SQLException e) {
+            throw new DataException("setReadOnly", e);
+        }
+    }
+
+    public int getIsolation() {
+        if (isolation == ISOLATION_UNKNOWN) {
+            try {
+                isolation = connection.getTransactionIsolation();
+            } catch (SQLException e) {
+                throw new DataException("getTransactionIsolation", e);
+            }
+        }
+        return isolation;
+    }
+
+    public void setIsolation(int isolation) {
+        int current = getIsolation();
+        if (current == isolation) {
+            return;
+        }
+        try {
+            connection.setTransactionIsolation(isolation);
+            if (originalIsolation == ISOLATION_UNKNOWN) {
+                originalIsolation = current;
+            }
+            this.isolation = isolation;
+        } catch (SQLException e) {
+            throw new DataException("setTransactionIsolation", e);
+        }
+    }
+
+    /**
+     * 加入外层事务的代码出错后标记，外层提交时改为回滚
+     */
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    public void setRollbackOnly(boolean rollbackOnly) {
+        this.rollbackOnly = rollbackOnly;
+    }
+
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public StatementCache getStatementCache(int maxSize, StatementCacheStats stats) {
+        if (statementCache == null) {
+            statementCache = new StatementCache(connection, maxSize, stats);
+        }
+        return statementCache;
+    }
+
+    void setExecuting(Statement statement) {
+        this.executing = statement;
+    }
+
+    /**
+     * 取消正在执行的语句，可以从其他线程调用
+     */
+    public boolean cancel() {
+        Statement statement = executing;
+        if (statement == null) {
+            return false;
+        }
+        try {
+            statement.cancel();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 事务结束(提交、回滚或连接归还)时执行
+     */
+    public void afterCompletion(Runnable callback) {
+        if (completionCallbacks == null) {
+            completionCallbacks = new ArrayList<>();
+        }
+        completionCallbacks.add(callback);
+    }
+
+    int getCompletionCallbackCount() {
+        return completionCallbacks == null ? 0 : completionCallbacks.size();
+    }
+
+    /**
+     * 事务提交后执行，回滚或连接关闭时丢弃
+     */
+    public void afterCommit(Runnable callback) {
+        if (commitCallbacks == null) {
+            commitCallbacks = new ArrayList<>();
+        }
+        commitCallbacks.add(callback);
+    }
+
+    /**
+     * 当前已登记的提交回调数，回滚到savepoint时按此丢弃之后登记的
+     */
+    int getCommitCallbackCount() {
+        return commitCallbacks == null ? 0 : commitCallbacks.size();
+    }
+
+    void discardCommitCallbacks(int from) {
+        if (commitCallbacks != null && commitCallbacks.size() > from) {
+            commitCallbacks.subList(from, commitCallbacks.size()).clear();
+        }
+    }
+
+    void runCommitCallbacks() {
+        if (commitCallbacks == null) {
+            return;
+        }
+        List<Runnable> callbacks = commitCallbacks;
+        commitCallbacks = null;
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                //one failing callback must not skip the others
+            }
+        }
+    }
+
+    void runCompletionCallbacks() {
+        if (completionCallbacks == null) {
+            return;
+        }
+        List<Runnable> callbacks = completionCallbacks;
+        completionCallbacks = null;
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                //one failing callback must not skip the others
+            }
+        }
+    }
+
+    /**
+     * 关闭前恢复连接的默认状态，连接池中的连接可能被复用
+     */
+    void reset() {
+        executing = null;
+        //not committed through JdbcUtils/TransactionTemplate, the outcome is unknown
+        commitCallbacks = null;
+        runCompletionCallbacks();
+        if (statementCache != null) {
+            statementCache.close();
+            statementCache = null;
+        }
+        rollbackOnly = false;
+        try {
+            if (!autoCommit) {
+                connection.setAutoCommit(true);
+                autoCommit = true;
+            }
+            if (readOnly) {
+                connection.setReadOnly(false);
+                readOnly = false;
+            }
+            if (originalIsolation != ISOLATION_UNKNOWN) {
+                connection.setTransactionIsolation(originalIsolation);
+                isolation = originalIsolation;
+                originalIsolation = ISOLATION_UNKNOWN;
+            }
+        } catch (SQLException e) {
+            //connection is about to be closed
+        }
+    }
+}
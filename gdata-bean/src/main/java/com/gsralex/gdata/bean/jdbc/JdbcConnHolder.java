@@ -12,30 +12,100 @@ import java.sql.SQLException;
  */
 public class JdbcConnHolder {
 
-    private static final ThreadLocal<Connection> connPool = new ThreadLocal<>();
+    private static final ThreadLocal<ConnectionState> connPool = new ThreadLocal<>();
 
     public static Connection getConnection(DataSource dataSource) {
-        Connection conn = connPool.get();
-        if (conn == null) {
+        return getState(dataSource).getConnection();
+    }
+
+    public static ConnectionState getState(DataSource dataSource) {
+        ConnectionState state = connPool.get();
+        if (state == null) {
+            state = open(dataSource);
+            connPool.set(state);
+        }
+        return state;
+    }
+
+    /**
+     * 获取一个不绑定线程的连接
+     */
+    public static ConnectionState open(DataSource dataSource) {
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new DataException("getConnection", e);
+        }
+        try {
+            return new ConnectionState(connection);
+        } catch (SQLException e) {
             try {
-                conn = dataSource.getConnection();
-                connPool.set(conn);
-            } catch (SQLException e) {
-                throw new DataException("getConnection", e);
+                connection.close();
+            } catch (SQLException ex) {
             }
+            throw new DataException("getAutoCommit", e);
         }
-        return conn;
     }
 
-    public static void closeConnection() {
-        Connection conn = connPool.get();
+    /**
+     * 恢复连接状态并关闭
+     */
+    public static void close(ConnectionState state) {
+        state.reset();
         try {
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
-                connPool.set(null);
+            if (!state.getConnection().isClosed()) {
+                state.getConnection().close();
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * 当前线程持有的连接状态，没有连接时返回null，不会创建连接
+     */
+    public static ConnectionState getState() {
+        return connPool.get();
+    }
+
+    /**
+     * 当前线程是否处于事务中(autoCommit=false)
+     */
+    public static boolean inTransaction() {
+        ConnectionState state = connPool.get();
+        return state != null && !state.isAutoCommit();
+    }
+
+    /**
+     * 语句执行完后调用，不在事务中时关闭连接
+     */
+    public static void releaseConnection() {
+        ConnectionState state = connPool.get();
+        if (state != null && state.isAutoCommit()) {
+            closeConnection();
+        }
+    }
+
+    public static void closeConnection() {
+        ConnectionState state = connPool.get();
+        if (state == null) {
+            return;
+        }
+        connPool.set(null);
+        close(state);
+    }
+
+    /**
+     * 挂起当前线程的连接，用于REQUIRES_NEW/NOT_SUPPORTED
+     */
+    public static ConnectionState suspend() {
+        ConnectionState state = connPool.get();
+        connPool.set(null);
+        return state;
+    }
+
+    public static void resume(ConnectionState state) {
+        connPool.set(state);
+    }
 }
@@ -1,17 +1,36 @@
 package com.gsralex.gdata.bean.jdbc;
 
 
+import com.gsralex.gdata.bean.cache.CacheConfig;
+import com.gsralex.gdata.bean.cache.EntityCache;
+import com.gsralex.gdata.bean.cache.QueryCache;
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
 import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.flow.Publisher;
 import com.gsralex.gdata.bean.placeholder.BeanSource;
 import com.gsralex.gdata.bean.placeholder.SqlObject;
 import com.gsralex.gdata.bean.placeholder.ValueConverterImpl;
 import com.gsralex.gdata.bean.result.DataRowSet;
 import com.gsralex.gdata.bean.result.DataSet;
+import com.gsralex.gdata.bean.result.DataSetImpl;
 import com.gsralex.gdata.bean.result.DataSetUtils;
+import com.gsralex.gdata.bean.result.SpillOptions;
+import com.gsralex.gdata.bean.result.SpillingDataSet;
 import com.gsralex.gdata.bean.sqlstatement.JdbcHelper;
+import com.gsralex.gdata.bean.mapper.EntitySnapshot;
+import com.gsralex.gdata.bean.mapper.FieldColumn;
+import com.gsralex.gdata.bean.mapper.MapperHolder;
 import com.gsralex.gdata.bean.mapper.MapperHelper;
+import com.gsralex.gdata.bean.mapper.RowMapperPlan;
+import com.gsralex.gdata.bean.mapper.SnapshotHolder;
 import com.gsralex.gdata.bean.sqlstatement.SqlDeleteStatement;
 import com.gsralex.gdata.bean.sqlstatement.SqlInsertStatement;
+import com.gsralex.gdata.bean.sqlstatement.SqlKind;
+import com.gsralex.gdata.bean.sqlstatement.SqlSelectStatement;
+import com.gsralex.gdata.bean.sqlstatement.SqlTemplate;
+import com.gsralex.gdata.bean.sqlstatement.SqlUpsertStatement;
 import com.gsralex.gdata.bean.sqlstatement.SqlUpdateStatement;
 import com.gsralex.gdata.bean.mapper.TypeUtils;
 import org.apache.log4j.Logger;
@@ -19,9 +38,20 @@ import org.apache.log4j.Logger;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author gsralex
@@ -36,14 +66,92 @@ public class JdbcUtils {
     private SqlUpdateStatement updateStatement;
     private MapperHelper mapperHelper;
     private SqlDeleteStatement deleteStatement;
+    private SqlUpsertStatement upsertStatement;
+    private SqlSelectStatement selectStatement;
+    private Dialect dialect;
+
+    private static final int DEFAULT_MULTIROW_INSERT_SIZE = 500;
+    private static final int DEFAULT_IN_LIST_SIZE = 500;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private boolean multiRowInsert = false;
+    private int multiRowInsertSize = DEFAULT_MULTIROW_INSERT_SIZE;
+    private boolean trackChanges = false;
+    private boolean batchDeleteInList = false;
+    private int inListSize = DEFAULT_IN_LIST_SIZE;
+    private int statementCacheSize = 0;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private ConnectionBinding binding = ThreadLocalConnectionBinding.INSTANCE;
+    private Map<Class, EntityCache> entityCaches = new ConcurrentHashMap<>();
+    private QueryCache queryCache;
 
 
     public JdbcUtils(DataSource dataSource) {
+        this(dataSource, Dialects.getDialect(JdbcHelper.getProductName(dataSource)));
+    }
+
+    public JdbcUtils(DataSource dataSource, Dialect dialect) {
         this.dataSource = dataSource;
-        this.insertStatement = new SqlInsertStatement(dataSource);
-        this.updateStatement = new SqlUpdateStatement(dataSource);
+        this.dialect = dialect;
+        this.insertStatement = new SqlInsertStatement(dialect);
+        this.updateStatement = new SqlUpdateStatement(dialect);
         this.mapperHelper = new MapperHelper();
-        this.deleteStatement = new SqlDeleteStatement(dataSource);
+        this.deleteStatement = new SqlDeleteStatement(dialect);
+        this.upsertStatement = new SqlUpsertStatement(dialect);
+        this.selectStatement = new SqlSelectStatement(dialect);
+    }
+
+    /**
+     * 复制parent的配置，连接从binding获取
+     * sql语句和映射计划的缓存与parent共用，每个Session不用重新生成
+     */
+    protected JdbcUtils(JdbcUtils parent, ConnectionBinding binding) {
+        this.dataSource = parent.dataSource;
+        this.dialect = parent.dialect;
+        this.insertStatement = parent.insertStatement;
+        this.updateStatement = parent.updateStatement;
+        this.mapperHelper = parent.mapperHelper;
+        this.deleteStatement = parent.deleteStatement;
+        this.upsertStatement = parent.upsertStatement;
+        this.selectStatement = parent.selectStatement;
+        this.multiRowInsert = parent.multiRowInsert;
+        this.multiRowInsertSize = parent.multiRowInsertSize;
+        this.trackChanges = parent.trackChanges;
+        this.batchDeleteInList = parent.batchDeleteInList;
+        this.inListSize = parent.inListSize;
+        this.statementCacheSize = parent.statementCacheSize;
+        this.statementCacheStats = parent.statementCacheStats;
+        this.fetchSize = parent.fetchSize;
+        this.entityCaches = parent.entityCaches;
+        this.queryCache = parent.queryCache;
+        this.binding = binding;
+    }
+
+    /**
+     * 打开一个持有独立连接的Session，不占用当前线程的连接
+     */
+    public Session openSession() {
+        return new Session(this);
+    }
+
+    public ConnectionBinding getConnectionBinding() {
+        return binding;
+    }
+
+    /**
+     * 替换连接的获取方式，默认按线程绑定
+     */
+    public void setConnectionBinding(ConnectionBinding binding) {
+        this.binding = binding;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    MapperHelper getMapperHelper() {
+        return mapperHelper;
     }
 
     public <T> boolean insert(T t) {
@@ -74,16 +182,13 @@ public class JdbcUtils {
         if (t == null) {
             return false;
         }
-        Object[] objects = insertStatement.getObjects(t);
-        String sql = insertStatement.getSql(t.getClass());
-        return executeUpdate(sql, objects) != 0 ? true : false;
+        SqlTemplate template = insertStatement.getTemplate(t.getClass());
+        return executeUpdate(template.getSql(), template.getObjects(t)) != 0 ? true : false;
     }
 
     private <T> boolean insertGeneratedKey(T t) {
-        Class type = t.getClass();
-        String sql = insertStatement.getSql(type);
-        Object[] objects = insertStatement.getObjects(t);
-        JdbcGeneratedKey generatedKey = executeUpdateGenerateKey(sql, objects);
+        SqlTemplate template = insertStatement.getTemplate(t.getClass());
+        JdbcGeneratedKey generatedKey = executeUpdateGenerateKey(template.getSql(), template.getObjects(t));
         insertStatement.setIdValue(generatedKey, t);
         return generatedKey.getResult() != 0 ? true : false;
     }
@@ -96,6 +201,10 @@ public class JdbcUtils {
     public <T> int batchInsert(List<T> list, boolean generatedKey) {
         if (list == null || list.size() == 0)
             return 0;
+        if (multiRowInsert && insertStatement.supportsMultiRowInsert(generatedKey)) {
+            Class type = TypeUtils.getType(list);
+            return batchInsertMultiRow(list, generatedKey && insertStatement.existsGenerateKey(type));
+        }
         if (generatedKey) {
             Class type = TypeUtils.getType(list);
             if (insertStatement.existsGenerateKey(type)) {
@@ -109,27 +218,75 @@ public class JdbcUtils {
     }
 
     private <T> int batchInsertBean(List<T> list) {
-        String sql = insertStatement.getSql(TypeUtils.getType(list));
-        List<Object[]> objectList = new ArrayList<>();
+        SqlTemplate template = insertStatement.getTemplate(TypeUtils.getType(list));
+        List<Object[]> objectList = new ArrayList<>(list.size());
         for (T t : list) {
-            objectList.add(insertStatement.getObjects(t));
+            objectList.add(template.getObjects(t));
         }
-        return executeBatch(sql, objectList);
+        return executeBatch(template.getSql(), objectList);
     }
 
     private <T> int batchInsertGeneratedKey(List<T> list) {
-        Class type = TypeUtils.getType(list);
-        String sql = insertStatement.getSql(type);
-        List<Object[]> objectList = new ArrayList<>();
+        SqlTemplate template = insertStatement.getTemplate(TypeUtils.getType(list));
+        List<Object[]> objectList = new ArrayList<>(list.size());
         for (T t : list) {
-            objectList.add(insertStatement.getObjects(t));
+            objectList.add(template.getObjects(t));
         }
-        JdbcGeneratedKey generatedKey = executeBatchGeneratedKey(sql, objectList);
+        JdbcGeneratedKey generatedKey = executeBatchGeneratedKey(template.getSql(), objectList);
         insertStatement.setIdValue(generatedKey, list);
         return generatedKey.getResult();
     }
 
 
+    /**
+     * 按multiRowInsertSize和数据库参数上限分块，每块一条 insert ... values(...),(...)
+     */
+    private <T> int batchInsertMultiRow(List<T> list, boolean generatedKey) {
+        Class type = TypeUtils.getType(list);
+        int chunkSize = insertStatement.getMultiRowSize(type, multiRowInsertSize);
+        List<String> sqlList = new ArrayList<>();
+        List<Object[]> objectsList = new ArrayList<>();
+        for (int from = 0, size = list.size(); from < size; from += chunkSize) {
+            int to = Math.min(from + chunkSize, size);
+            sqlList.add(insertStatement.getMultiRowSql(type, to - from));
+            objectsList.add(insertStatement.getMultiRowObjects(list, from, to));
+        }
+        JdbcGeneratedKey generatedKeyResult = executeMultiRow(sqlList, objectsList, generatedKey);
+        if (generatedKey) {
+            insertStatement.setIdValue(generatedKeyResult, list);
+        }
+        return generatedKeyResult.getResult();
+    }
+
+    /**
+     * 流式批量insert，逐行绑定并按options分批执行、提交，内存占用与总行数无关
+     *
+     * @return 影响的行数
+     */
+    public <T> long batchInsert(Iterable<T> items, BatchOptions options) {
+        return executeBatch(SqlKind.Insert, items.iterator(), options);
+    }
+
+    public <T> long batchInsert(Stream<T> items, BatchOptions options) {
+        return executeBatch(SqlKind.Insert, items.iterator(), options);
+    }
+
+    public <T> long batchUpdate(Iterable<T> items, BatchOptions options) {
+        return executeBatch(SqlKind.Update, items.iterator(), options);
+    }
+
+    public <T> long batchUpdate(Stream<T> items, BatchOptions options) {
+        return executeBatch(SqlKind.Update, items.iterator(), options);
+    }
+
+    public <T> long batchDelete(Iterable<T> items, BatchOptions options) {
+        return executeBatch(SqlKind.Delete, items.iterator(), options);
+    }
+
+    public <T> long batchDelete(Stream<T> items, BatchOptions options) {
+        return executeBatch(SqlKind.Delete, items.iterator(), options);
+    }
+
     public JdbcGeneratedKey executeUpdateGenerateKey(String sql, Object[] objects) {
         return executeUpdate(sql, objects, true);
     }
@@ -147,9 +304,12 @@ public class JdbcUtils {
         if (!updateStatement.checkValid(type)) {
             return false;
         }
-        String sql = updateStatement.getSql(type);
-        Object[] objects = updateStatement.getObjects(t);
-        return executeUpdate(sql, objects) != 0 ? true : false;
+        SqlTemplate template = updateStatement.getTemplate(type);
+        try {
+            return executeUpdate(template.getSql(), template.getObjects(t)) != 0 ? true : false;
+        } finally {
+            invalidateCache(t);
+        }
     }
 
     public <T> int batchUpdate(List<T> list) {
@@ -160,12 +320,181 @@ public class JdbcUtils {
         if (!updateStatement.checkValid(type)) {
             return 0;
         }
-        String sql = updateStatement.getSql(type);
-        List<Object[]> objectList = new ArrayList<>();
+        SqlTemplate template = updateStatement.getTemplate(type);
+        List<Object[]> objectList = new ArrayList<>(list.size());
         for (T t : list) {
-            objectList.add(updateStatement.getObjects(t));
+            objectList.add(template.getObjects(t));
+        }
+        try {
+            return executeBatch(template.getSql(), objectList);
+        } finally {
+            invalidateCache(list);
+        }
+    }
+
+    /**
+     * 只更新相对快照被修改的列，没有快照时更新全部列
+     * 没有修改的实体不执行sql，返回false
+     */
+    public <T> boolean updateChanged(T t) {
+        if (t == null) {
+            return false;
+        }
+        Class type = t.getClass();
+        if (!updateStatement.checkValid(type)) {
+            return false;
+        }
+        BitSet changed = getChangedColumns(t);
+        if (changed.isEmpty()) {
+            return false;
+        }
+        SqlTemplate template = updateStatement.getChangedTemplate(type, changed);
+        boolean ok;
+        try {
+            ok = executeUpdate(template.getSql(), template.getObjects(t)) != 0;
+        } finally {
+            invalidateCache(t);
+        }
+        if (ok) {
+            putSnapshot(t);
+        }
+        return ok;
+    }
+
+    /**
+     * 修改列相同的实体合并成一个batch，所有batch在一个事务中执行
+     */
+    public <T> int batchUpdateChanged(List<T> list) {
+        if (list == null || list.size() == 0) {
+            return 0;
+        }
+        Class type = TypeUtils.getType(list);
+        if (!updateStatement.checkValid(type)) {
+            return 0;
+        }
+        Map<BitSet, List<T>> groups = new LinkedHashMap<>();
+        for (T t : list) {
+            BitSet changed = getChangedColumns(t);
+            if (changed.isEmpty()) {
+                continue;
+            }
+            List<T> group = groups.get(changed);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(changed, group);
+            }
+            group.add(t);
+        }
+        if (groups.isEmpty()) {
+            return 0;
+        }
+        List<String> sqlList = new ArrayList<>(groups.size());
+        List<List<Object[]>> objectsList = new ArrayList<>(groups.size());
+        for (Map.Entry<BitSet, List<T>> entry : groups.entrySet()) {
+            SqlTemplate template = updateStatement.getChangedTemplate(type, entry.getKey());
+            List<Object[]> objects = new ArrayList<>(entry.getValue().size());
+            for (T t : entry.getValue()) {
+                objects.add(template.getObjects(t));
+            }
+            sqlList.add(template.getSql());
+            objectsList.add(objects);
+        }
+        List<int[]> counts = new ArrayList<>(groups.size());
+        int r;
+        try {
+            r = executeBatches(sqlList, objectsList, counts);
+        } finally {
+            invalidateCache(list);
+        }
+        int g = 0;
+        for (List<T> group : groups.values()) {
+            int[] count = counts.get(g++);
+            for (int i = 0; i < group.size(); i++) {
+                //a row that matched nothing keeps its old snapshot
+                if (i >= count.length || count[i] != 0 && count[i] != Statement.EXECUTE_FAILED) {
+                    putSnapshot(group.get(i));
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * 写入后以实体当前的值作为新的快照；在事务中时提交后才生效，回滚后保留原来的快照
+     */
+    private void putSnapshot(Object t) {
+        EntitySnapshot snapshot = EntitySnapshot.capture(t);
+        ConnectionState state = binding.getState();
+        if (state != null && !state.isAutoCommit()) {
+            state.afterCommit(() -> SnapshotHolder.put(t, snapshot));
+        } else {
+            SnapshotHolder.put(t, snapshot);
+        }
+    }
+
+    /**
+     * 以实体当前的值作为updateChanged比较的基准
+     */
+    public <T> void snapshot(T t) {
+        if (t != null) {
+            SnapshotHolder.put(t, EntitySnapshot.capture(t));
+        }
+    }
+
+    private BitSet getChangedColumns(Object t) {
+        EntitySnapshot snapshot = SnapshotHolder.get(t);
+        if (snapshot == null) {
+            return EntitySnapshot.getAllColumns(t.getClass());
+        }
+        return snapshot.getChangedColumns(t);
+    }
+
+    /**
+     * 按@Id插入或更新，写入全部列(包含主键)
+     */
+    public <T> boolean upsert(T t) {
+        if (t == null) {
+            return false;
+        }
+        Class type = t.getClass();
+        if (!upsertStatement.checkValid(type)) {
+            return false;
+        }
+        SqlTemplate template = upsertStatement.getTemplate(type);
+        try {
+            return executeUpdate(template.getSql(), template.getObjects(t)) != 0 ? true : false;
+        } finally {
+            invalidateCache(t);
+        }
+    }
+
+    /**
+     * 按multiRowInsertSize和数据库参数上限分块，每块一条upsert语句，主键重复的行只保留最后一个
+     * 返回值为驱动的影响行数，mysql更新一行计为2
+     */
+    public <T> int batchUpsert(List<T> list) {
+        if (list == null || list.size() == 0) {
+            return 0;
+        }
+        Class type = TypeUtils.getType(list);
+        if (!upsertStatement.checkValid(type)) {
+            return 0;
+        }
+        //a key may appear only once per statement
+        list = upsertStatement.distinctById(list);
+        int chunkSize = upsertStatement.getMultiRowSize(type, multiRowInsertSize);
+        List<String> sqlList = new ArrayList<>();
+        List<Object[]> objectsList = new ArrayList<>();
+        for (int from = 0, size = list.size(); from < size; from += chunkSize) {
+            int to = Math.min(from + chunkSize, size);
+            sqlList.add(upsertStatement.getMultiRowSql(type, to - from));
+            objectsList.add(upsertStatement.getMultiRowObjects(list, from, to));
+        }
+        try {
+            return executeMultiRow(sqlList, objectsList, false).getResult();
+        } finally {
+            invalidateCache(list);
         }
-        return executeBatch(sql, objectList);
     }
 
     public int executeBatch(String sql, List<Object[]> objects) {
@@ -189,6 +518,11 @@ public class JdbcUtils {
 
 
     public <T> T queryForObject(String sql, Object[] objects, Class<T> type) {
+        EntityCache<T> cache = getEntityCache(type);
+        if (cache != null && objects != null && objects.length == cache.getIdCount()
+                && selectStatement.isSelectById(type, sql)) {
+            return findById(type, objects);
+        }
         List<T> list = queryForList(sql, objects, type);
         if (list != null && list.size() != 0) {
             return list.get(0);
@@ -213,14 +547,30 @@ public class JdbcUtils {
     }
 
     public <T> List<T> queryForList(String sql, Object[] objects, Class<T> type) {
+        if (useQueryCache(sql) && !trackChanges) {
+            return queryCache.get(sql, objects, type, () -> {
+                try (Session session = openSession()) {
+                    return ((JdbcUtils) session).doQueryForList(sql, objects, type);
+                }
+            });
+        }
+        return doQueryForList(sql, objects, type);
+    }
+
+    private <T> List<T> doQueryForList(String sql, Object[] objects, Class<T> type) {
         List<T> list = new ArrayList<>();
         executeQuery(sql, objects, new ResultCallback() {
             @Override
             public void mapper(ResultSet rs) {
                 try {
-                    Set<String> columnSet = JdbcHelper.getColumnLabelSet(rs.getMetaData());
+                    RowMapperPlan<T> plan = mapperHelper.getPlan(sql, rs.getMetaData(), type);
+                    boolean snapshot = trackChanges && !plan.isSimple();
                     while (rs.next()) {
-                        list.add(mapperHelper.mapperEntity(rs, columnSet, type));
+                        T t = plan.mapRow(rs);
+                        if (snapshot && t != null) {
+                            SnapshotHolder.put(t, EntitySnapshot.capture(t));
+                        }
+                        list.add(t);
                     }
                 } catch (SQLException e) {
                 }
@@ -240,6 +590,17 @@ public class JdbcUtils {
     }
 
     public DataSet queryForDataSet(String sql, Object... objects) {
+        if (useQueryCache(sql)) {
+            return queryCache.get(sql, objects, DataSet.class, () -> {
+                try (Session session = openSession()) {
+                    return ((JdbcUtils) session).doQueryForDataSet(sql, objects);
+                }
+            });
+        }
+        return doQueryForDataSet(sql, objects);
+    }
+
+    private DataSet doQueryForDataSet(String sql, Object[] objects) {
         final DataSet[] dataSet = {null};
         executeQuery(sql, objects, new ResultCallback() {
             @Override
@@ -263,6 +624,19 @@ public class JdbcUtils {
         return queryForDataSet(sqlObject.getSql(), sqlObject.getObjects());
     }
 
+    /**
+     * 结果超过options.maxHeapBytes时其余行写入临时文件并映射读取，用游标分批拉取，不经过查询缓存
+     * 用完需要close删除临时文件
+     */
+    public SpillingDataSet queryForSpillingDataSet(String sql, Object[] objects, SpillOptions options) {
+        return readSpilling(sql, objects, options != null ? options : new SpillOptions());
+    }
+
+    public SpillingDataSet queryForSpillingDataSetP(String pSql, Map<String, Object> paramMap, SpillOptions options) {
+        SqlObject sqlObject = ValueConverterImpl.getInstance().convertMap(pSql, paramMap);
+        return queryForSpillingDataSet(sqlObject.getSql(), sqlObject.getObjects(), options);
+    }
+
     public List<Map<String, Object>> queryForList(String sql, Object... objects) {
         DataSet dataSet = queryForDataSet(sql, objects);
         List<Map<String, Object>> mapList = new ArrayList<>();
@@ -282,6 +656,64 @@ public class JdbcUtils {
         return queryForList(sqlObject.getSql(), sqlObject.getObjects());
     }
 
+    /**
+     * 逐行映射的迭代器，读完或close时关闭ResultSet、Statement
+     * 不在事务中时使用独立的连接，close时归还；在事务中时使用事务的连接
+     * 需要在打开它的线程上读取并关闭，建议使用try-with-resources
+     */
+    public <T> ResultCursor<T> queryForIterator(String sql, Object[] objects, Class<T> type) {
+        return openCursor(sql, objects, type, fetchSize);
+    }
+
+    public <T> ResultCursor<T> queryForIterator(String sql, Object[] objects, Class<T> type, int fetchSize) {
+        return openCursor(sql, objects, type, fetchSize);
+    }
+
+    public <T> ResultCursor<T> queryForIteratorP(String pSql, Map<String, Object> paramMap, Class<T> type) {
+        SqlObject sqlObject = ValueConverterImpl.getInstance().convertMap(pSql, paramMap);
+        return queryForIterator(sqlObject.getSql(), sqlObject.getObjects(), type);
+    }
+
+    /**
+     * 同queryForIterator，Stream关闭时关闭游标
+     */
+    public <T> Stream<T> queryForStream(String sql, Object[] objects, Class<T> type) {
+        return queryForStream(sql, objects, type, fetchSize);
+    }
+
+    public <T> Stream<T> queryForStream(String sql, Object[] objects, Class<T> type, int fetchSize) {
+        ResultCursor<T> cursor = openCursor(sql, objects, type, fetchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+
+    public <T> Stream<T> queryForStreamP(String pSql, Map<String, Object> paramMap, Class<T> type) {
+        SqlObject sqlObject = ValueConverterImpl.getInstance().convertMap(pSql, paramMap);
+        return queryForStream(sqlObject.getSql(), sqlObject.getObjects(), type);
+    }
+
+    /**
+     * 按订阅者的request逐行读取，每次订阅在独立的Session(连接)上执行查询
+     * 在request/cancel的调用线程上读取
+     */
+    public <T> Publisher<T> queryForPublisher(String sql, Object[] objects, Class<T> type) {
+        return new QueryPublisher<>(this, sql, objects, type, QueryPublisher.DEFAULT_PREFETCH, null);
+    }
+
+    /**
+     * @param prefetch 每次从数据库读取的行数(fetchSize)
+     * @param executor 读取和发送数据的线程，null时使用request的调用线程
+     */
+    public <T> Publisher<T> queryForPublisher(String sql, Object[] objects, Class<T> type,
+                                              int prefetch, Executor executor) {
+        return new QueryPublisher<>(this, sql, objects, type, prefetch, executor);
+    }
+
+    public <T> Publisher<T> queryForPublisherP(String pSql, Map<String, Object> paramMap, Class<T> type) {
+        SqlObject sqlObject = ValueConverterImpl.getInstance().convertMap(pSql, paramMap);
+        return queryForPublisher(sqlObject.getSql(), sqlObject.getObjects(), type);
+    }
+
 
     public <T> boolean delete(T t) {
         if (t == null) {
@@ -291,9 +723,12 @@ public class JdbcUtils {
         if (!deleteStatement.checkValid(type)) {
             return false;
         }
-        String sql = deleteStatement.getSql(type);
-        Object[] objects = deleteStatement.getObjects(t);
-        return executeUpdate(sql, objects) != 0 ? true : false;
+        SqlTemplate template = deleteStatement.getTemplate(type);
+        try {
+            return executeUpdate(template.getSql(), template.getObjects(t)) != 0 ? true : false;
+        } finally {
+            invalidateCache(t);
+        }
     }
 
     public <T> int batchDelete(List<T> list) {
@@ -304,50 +739,348 @@ public class JdbcUtils {
         if (!deleteStatement.checkValid(type)) {
             return 0;
         }
-        String sql = deleteStatement.getSql(type);
-        List<Object[]> argList = new ArrayList<>();
-        for (T t : list) {
-            Object[] objects = deleteStatement.getObjects(t);
-            argList.add(objects);
+        try {
+            if (batchDeleteInList && deleteStatement.supportsInList(type)) {
+                return batchDeleteInList(list);
+            }
+            SqlTemplate template = deleteStatement.getTemplate(type);
+            List<Object[]> argList = new ArrayList<>(list.size());
+            for (T t : list) {
+                argList.add(template.getObjects(t));
+            }
+            return executeBatch(template.getSql(), argList);
+        } finally {
+            invalidateCache(list);
+        }
+    }
+
+    /**
+     * 按inListSize分块，每块一条 delete ... where id in (...)，返回实际删除的行数
+     */
+    private <T> int batchDeleteInList(List<T> list) {
+        Class type = TypeUtils.getType(list);
+        List<String> sqlList = new ArrayList<>();
+        List<Object[]> objectsList = new ArrayList<>();
+        int chunkSize = getInListChunkSize();
+        for (int from = 0, size = list.size(); from < size; from += chunkSize) {
+            int to = Math.min(from + chunkSize, size);
+            sqlList.add(deleteStatement.getInSql(type, to - from));
+            objectsList.add(deleteStatement.getInObjects(list, from, to));
+        }
+        return executeMultiRow(sqlList, objectsList, false).getResult();
+    }
+
+    /**
+     * 按@Id查询，联合主键按@Id声明顺序传入
+     */
+    public <T> T findById(Class<T> type, Object... ids) {
+        if (!selectStatement.checkValid(type)) {
+            return null;
+        }
+        EntityCache<T> cache = getEntityCache(type);
+        long generation = 0;
+        if (cache != null) {
+            T t = cache.get(ids);
+            if (t != null) {
+                return t;
+            }
+            //a write during the query leaves the row stale
+            generation = cache.getGeneration(ids);
+        }
+        List<T> list = queryForList(selectStatement.getSql(type), ids, type);
+        T t = list.size() != 0 ? list.get(0) : null;
+        if (cache != null && t != null && !binding.inTransaction()) {
+            cache.put(t, generation);
         }
-        return executeBatch(sql, argList);
+        return t;
     }
 
+    /**
+     * 按inListSize分块用 where id in (...) 查询，只支持单列主键
+     * 返回的Map以实体上的主键值为key，按ids的顺序排列，查不到的id不在Map中
+     */
+    public <T> Map<Object, T> findByIds(Class<T> type, Collection<?> ids) {
+        Map<Object, T> map = new LinkedHashMap<>();
+        if (ids == null || ids.size() == 0) {
+            return map;
+        }
+        if (!selectStatement.checkValid(type)) {
+            return map;
+        }
+        FieldColumn idColumn = MapperHolder.getMapperCache(type).getIdColumns().get(0);
+        List<Object> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        EntityCache<T> cache = getEntityCache(type);
+        //cached entities first, then load the rest and keep the order of ids
+        Map<Object, T> found = new HashMap<>();
+        Map<Object, Long> generations = null;
+        List<Object> missing = idList;
+        if (cache != null) {
+            missing = new ArrayList<>();
+            generations = new HashMap<>();
+            for (Object id : idList) {
+                T t = cache.get(id);
+                if (t != null) {
+                    found.put(getIdKey(id), t);
+                } else {
+                    missing.add(id);
+                    generations.put(getIdKey(id), cache.getGeneration(id));
+                }
+            }
+        }
+        boolean put = cache != null && !binding.inTransaction();
+        for (T t : findByIdList(type, missing)) {
+            Object idKey = getIdKey(idColumn.getAccessor().getValue(t));
+            found.put(idKey, t);
+            Long generation = put ? generations.get(idKey) : null;
+            if (generation != null) {
+                cache.put(t, generation);
+            }
+        }
+        for (Object id : idList) {
+            T t = found.get(getIdKey(id));
+            if (t != null) {
+                map.put(idColumn.getAccessor().getValue(t), t);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 开启查询结果缓存，本JdbcUtils(及其Session)的写入按表使缓存失效
+     * 多个JdbcUtils可以共用一个QueryCache；事务中的查询、开启trackChanges后的queryForList不走缓存
+     */
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    private boolean useQueryCache(String sql) {
+        return queryCache != null && !binding.inTransaction() && queryCache.isCacheable(sql);
+    }
+
+    private void invalidateQueries(String sql) {
+        QueryCache cache = queryCache;
+        if (cache == null) {
+            return;
+        }
+        cache.invalidateSql(sql);
+        ConnectionState state = binding.getState();
+        if (state != null && !state.isAutoCommit()) {
+            //readers may cache the old rows until this transaction ends
+            state.afterCompletion(() -> cache.invalidateSql(sql));
+        }
+    }
+
+    /**
+     * 整数主键统一为Long，传入的id与实体上的主键类型可以不同
+     */
+    private static Object getIdKey(Object id) {
+        if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+
+    private <T> List<T> findByIdList(Class<T> type, List<Object> idList) {
+        List<T> list = new ArrayList<>();
+        int chunkSize = getInListChunkSize();
+        for (int from = 0, size = idList.size(); from < size; from += chunkSize) {
+            int to = Math.min(from + chunkSize, size);
+            String sql = selectStatement.getInSql(type, to - from);
+            list.addAll(queryForList(sql, idList.subList(from, to).toArray(), type));
+        }
+        return list;
+    }
+
+    /**
+     * 为@Table实体开启按@Id的二级缓存，findById/findByIds和按主键的queryForObject先查缓存
+     * 本JdbcUtils(及其Session)的update/delete/upsert会使对应条目失效，直接执行的sql不会
+     * config为null时关闭
+     */
+    public <T> void setEntityCache(Class<T> type, CacheConfig config) {
+        if (config == null) {
+            entityCaches.remove(type);
+        } else {
+            entityCaches.put(type, new EntityCache<>(type, config));
+        }
+    }
+
+    public <T> EntityCache<T> getEntityCache(Class<T> type) {
+        if (entityCaches.isEmpty()) {
+            return null;
+        }
+        return entityCaches.get(type);
+    }
+
+    private void invalidateCache(Object t) {
+        if (t == null || entityCaches.isEmpty()) {
+            return;
+        }
+        EntityCache cache = entityCaches.get(t.getClass());
+        if (cache == null) {
+            return;
+        }
+        Object key = cache.getEntityKey(t);
+        if (key == null) {
+            return;
+        }
+        cache.invalidateKey(key);
+        ConnectionState state = binding.getState();
+        if (state != null && !state.isAutoCommit()) {
+            //a concurrent reader may cache the old row before this transaction commits
+            state.afterCompletion(() -> cache.invalidateKey(key));
+        }
+    }
+
+    private void invalidateCache(List<?> list) {
+        if (entityCaches.isEmpty()) {
+            return;
+        }
+        for (Object t : list) {
+            invalidateCache(t);
+        }
+    }
+
+    private int getInListChunkSize() {
+        return Math.min(inListSize, dialect.getMaxParameterCount());
+    }
+
+
+    /**
+     * 开启后batchInsert在支持的数据库上使用多行values插入
+     */
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    public boolean isMultiRowInsert() {
+        return multiRowInsert;
+    }
+
+    /**
+     * 每条多行insert/upsert最多包含的行数，另受数据库参数个数上限限制
+     */
+    public void setMultiRowInsertSize(int multiRowInsertSize) {
+        if (multiRowInsertSize <= 0) {
+            throw new IllegalArgumentException("multiRowInsertSize:" + multiRowInsertSize);
+        }
+        this.multiRowInsertSize = multiRowInsertSize;
+    }
+
+    public int getMultiRowInsertSize() {
+        return multiRowInsertSize;
+    }
+
+    /**
+     * 开启后queryForObject/queryForList查询出的实体会保存快照，供updateChanged比较
+     */
+    public void setTrackChanges(boolean trackChanges) {
+        this.trackChanges = trackChanges;
+    }
+
+    public boolean isTrackChanges() {
+        return trackChanges;
+    }
+
+    /**
+     * 开启后单列主键的batchDelete合并成 delete ... where id in (...)
+     */
+    public void setBatchDeleteInList(boolean batchDeleteInList) {
+        this.batchDeleteInList = batchDeleteInList;
+    }
+
+    public boolean isBatchDeleteInList() {
+        return batchDeleteInList;
+    }
+
+    /**
+     * batchDelete/findByIds中每个in列表最多包含的id个数，另受数据库参数个数上限限制
+     */
+    public void setInListSize(int inListSize) {
+        if (inListSize <= 0) {
+            throw new IllegalArgumentException("inListSize:" + inListSize);
+        }
+        this.inListSize = inListSize;
+    }
+
+    public int getInListSize() {
+        return inListSize;
+    }
+
+    /**
+     * 每个连接上缓存的PreparedStatement个数，0为不缓存
+     * 缓存跟随当前绑定的连接，连接关闭时一起关闭，事务中的连接收益最大
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize:" + statementCacheSize);
+        }
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * 流式查询(queryForIterator/queryForStream)每次从数据库读取的行数，0使用驱动默认值
+     * mysql下任意非0值都按逐行读取(Integer.MIN_VALUE)，postgresql在autoCommit下会开启本地事务以使用游标
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("fetchSize:" + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
 
     //事务支持
 
     public void setAutoCommit(boolean autoCommit) {
-        Connection connection = JdbcConnHolder.getConnection(this.dataSource);
-        try {
-            connection.setAutoCommit(autoCommit);
-        } catch (SQLException e) {
-            throw new DataException("setAutoCommit", e);
+        if (autoCommit && binding.getState() == null) {
+            return;
         }
+        binding.getState(this.dataSource).setAutoCommit(autoCommit);
+        binding.releaseConnection();
     }
 
+    /**
+     * 读取客户端记录的状态，不访问数据库，没有持有连接时为true
+     */
     public boolean getAutoCommit() {
-        Connection connection = JdbcConnHolder.getConnection(this.dataSource);
-
-        try {
-            return connection.getAutoCommit();
-        } catch (SQLException e) {
-            throw new DataException("getAutoCommit", e);
-        }
+        return !binding.inTransaction();
     }
 
     public void commit() {
-        Connection connection = JdbcConnHolder.getConnection(this.dataSource);
+        ConnectionState state = binding.getState(this.dataSource);
         try {
-            connection.commit();
+            if (state.isRollbackOnly()) {
+                state.getConnection().rollback();
+                throw new DataException(ExceptionMessage.TX_ROLLBACKONLY);
+            }
+            state.getConnection().commit();
+            state.runCommitCallbacks();
         } catch (SQLException e) {
             throw new DataException("commit", e);
         } finally {
-            JdbcConnHolder.closeConnection();
+            binding.closeConnection();
         }
     }
 
     public void rollback() {
-        Connection connection = JdbcConnHolder.getConnection(this.dataSource);
+        ConnectionState state = binding.getState(this.dataSource);
+        state.discardCommitCallbacks(0);
+        Connection connection = state.getConnection();
         try {
             connection.rollback();
         } catch (SQLException e) {
@@ -355,13 +1088,76 @@ public class JdbcUtils {
         }
     }
 
+    /**
+     * 在事务中执行，默认REQUIRED
+     */
+    public <T> T inTransaction(TransactionCallback<T> callback) {
+        return new TransactionTemplate(this).execute(callback);
+    }
+
+    public <T> T inTransaction(Propagation propagation, TransactionCallback<T> callback) {
+        TransactionTemplate template = new TransactionTemplate(this);
+        template.setPropagation(propagation);
+        return template.execute(callback);
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    private PreparedStatement prepareStatement(Connection conn, String sql, boolean autoGeneratedKeys) throws SQLException {
+        ConnectionState state = binding.getState();
+        if (state == null || state.getConnection() != conn) {
+            return newStatement(conn, sql, autoGeneratedKeys);
+        }
+        PreparedStatement ps;
+        if (statementCacheSize > 0) {
+            ps = state.getStatementCache(statementCacheSize, statementCacheStats)
+                    .prepareStatement(sql, autoGeneratedKeys);
+        } else {
+            ps = newStatement(conn, sql, autoGeneratedKeys);
+        }
+        state.setExecuting(ps);
+        return ps;
+    }
+
+    private PreparedStatement newStatement(Connection conn, String sql, boolean autoGeneratedKeys) throws SQLException {
+        if (autoGeneratedKeys) {
+            return conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        }
+        return conn.prepareStatement(sql);
+    }
+
+    /**
+     * 从缓存取出的statement放回缓存，其余的关闭
+     */
+    private void closeStatement(PreparedStatement ps, boolean batch) {
+        if (ps == null) {
+            return;
+        }
+        ConnectionState state = binding.getState();
+        if (state != null) {
+            state.setExecuting(null);
+        }
+        if (statementCacheSize > 0) {
+            StatementCache cache = state == null ? null : state.getStatementCache();
+            if (cache != null && cache.release(ps, batch)) {
+                return;
+            }
+        }
+        if (batch) {
+            PreparedStatementUtils.clearBatchStatemt(ps);
+        } else {
+            PreparedStatementUtils.clearStatement(ps);
+        }
+    }
 
     private void executeQuery(String sql, Object[] objects, ResultCallback resultCallback) {
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            Connection conn = JdbcConnHolder.getConnection(this.dataSource);
-            ps = conn.prepareStatement(sql);
+            Connection conn = binding.getState(this.dataSource).getConnection();
+            ps = prepareStatement(conn, sql, false);
             if (objects != null) {
                 for (int i = 0; i < objects.length; i++) {
                     ps.setObject(i + 1, objects[i]);
@@ -374,23 +1170,127 @@ public class JdbcUtils {
         } catch (SQLException e) {
             throw new DataException("executeQuery", e);
         } finally {
+            ResultUtils.closeResultSet(rs);
+            closeStatement(ps, false);
+            binding.releaseConnection();
+        }
+    }
+
+    /**
+     * 打开只进只读的游标
+     * 不在事务中时游标使用独立的Session，读取过程中当前线程上的其他调用归还连接不会关闭游标的连接
+     */
+    <T> ResultCursor<T> openCursor(String sql, Object[] objects, Class<T> type, int fetchSize) {
+        if (binding.inTransaction() || this instanceof Session) {
+            return openCursor(sql, objects, type, fetchSize, null);
+        }
+        Session session = openSession();
+        try {
+            return ((JdbcUtils) session).openCursor(sql, objects, type, fetchSize, session);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 连接在游标关闭时按binding归还，session不为null时随后关闭
+     * fetchSize经dialect转换，需要事务才能分批读取的驱动在autoCommit下开启一个本地事务
+     */
+    private <T> ResultCursor<T> openCursor(String sql, Object[] objects, Class<T> type, int fetchSize,
+                                           Session session) {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        ConnectionState state = binding.getState(this.dataSource);
+        boolean localTx = fetchSize != 0 && dialect.isCursorRequiresTransaction() && state.isAutoCommit();
+        try {
+            if (localTx) {
+                state.setAutoCommit(false);
+            }
+            ps = state.getConnection().prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            state.setExecuting(ps);
+            int size = dialect.getStreamingFetchSize(fetchSize);
+            if (size != 0) {
+                ps.setFetchSize(size);
+            }
+            if (objects != null) {
+                for (int i = 0; i < objects.length; i++) {
+                    ps.setObject(i + 1, objects[i]);
+                }
+            }
+            rs = ps.executeQuery();
+            RowMapperPlan<T> plan = mapperHelper.getPlan(sql, rs.getMetaData(), type);
+            return new ResultCursor<>(rs, ps, plan, trackChanges && !plan.isSimple(), new Runnable() {
+                @Override
+                public void run() {
+                    state.setExecuting(null);
+                    if (localTx) {
+                        endLocalTransaction(state, true);
+                    }
+                    binding.releaseConnection();
+                    if (session != null) {
+                        session.close();
+                    }
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
             ResultUtils.closeResultSet(rs);
             PreparedStatementUtils.clearStatement(ps);
-            if (getAutoCommit()) {
-                JdbcConnHolder.closeConnection();
+            state.setExecuting(null);
+            if (localTx) {
+                endLocalTransaction(state, false);
             }
+            binding.releaseConnection();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new DataException("executeQuery", e);
         }
     }
 
-    private JdbcGeneratedKey executeUpdate(String sql, Object[] objects, boolean autoGeneratedKey) {
+    private SpillingDataSet readSpilling(String sql, Object[] objects, SpillOptions options) {
         PreparedStatement ps = null;
+        ResultSet rs = null;
+        ConnectionState state = binding.getState(this.dataSource);
+        int size = dialect.getStreamingFetchSize(fetchSize);
+        boolean localTx = size != 0 && dialect.isCursorRequiresTransaction() && state.isAutoCommit();
+        boolean ok = false;
         try {
-            Connection conn = JdbcConnHolder.getConnection(this.dataSource);
-            if (autoGeneratedKey) {
-                ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            } else {
-                ps = conn.prepareStatement(sql);
+            if (localTx) {
+                state.setAutoCommit(false);
+            }
+            ps = state.getConnection().prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            state.setExecuting(ps);
+            if (size != 0) {
+                ps.setFetchSize(size);
+            }
+            if (objects != null) {
+                for (int i = 0; i < objects.length; i++) {
+                    ps.setObject(i + 1, objects[i]);
+                }
+            }
+            rs = ps.executeQuery();
+            SpillingDataSet dataSet = SpillingDataSet.read(rs, options);
+            ok = true;
+            return dataSet;
+        } catch (SQLException e) {
+            throw new DataException("executeQuery", e);
+        } finally {
+            ResultUtils.closeResultSet(rs);
+            PreparedStatementUtils.clearStatement(ps);
+            state.setExecuting(null);
+            if (localTx) {
+                endLocalTransaction(state, ok);
             }
+            binding.releaseConnection();
+        }
+    }
+
+    private JdbcGeneratedKey executeUpdate(String sql, Object[] objects, boolean autoGeneratedKey) {
+        PreparedStatement ps = null;
+        try {
+            Connection conn = binding.getState(this.dataSource).getConnection();
+            ps = prepareStatement(conn, sql, autoGeneratedKey);
             if (objects != null) {
                 for (int i = 0; i < objects.length; i++) {
                     ps.setObject(i + 1, objects[i]);
@@ -407,23 +1307,23 @@ public class JdbcUtils {
         } catch (SQLException e) {
             throw new DataException("executeUpdate", e);
         } finally {
-            PreparedStatementUtils.clearStatement(ps);
-            if (getAutoCommit()) {
-                JdbcConnHolder.closeConnection();
-            }
+            closeStatement(ps, false);
+            invalidateQueries(sql);
+            binding.releaseConnection();
         }
     }
 
     private JdbcGeneratedKey executeBatch(String sql, List<Object[]> objectsList, boolean autoGeneratedKeys) {
         PreparedStatement ps = null;
+        ConnectionState state = binding.getState(this.dataSource);
+        boolean localTx = state.isAutoCommit();
+        boolean committed = false;
         try {
-            Connection conn = JdbcConnHolder.getConnection(this.dataSource);
-            conn.setAutoCommit(false);
-            if (autoGeneratedKeys) {
-                ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            } else {
-                ps = conn.prepareStatement(sql);
+            Connection conn = state.getConnection();
+            if (localTx) {
+                state.setAutoCommit(false);
             }
+            ps = prepareStatement(conn, sql, autoGeneratedKeys);
             if (objectsList != null) {
                 for (Object[] objects : objectsList) {
                     if (objects != null) {
@@ -435,20 +1335,277 @@ public class JdbcUtils {
                 }
             }
             int[] r = ps.executeBatch();
-            ps.getConnection().commit();
             int result = JdbcHelper.getBatchResult(r);
             DataSet dataSet = null;
             if (autoGeneratedKeys) {
                 dataSet = DataSetUtils.getDataSet(ps.getGeneratedKeys(), true);
             }
+            if (localTx) {
+                conn.commit();
+                committed = true;
+            }
             return new JdbcGeneratedKey(result, dataSet);
         } catch (SQLException e) {
             throw new DataException("executeBatch", e);
         } finally {
-            PreparedStatementUtils.clearBatchStatemt(ps);
-            if (getAutoCommit()) {
-                JdbcConnHolder.closeConnection();
+            closeStatement(ps, true);
+            if (localTx) {
+                endLocalTransaction(state, committed);
+            }
+            invalidateQueries(sql);
+            binding.releaseConnection();
+        }
+    }
+
+    private JdbcGeneratedKey executeMultiRow(List<String> sqlList, List<Object[]> objectsList, boolean autoGeneratedKeys) {
+        PreparedStatement ps = null;
+        ConnectionState state = binding.getState(this.dataSource);
+        boolean localTx = state.isAutoCommit();
+        boolean committed = false;
+        try {
+            Connection conn = state.getConnection();
+            if (localTx) {
+                state.setAutoCommit(false);
+            }
+            int result = 0;
+            List<DataRowSet> keyRows = new ArrayList<>();
+            for (int i = 0, size = sqlList.size(); i < size; i++) {
+                ps = prepareStatement(conn, sqlList.get(i), autoGeneratedKeys);
+                Object[] objects = objectsList.get(i);
+                for (int j = 0; j < objects.length; j++) {
+                    ps.setObject(j + 1, objects[j]);
+                }
+                result += ps.executeUpdate();
+                if (autoGeneratedKeys) {
+                    keyRows.addAll(DataSetUtils.getDataSet(ps.getGeneratedKeys(), true).getRows());
+                }
+                closeStatement(ps, false);
+                ps = null;
+            }
+            if (localTx) {
+                conn.commit();
+                committed = true;
+            }
+            return new JdbcGeneratedKey(result, autoGeneratedKeys ? new DataSetImpl(keyRows) : null);
+        } catch (SQLException e) {
+            throw new DataException("executeMultiRow", e);
+        } finally {
+            closeStatement(ps, false);
+            if (localTx) {
+                endLocalTransaction(state, committed);
+            }
+            if (!sqlList.isEmpty()) {
+                invalidateQueries(sqlList.get(0));
+            }
+            binding.releaseConnection();
+        }
+    }
+
+    private <T> long executeBatch(SqlKind kind, Iterator<T> it, BatchOptions options) {
+        T first = null;
+        while (first == null && it.hasNext()) {
+            first = it.next();
+        }
+        if (first == null) {
+            return 0;
+        }
+        Class<T> type = (Class<T>) first.getClass();
+        SqlTemplate template;
+        if (kind == SqlKind.Insert) {
+            template = insertStatement.getTemplate(type);
+        } else if (kind == SqlKind.Update) {
+            if (!updateStatement.checkValid(type)) {
+                return 0;
+            }
+            template = updateStatement.getTemplate(type);
+        } else {
+            if (!deleteStatement.checkValid(type)) {
+                return 0;
+            }
+            template = deleteStatement.getTemplate(type);
+        }
+        boolean generatedKeys = kind == SqlKind.Insert && options.isGeneratedKey() && template.hasGeneratedKey();
+        AdaptiveBatchSize adaptive = options.getAdaptive();
+        int batchSize = adaptive != null ? adaptive.getBatchSize() : options.getBatchSize();
+        int commitSize = options.getCommitSize();
+        BatchProgressListener listener = options.getListener();
+
+        EntityCache<T> cache = kind != SqlKind.Insert ? getEntityCache(type) : null;
+
+        PreparedStatement ps = null;
+        ConnectionState state = binding.getState(this.dataSource);
+        boolean localTx = state.isAutoCommit();
+        boolean committed = false;
+        if (cache != null && !localTx) {
+            //one callback for the whole stream instead of one per row
+            state.afterCompletion(cache::invalidateAll);
+        }
+        List<T> pending = generatedKeys ? new ArrayList<>(batchSize) : null;
+        long result = 0;
+        long flushedRows = 0;
+        long committedRows = 0;
+        int batchRows = 0;
+        int uncommittedRows = 0;
+        try {
+            Connection conn = state.getConnection();
+            if (localTx) {
+                state.setAutoCommit(false);
+            }
+            ps = prepareStatement(conn, template.getSql(), generatedKeys);
+            T t = first;
+            while (true) {
+                if (t != null) {
+                    template.bind(ps, t);
+                    ps.addBatch();
+                    if (cache != null) {
+                        Object key = cache.getEntityKey(t);
+                        if (key != null) {
+                            cache.invalidateKey(key);
+                        }
+                    }
+                    if (pending != null) {
+                        pending.add(t);
+                    }
+                    batchRows++;
+                    uncommittedRows++;
+                }
+                boolean commitDue = localTx && commitSize > 0 && uncommittedRows >= commitSize;
+                boolean last = !it.hasNext();
+                if (batchRows != 0 && (batchRows >= batchSize || commitDue || last)) {
+                    long start = System.nanoTime();
+                    result += flushBatch(ps, pending);
+                    if (adaptive != null) {
+                        adaptive.onFlush(batchRows, System.nanoTime() - start);
+                        batchSize = adaptive.getBatchSize();
+                    }
+                    flushedRows += batchRows;
+                    batchRows = 0;
+                    if (commitDue) {
+                        conn.commit();
+                        state.runCommitCallbacks();
+                        state.runCompletionCallbacks();
+                        committedRows += uncommittedRows;
+                        uncommittedRows = 0;
+                    }
+                    if (listener != null) {
+                        listener.onProgress(flushedRows, committedRows);
+                    }
+                }
+                if (last) {
+                    break;
+                }
+                t = it.next();
+            }
+            if (localTx) {
+                conn.commit();
+                committed = true;
+                if (uncommittedRows != 0) {
+                    committedRows += uncommittedRows;
+                    if (listener != null) {
+                        listener.onProgress(flushedRows, committedRows);
+                    }
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            if (adaptive != null && AdaptiveBatchSize.isLockFailure(e)) {
+                adaptive.onBackoff();
+            }
+            throw new DataException("executeBatch", e);
+        } finally {
+            closeStatement(ps, true);
+            if (localTx) {
+                endLocalTransaction(state, committed);
+            }
+            invalidateQueries(template.getSql());
+            binding.releaseConnection();
+            if (cache != null) {
+                //rows of earlier commits may have been cached again in between
+                cache.invalidateAll();
+            }
+        }
+    }
+
+    private <T> int flushBatch(PreparedStatement ps, List<T> pending) throws SQLException {
+        int[] r = ps.executeBatch();
+        int result = JdbcHelper.getBatchResult(r);
+        if (pending != null) {
+            DataSet dataSet = DataSetUtils.getDataSet(ps.getGeneratedKeys(), true);
+            insertStatement.setIdValue(new JdbcGeneratedKey(result, dataSet), pending);
+            pending.clear();
+        }
+        return result;
+    }
+
+    /**
+     * @param counts 不为null时按sql的顺序放入每个batch的更新行数
+     */
+    private int executeBatches(List<String> sqlList, List<List<Object[]>> objectsList, List<int[]> counts) {
+        PreparedStatement ps = null;
+        ConnectionState state = binding.getState(this.dataSource);
+        boolean localTx = state.isAutoCommit();
+        boolean committed = false;
+        try {
+            Connection conn = state.getConnection();
+            if (localTx) {
+                state.setAutoCommit(false);
+            }
+            int result = 0;
+            for (int i = 0, size = sqlList.size(); i < size; i++) {
+                ps = prepareStatement(conn, sqlList.get(i), false);
+                for (Object[] objects : objectsList.get(i)) {
+                    for (int j = 0; j < objects.length; j++) {
+                        ps.setObject(j + 1, objects[j]);
+                    }
+                    ps.addBatch();
+                }
+                int[] r = ps.executeBatch();
+                if (counts != null) {
+                    counts.add(r);
+                }
+                result += JdbcHelper.getBatchResult(r);
+                closeStatement(ps, true);
+                ps = null;
+            }
+            if (localTx) {
+                conn.commit();
+                committed = true;
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new DataException("executeBatches", e);
+        } finally {
+            closeStatement(ps, true);
+            if (localTx) {
+                endLocalTransaction(state, committed);
+            }
+            for (String sql : sqlList) {
+                invalidateQueries(sql);
+            }
+            binding.releaseConnection();
+        }
+    }
+
+    /**
+     * 批量语句不在事务中时自己开启的本地事务，结束后恢复autoCommit，失败时回滚
+     */
+    private void endLocalTransaction(ConnectionState state, boolean committed) {
+        if (!committed) {
+            try {
+                state.getConnection().rollback();
+            } catch (SQLException e) {
+            }
+        }
+        try {
+            if (committed) {
+                state.runCommitCallbacks();
+            } else {
+                state.discardCommitCallbacks(0);
             }
+            state.setAutoCommit(true);
+            state.runCompletionCallbacks();
+        } catch (DataException e) {
+            binding.closeConnection();
         }
     }
 }
@@ -0,0 +1,38 @@
+package com.gsralex.gdata.bean.jdbc;
+
+/**
+ * 事务传播方式，语义与spring一致
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public enum Propagation {
+    /**
+     * 有事务则加入，没有则新建
+     */
+    REQUIRED,
+    /**
+     * 挂起当前事务，使用新连接新建事务
+     */
+    REQUIRES_NEW,
+    /**
+     * 有事务则在savepoint中执行，出错只回滚到savepoint；没有则新建
+     */
+    NESTED,
+    /**
+     * 有事务则加入，没有则非事务执行
+     */
+    SUPPORTS,
+    /**
+     * 必须在事务中执行
+     */
+    MANDATORY,
+    /**
+     * 挂起当前事务，非事务执行
+     */
+    NOT_SUPPORTED,
+    /**
+     * 不能在事务中执行
+     */
+    NEVER
+}
@@ -0,0 +1,176 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.flow.Publisher;
+import com.gsralex.gdata.bean.flow.Subscriber;
+import com.gsralex.gdata.bean.flow.Subscription;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 查询结果的Publisher，只在有需求时从ResultSet读取
+ * 每个订阅打开一个Session，完成、出错或cancel时关闭
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class QueryPublisher<T> implements Publisher<T> {
+
+    static final int DEFAULT_PREFETCH = 256;
+
+    private final JdbcUtils jdbcUtils;
+    private final String sql;
+    private final Object[] objects;
+    private final Class<T> type;
+    private final int prefetch;
+    private final Executor executor;
+
+    QueryPublisher(JdbcUtils jdbcUtils, String sql, Object[] objects, Class<T> type, int prefetch, Executor executor) {
+        this.jdbcUtils = jdbcUtils;
+        this.sql = sql;
+        this.objects = objects;
+        this.type = type;
+        this.prefetch = prefetch;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        QuerySubscription subscription = new QuerySubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class QuerySubscription implements Subscription, Runnable {
+
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+
+        private volatile Session session;
+        //only touched by the draining thread
+        private ResultCursor<T> cursor;
+        private boolean done;
+
+        QuerySubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("request must be positive:" + n);
+            } else {
+                long r;
+                long u;
+                do {
+                    r = requested.get();
+                    u = r + n < 0 ? Long.MAX_VALUE : r + n;
+                } while (!requested.compareAndSet(r, u));
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Session running = session;
+            if (running != null) {
+                //abort a blocking fetch
+                running.cancel();
+            }
+            signal();
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            if (executor == null) {
+                run();
+            } else {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (done) {
+                    return;
+                }
+                if (cancelled) {
+                    close();
+                    return;
+                }
+                if (badRequest != null) {
+                    error(badRequest);
+                    return;
+                }
+                long r = requested.get();
+                long e = 0;
+                try {
+                    if (cursor == null) {
+                        session = jdbcUtils.openSession();
+                        cursor = session.openCursor(sql, objects, type, prefetch);
+                    }
+                    while (e != r) {
+                        if (cancelled) {
+                            close();
+                            return;
+                        }
+                        if (!cursor.hasNext()) {
+                            break;
+                        }
+                        subscriber.onNext(cursor.next());
+                        e++;
+                    }
+                    if (!cursor.hasNext()) {
+                        done = true;
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+                } catch (Throwable ex) {
+                    if (cancelled) {
+                        close();
+                    } else {
+                        error(ex);
+                    }
+                    return;
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void error(Throwable e) {
+            done = true;
+            close();
+            subscriber.onError(e);
+        }
+
+        private void close() {
+            done = true;
+            if (cursor != null) {
+                cursor.close();
+            }
+            if (session != null) {
+                session.close();
+            }
+            cursor = null;
+            session = null;
+        }
+    }
+}
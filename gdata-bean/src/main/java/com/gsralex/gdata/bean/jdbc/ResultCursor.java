@@ -0,0 +1,97 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.mapper.EntitySnapshot;
+import com.gsralex.gdata.bean.mapper.RowMapperPlan;
+import com.gsralex.gdata.bean.mapper.SnapshotHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行映射的游标，读完或close时关闭ResultSet、Statement并归还连接
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class ResultCursor<T> implements Iterator<T>, AutoCloseable {
+
+    private ResultSet rs;
+    private PreparedStatement ps;
+    private RowMapperPlan<T> plan;
+    private boolean snapshot;
+    private Runnable onClose;
+
+    private boolean fetched;
+    private boolean hasRow;
+    private T row;
+    private boolean closed;
+
+    ResultCursor(ResultSet rs, PreparedStatement ps, RowMapperPlan<T> plan, boolean snapshot, Runnable onClose) {
+        this.rs = rs;
+        this.ps = ps;
+        this.plan = plan;
+        this.snapshot = snapshot;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                hasRow = rs.next();
+                if (hasRow) {
+                    row = plan.mapRow(rs);
+                    if (snapshot && row != null) {
+                        SnapshotHolder.put(row, EntitySnapshot.capture(row));
+                    }
+                }
+            } catch (SQLException e) {
+                close();
+                throw new DataException("executeQuery", e);
+            }
+            fetched = true;
+            if (!hasRow) {
+                close();
+            }
+        }
+        return hasRow;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        T t = row;
+        row = null;
+        return t;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hasRow = false;
+        row = null;
+        try {
+            ResultUtils.closeResultSet(rs);
+            PreparedStatementUtils.clearStatement(ps);
+        } finally {
+            onClose.run();
+        }
+    }
+}
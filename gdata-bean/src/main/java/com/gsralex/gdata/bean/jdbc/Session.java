@@ -0,0 +1,121 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * 显式持有一个连接的JdbcUtils，不依赖ThreadLocal，可以在线程间传递(不能并发使用)
+ * 连接在第一次使用时获取，close时归还；事务结束后连接保持打开，直到Session关闭
+ * <pre>
+ * try (Session session = jdbcUtils.openSession()) {
+ *     session.inTransaction(() -> session.insert(foo));
+ * }
+ * </pre>
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class Session extends JdbcUtils implements AutoCloseable {
+
+    private final SessionBinding sessionBinding;
+
+    Session(JdbcUtils parent) {
+        this(parent, new SessionBinding());
+    }
+
+    private Session(JdbcUtils parent, SessionBinding binding) {
+        super(parent, binding);
+        this.sessionBinding = binding;
+    }
+
+    public boolean isClosed() {
+        return sessionBinding.closed;
+    }
+
+    /**
+     * 取消当前正在执行的语句，可以从其他线程调用
+     */
+    public boolean cancel() {
+        ConnectionState state = sessionBinding.state;
+        return state != null && state.cancel();
+    }
+
+    /**
+     * 未提交的事务回滚，连接归还给DataSource
+     */
+    @Override
+    public void close() {
+        sessionBinding.close();
+    }
+
+    private static class SessionBinding implements ConnectionBinding {
+
+        private volatile ConnectionState state;
+        private volatile boolean closed;
+
+        @Override
+        public ConnectionState getState(DataSource dataSource) {
+            if (closed) {
+                throw new IllegalStateException("session is closed");
+            }
+            if (state == null) {
+                state = JdbcConnHolder.open(dataSource);
+            }
+            return state;
+        }
+
+        @Override
+        public ConnectionState getState() {
+            return state;
+        }
+
+        @Override
+        public boolean inTransaction() {
+            return state != null && !state.isAutoCommit();
+        }
+
+        @Override
+        public void releaseConnection() {
+            //the session keeps its connection until closed
+        }
+
+        @Override
+        public void closeConnection() {
+            if (state != null) {
+                state.reset();
+            }
+        }
+
+        @Override
+        public ConnectionState suspend() {
+            ConnectionState suspended = state;
+            state = null;
+            return suspended;
+        }
+
+        @Override
+        public void resume(ConnectionState suspended) {
+            if (state != null && state != suspended) {
+                JdbcConnHolder.close(state);
+            }
+            state = suspended;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (state != null) {
+                if (!state.isAutoCommit()) {
+                    try {
+                        state.getConnection().rollback();
+                    } catch (SQLException e) {
+                    }
+                }
+                JdbcConnHolder.close(state);
+                state = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 单个连接上的PreparedStatement LRU缓存，按(sql,是否返回自增主键)区分
+ * 只在持有连接的线程中使用，不做同步；使用中的statement从缓存中取出，归还时再放回
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class StatementCache {
+
+    private final Connection connection;
+    private final int maxSize;
+    private final StatementCacheStats stats;
+    private final LinkedHashMap<String, PreparedStatement> cache;
+    private final Map<PreparedStatement, String> borrowed = new IdentityHashMap<>();
+
+    public StatementCache(Connection connection, int maxSize, StatementCacheStats stats) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public PreparedStatement prepareStatement(String sql, boolean autoGeneratedKeys) throws SQLException {
+        String key = (autoGeneratedKeys ? "1:" : "0:") + sql;
+        PreparedStatement ps = cache.remove(key);
+        if (ps != null && !ps.isClosed()) {
+            stats.hit();
+        } else {
+            stats.miss();
+            if (autoGeneratedKeys) {
+                ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            } else {
+                ps = connection.prepareStatement(sql);
+            }
+        }
+        borrowed.put(ps, key);
+        return ps;
+    }
+
+    /**
+     * 归还statement，不是从本缓存取出的返回false，由调用方关闭
+     */
+    public boolean release(PreparedStatement ps, boolean batch) {
+        String key = borrowed.remove(ps);
+        if (key == null) {
+            return false;
+        }
+        try {
+            ps.clearParameters();
+            if (batch) {
+                ps.clearBatch();
+            }
+        } catch (SQLException e) {
+            close(ps);
+            return true;
+        }
+        PreparedStatement old = cache.put(key, ps);
+        if (old != null) {
+            //同一sql嵌套使用时会多出一个
+            close(old);
+        }
+        if (cache.size() > maxSize) {
+            Iterator<PreparedStatement> iterator = cache.values().iterator();
+            PreparedStatement eldest = iterator.next();
+            iterator.remove();
+            close(eldest);
+            stats.evict();
+        }
+        return true;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void close() {
+        for (PreparedStatement ps : cache.values()) {
+            close(ps);
+        }
+        cache.clear();
+        for (PreparedStatement ps : borrowed.keySet()) {
+            close(ps);
+        }
+        borrowed.clear();
+    }
+
+    private static void close(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+        }
+    }
+}
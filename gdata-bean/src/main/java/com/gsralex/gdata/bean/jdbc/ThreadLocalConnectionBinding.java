@@ -0,0 +1,49 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import javax.sql.DataSource;
+
+/**
+ * 按线程绑定连接，兼容原有的JdbcConnHolder用法
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class ThreadLocalConnectionBinding implements ConnectionBinding {
+
+    public static final ThreadLocalConnectionBinding INSTANCE = new ThreadLocalConnectionBinding();
+
+    @Override
+    public ConnectionState getState(DataSource dataSource) {
+        return JdbcConnHolder.getState(dataSource);
+    }
+
+    @Override
+    public ConnectionState getState() {
+        return JdbcConnHolder.getState();
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return JdbcConnHolder.inTransaction();
+    }
+
+    @Override
+    public void releaseConnection() {
+        JdbcConnHolder.releaseConnection();
+    }
+
+    @Override
+    public void closeConnection() {
+        JdbcConnHolder.closeConnection();
+    }
+
+    @Override
+    public ConnectionState suspend() {
+        return JdbcConnHolder.suspend();
+    }
+
+    @Override
+    public void resume(ConnectionState state) {
+        JdbcConnHolder.resume(state);
+    }
+}
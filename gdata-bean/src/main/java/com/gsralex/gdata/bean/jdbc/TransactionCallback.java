@@ -0,0 +1,10 @@
+package com.gsralex.gdata.bean.jdbc;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface TransactionCallback<T> {
+
+    T doInTransaction() throws Exception;
+}
@@ -0,0 +1,189 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * 声明式事务模板，默认连接由JdbcConnHolder按线程持有，传入Session时使用Session的连接
+ * 回调抛出异常时回滚并原样抛出(受检异常包装为DataException)
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TransactionTemplate {
+
+    private DataSource dataSource;
+    private ConnectionBinding binding;
+    private Propagation propagation = Propagation.REQUIRED;
+    private boolean readOnly = false;
+    private int isolation = -1;
+
+    public TransactionTemplate(DataSource dataSource) {
+        this(dataSource, ThreadLocalConnectionBinding.INSTANCE);
+    }
+
+    public TransactionTemplate(JdbcUtils jdbcUtils) {
+        this(jdbcUtils.getDataSource(), jdbcUtils.getConnectionBinding());
+    }
+
+    public TransactionTemplate(DataSource dataSource, ConnectionBinding binding) {
+        this.dataSource = dataSource;
+        this.binding = binding;
+    }
+
+    public Propagation getPropagation() {
+        return propagation;
+    }
+
+    public void setPropagation(Propagation propagation) {
+        this.propagation = propagation;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * 只对新建的事务生效，加入已有事务时忽略
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public int getIsolation() {
+        return isolation;
+    }
+
+    /**
+     * java.sql.Connection.TRANSACTION_*，-1使用连接默认值；只对新建的事务生效
+     */
+    public void setIsolation(int isolation) {
+        this.isolation = isolation;
+    }
+
+    public <T> T execute(TransactionCallback<T> callback) {
+        boolean active = binding.inTransaction();
+        switch (propagation) {
+            case REQUIRED:
+                return active ? executeJoined(callback) : executeNew(callback);
+            case REQUIRES_NEW:
+                return active ? executeSuspended(callback, true) : executeNew(callback);
+            case NESTED:
+                return active ? executeNested(callback) : executeNew(callback);
+            case SUPPORTS:
+                return active ? executeJoined(callback) : invoke(callback);
+            case MANDATORY:
+                if (!active) {
+                    throw new DataException(ExceptionMessage.TX_MANDATORY);
+                }
+                return executeJoined(callback);
+            case NOT_SUPPORTED:
+                return active ? executeSuspended(callback, false) : invoke(callback);
+            case NEVER:
+                if (active) {
+                    throw new DataException(ExceptionMessage.TX_NEVER);
+                }
+                return invoke(callback);
+            default:
+                throw new IllegalArgumentException("propagation:" + propagation);
+        }
+    }
+
+    private <T> T executeNew(TransactionCallback<T> callback) {
+        ConnectionState state = binding.getState(dataSource);
+        boolean committed = false;
+        try {
+            if (readOnly) {
+                state.setReadOnly(true);
+            }
+            if (isolation != -1) {
+                state.setIsolation(isolation);
+            }
+            state.setAutoCommit(false);
+            T result = invoke(callback);
+            if (state.isRollbackOnly()) {
+                throw new DataException(ExceptionMessage.TX_ROLLBACKONLY);
+            }
+            state.getConnection().commit();
+            committed = true;
+            state.runCommitCallbacks();
+            return result;
+        } catch (SQLException e) {
+            throw new DataException("commit", e);
+        } finally {
+            if (!committed) {
+                try {
+                    state.getConnection().rollback();
+                } catch (SQLException e) {
+                }
+            }
+            binding.closeConnection();
+        }
+    }
+
+    private <T> T executeJoined(TransactionCallback<T> callback) {
+        try {
+            return invoke(callback);
+        } catch (RuntimeException | Error e) {
+            ConnectionState state = binding.getState();
+            if (state != null) {
+                state.setRollbackOnly(true);
+            }
+            throw e;
+        }
+    }
+
+    private <T> T executeNested(TransactionCallback<T> callback) {
+        ConnectionState state = binding.getState();
+        Savepoint savepoint;
+        try {
+            savepoint = state.getConnection().setSavepoint();
+        } catch (SQLException e) {
+            throw new DataException("setSavepoint", e);
+        }
+        int commitCallbacks = state.getCommitCallbackCount();
+        T result;
+        try {
+            result = invoke(callback);
+        } catch (RuntimeException | Error e) {
+            state.discardCommitCallbacks(commitCallbacks);
+            try {
+                state.getConnection().rollback(savepoint);
+            } catch (SQLException ex) {
+                //outer transaction can not continue
+                state.setRollbackOnly(true);
+            }
+            throw e;
+        }
+        try {
+            state.getConnection().releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            //not supported by every driver, the savepoint ends with the transaction anyway
+        }
+        return result;
+    }
+
+    private <T> T executeSuspended(TransactionCallback<T> callback, boolean newTransaction) {
+        ConnectionState suspended = binding.suspend();
+        try {
+            return newTransaction ? executeNew(callback) : invoke(callback);
+        } finally {
+            binding.closeConnection();
+            binding.resume(suspended);
+        }
+    }
+
+    private static <T> T invoke(TransactionCallback<T> callback) {
+        try {
+            return callback.doInTransaction();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataException("doInTransaction", e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.mapper.FieldColumn;
+import com.gsralex.gdata.bean.mapper.MapperHolder;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 合并多线程的单行insert/update，由后台线程按批次大小或最长等待时间成组写入
+ * 每个类型的insert、update各在一个事务中写入；失败时逐行重试，只有出错的行的future失败
+ * 同一主键的多次update只写最后一次；实体的值在写入时读取，入队后修改对象会影响写入的内容
+ * 返回的future在所在批次提交后完成，不关心持久化的调用方可以忽略
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class WriteBehindBuffer<T> implements AutoCloseable {
+
+    private static Logger LOGGER = Logger.getLogger(WriteBehindBuffer.class);
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    private enum Kind {
+        Insert, Update, Flush
+    }
+
+    private final JdbcUtils jdbcUtils;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ConcurrentLinkedQueue<Entry<T>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger flushRequests = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    /**
+     * @param maxBatchSize   积累到多少条时立即写入
+     * @param maxDelayMillis 第一条入队后最多等待多久写入
+     */
+    public WriteBehindBuffer(JdbcUtils jdbcUtils, int maxBatchSize, long maxDelayMillis) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize:" + maxBatchSize);
+        }
+        this.jdbcUtils = jdbcUtils;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.flusher = new Thread(this::runFlusher, "gdata-write-behind-" + SEQ.incrementAndGet());
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public CompletableFuture<Void> insert(T t) {
+        return enqueue(Kind.Insert, t);
+    }
+
+    public CompletableFuture<Void> update(T t) {
+        return enqueue(Kind.Update, t);
+    }
+
+    /**
+     * 立即写入已入队的全部数据，写入结束后完成，单行的失败只通过该行的future返回
+     */
+    public CompletableFuture<Void> flush() {
+        return enqueue(Kind.Flush, null);
+    }
+
+    /**
+     * 未写入的条数
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private CompletableFuture<Void> enqueue(Kind kind, T t) {
+        if (kind != Kind.Flush && t == null) {
+            throw new NullPointerException();
+        }
+        Entry<T> entry = new Entry<>(kind, t);
+        if (closed) {
+            entry.future.completeExceptionally(new DataException(ExceptionMessage.WB_CLOSED));
+            return entry.future;
+        }
+        if (kind == Kind.Flush) {
+            flushRequests.incrementAndGet();
+        }
+        queue.offer(entry);
+        int n = size.incrementAndGet();
+        if (n == 1 || n >= maxBatchSize || kind == Kind.Flush) {
+            LockSupport.unpark(flusher);
+        }
+        return entry.future;
+    }
+
+    private void runFlusher() {
+        while (true) {
+            if (size.get() == 0) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+            //wait for the batch to fill up or the deadline of the oldest entry
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (!closed && size.get() < maxBatchSize && flushRequests.get() == 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            drain();
+        }
+    }
+
+    private void drain() {
+        List<Entry<T>> entries = new ArrayList<>();
+        Entry<T> entry;
+        while ((entry = queue.poll()) != null) {
+            size.decrementAndGet();
+            entries.add(entry);
+            if (entry.kind == Kind.Flush) {
+                flushRequests.decrementAndGet();
+            } else if (entries.size() >= maxBatchSize) {
+                break;
+            }
+        }
+        if (!entries.isEmpty()) {
+            write(entries);
+        }
+    }
+
+    private void write(List<Entry<T>> entries) {
+        Map<Class, List<Row<T>>> inserts = new LinkedHashMap<>();
+        Map<List<Object>, Row<T>> updates = new LinkedHashMap<>();
+        List<Entry<T>> flushes = new ArrayList<>();
+        for (Entry<T> entry : entries) {
+            if (entry.kind == Kind.Insert) {
+                Row<T> row = new Row<>(entry.value);
+                row.entries.add(entry);
+                inserts.computeIfAbsent(entry.value.getClass(), k -> new ArrayList<>()).add(row);
+            } else if (entry.kind == Kind.Update) {
+                try {
+                    List<Object> key = getKey(entry.value);
+                    //last write wins, keeps the position of the first one
+                    Row<T> row = updates.get(key);
+                    if (row == null) {
+                        row = new Row<>(entry.value);
+                        updates.put(key, row);
+                    } else {
+                        row.value = entry.value;
+                    }
+                    row.entries.add(entry);
+                } catch (RuntimeException e) {
+                    entry.future.completeExceptionally(e);
+                }
+            } else {
+                flushes.add(entry);
+            }
+        }
+        Map<Class, List<Row<T>>> updateGroups = new LinkedHashMap<>();
+        for (Row<T> row : updates.values()) {
+            updateGroups.computeIfAbsent(row.value.getClass(), k -> new ArrayList<>()).add(row);
+        }
+        for (List<Row<T>> rows : inserts.values()) {
+            write(Kind.Insert, rows);
+        }
+        for (List<Row<T>> rows : updateGroups.values()) {
+            write(Kind.Update, rows);
+        }
+        for (Entry<T> entry : flushes) {
+            entry.future.complete(null);
+        }
+    }
+
+    /**
+     * 一组同类型的行在一个事务中写入，失败时逐行重试，只有出错的行失败
+     */
+    private void write(Kind kind, List<Row<T>> rows) {
+        List<T> list = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            list.add(row.value);
+        }
+        try {
+            jdbcUtils.inTransaction(() -> {
+                if (kind == Kind.Insert) {
+                    jdbcUtils.batchInsert(list);
+                } else {
+                    jdbcUtils.batchUpdate(list);
+                }
+                return null;
+            });
+            for (Row<T> row : rows) {
+                row.complete(null);
+            }
+            return;
+        } catch (Throwable e) {
+            if (rows.size() == 1) {
+                LOGGER.error("write-behind " + kind + " failed", e);
+                rows.get(0).complete(e);
+                return;
+            }
+            LOGGER.warn("write-behind " + kind + " of " + rows.size() + " rows failed, retrying row by row", e);
+        }
+        for (Row<T> row : rows) {
+            try {
+                if (kind == Kind.Insert) {
+                    jdbcUtils.insert(row.value);
+                } else {
+                    jdbcUtils.update(row.value);
+                }
+                row.complete(null);
+            } catch (Throwable e) {
+                LOGGER.error("write-behind " + kind + " failed", e);
+                row.complete(e);
+            }
+        }
+    }
+
+    private List<Object> getKey(T t) {
+        List<FieldColumn> idColumns = MapperHolder.getMapperCache(t.getClass()).getIdColumns();
+        if (idColumns.size() == 0) {
+            throw new DataException(ExceptionMessage.NOTID_FORUPDATE);
+        }
+        Object[] key = new Object[idColumns.size() + 1];
+        key[0] = t.getClass();
+        for (int i = 0; i < idColumns.size(); i++) {
+            key[i + 1] = idColumns.get(i).getAccessor().getValue(t);
+        }
+        return Arrays.asList(key);
+    }
+
+    /**
+     * 写入剩余数据后停止后台线程
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //entries that raced with close
+        while (!queue.isEmpty()) {
+            drain();
+        }
+    }
+
+    private static class Row<T> {
+        private T value;
+        //entries coalesced into this row
+        private final List<Entry<T>> entries = new ArrayList<>(1);
+
+        Row(T value) {
+            this.value = value;
+        }
+
+        void complete(Throwable e) {
+            for (Entry<T> entry : entries) {
+                if (e == null) {
+                    entry.future.complete(null);
+                } else {
+                    entry.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static class Entry<T> {
+        private final Kind kind;
+        private final T value;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Entry(Kind kind, T value) {
+            this.kind = kind;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.gsralex.gdata.bean.mapper;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * getter/setter 解析规则，按类型只扫描一次 getMethods()
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+class BeanMethods {
+
+    private static final String TYPENAME_BOOLEAN = "boolean";
+    private static final String TYPENAME_JAVALANGBOOLEAN = "java.lang.Boolean";
+
+    private Class type;
+    private Map<String, List<Method>> methodMap;
+
+    BeanMethods(Class type) {
+        this.type = type;
+        this.methodMap = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String key = method.getName().toLowerCase();
+            List<Method> methodList = this.methodMap.get(key);
+            if (methodList == null) {
+                methodList = new ArrayList<>();
+                this.methodMap.put(key, methodList);
+            }
+            methodList.add(method);
+        }
+    }
+
+    public Class getType() {
+        return type;
+    }
+
+    public Method findGetter(Class fieldType, String fieldName) {
+        String typeName = fieldType.getTypeName();
+        Method method;
+        switch (typeName) {
+            case TYPENAME_BOOLEAN: {
+                method = this.getMethod(getIsMethodName(fieldName), null);//1
+                if (method == null) {
+                    method = this.getMethod(getGetMethodName(fieldName), null);//2
+                }
+                if (method == null) {
+                    method = this.getMethod(getGetNoIsMethodName(fieldName), null);//3
+                }
+                break;
+            }
+            case TYPENAME_JAVALANGBOOLEAN: {
+                method = this.getMethod(getGetNoIsMethodName(fieldName), null);//3
+                if (method == null) {
+                    method = this.getMethod(getGetMethodName(fieldName), null);//2
+                }
+                if (method == null) {
+                    method = this.getMethod(getIsMethodName(fieldName), null);//1
+                }
+                break;
+            }
+            default: {
+                method = this.getMethod(getGetMethodName(fieldName), null);
+            }
+        }
+        return method;
+    }
+
+    public Method findSetter(Class fieldType, String fieldName) {
+        String setMethodName = getSetMethodName(fieldName);
+        String typeName = fieldType.getTypeName();
+        Method method;
+        switch (typeName) {
+            case TYPENAME_BOOLEAN:
+            case TYPENAME_JAVALANGBOOLEAN: {
+                method = this.getMethod(getSetNoIsMethodName(fieldName), fieldType);
+                if (method == null) {
+                    method = this.getMethod(setMethodName, fieldType);
+                }
+                break;
+            }
+            default: {
+                method = this.getMethod(setMethodName, fieldType);
+                break;
+            }
+        }
+        return method;
+    }
+
+    private Method getMethod(String methodName, Class fieldType) {
+        String name = methodName.toLowerCase();
+        List<Method> methodList = this.methodMap.get(name);
+        if (methodList != null && methodList.size() != 0) {
+            for (Method method : methodList) {
+                Class[] types = method.getParameterTypes();
+                if (fieldType != null) {
+                    if (types != null && types.length == 1 && types[0] == fieldType) {
+                        return method;
+                    }
+                } else {
+                    if (types == null || types.length == 0) {
+                        return method;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+
+    private static String getGetMethodName(String fieldName) {
+        return "get" + getInitCapsMethodName(fieldName);
+    }
+
+    private static String getIsMethodName(String fieldName) {
+        return "is" + getInitCapsMethodName(fieldName);
+    }
+
+    private static String getGetNoIsMethodName(String fieldName) {
+        String noIsMethodName = StringUtils.removeStart(fieldName, "is");
+        return "get" + getInitCapsMethodName(noIsMethodName);
+    }
+
+
+    private static String getSetMethodName(String fieldName) {
+        return "set" + getInitCapsMethodName(fieldName);
+    }
+
+    private static String getSetNoIsMethodName(String fieldName) {
+        String noIsMethodName = StringUtils.removeStart(fieldName, "is");
+        return "set" + getInitCapsMethodName(noIsMethodName);
+    }
+
+    private static String getInitCapsMethodName(String fieldName) {
+        return fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.gsralex.gdata.bean.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 按列序号读取已确定类型的值，sql null返回null
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface ColumnReader {
+
+    Object read(ResultSet rs, int columnIndex) throws SQLException;
+}
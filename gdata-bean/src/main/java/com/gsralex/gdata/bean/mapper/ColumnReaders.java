@@ -0,0 +1,165 @@
+package com.gsralex.gdata.bean.mapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+
+/**
+ * 按目标类型选择读取方法，只判断一次；内置类型以外的值用getObject读取后经TypeConverter转换
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class ColumnReaders {
+
+    private static final ColumnReader INT_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            int value = rs.getInt(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader FLOAT_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            float value = rs.getFloat(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader DOUBLE_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            double value = rs.getDouble(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader LONG_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            long value = rs.getLong(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader STRING_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            return rs.getString(columnIndex);
+        }
+    };
+
+    private static final ColumnReader DATE_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            return rs.getTimestamp(columnIndex);
+        }
+    };
+
+    private static final ColumnReader BOOLEAN_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            boolean value = rs.getBoolean(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader BYTE_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            byte value = rs.getByte(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader SHORT_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            short value = rs.getShort(columnIndex);
+            return rs.wasNull() ? null : value;
+        }
+    };
+
+    private static final ColumnReader BIGDECIMAL_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            return rs.getBigDecimal(columnIndex);
+        }
+    };
+
+    private static final ColumnReader OBJECT_READER = new ColumnReader() {
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            return rs.getObject(columnIndex);
+        }
+    };
+
+    public static ColumnReader getReader(Class type) {
+        if (type == int.class || type == Integer.class) {
+            return INT_READER;
+        } else if (type == float.class || type == Float.class) {
+            return FLOAT_READER;
+        } else if (type == double.class || type == Double.class) {
+            return DOUBLE_READER;
+        } else if (type == long.class || type == Long.class) {
+            return LONG_READER;
+        } else if (type == String.class) {
+            return STRING_READER;
+        } else if (type == Date.class) {
+            return DATE_READER;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN_READER;
+        } else if (type == byte.class || type == Byte.class) {
+            return BYTE_READER;
+        } else if (type == short.class || type == Short.class) {
+            return SHORT_READER;
+        } else if (type == BigDecimal.class) {
+            return BIGDECIMAL_READER;
+        } else if (type == Object.class) {
+            return OBJECT_READER;
+        } else {
+            return new ConvertingReader(type);
+        }
+    }
+
+    /**
+     * 记住上一个值的类型对应的转换器，同一列的值类型通常不变
+     */
+    private static class ConvertingReader implements ColumnReader {
+
+        private final Class type;
+        private volatile Resolved last;
+
+        ConvertingReader(Class type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object read(ResultSet rs, int columnIndex) throws SQLException {
+            Object value = rs.getObject(columnIndex);
+            if (value == null) {
+                return null;
+            }
+            Resolved resolved = last;
+            if (resolved == null || resolved.source != value.getClass()) {
+                resolved = new Resolved(value.getClass(), TypeConverter.getConverter(value.getClass(), type));
+                last = resolved;
+            }
+            //no converter: hand over the raw value as before
+            return resolved.converter != null ? resolved.converter.convert(value) : value;
+        }
+    }
+
+    private static class Resolved {
+        private final Class source;
+        private final Converter<Object, Object> converter;
+
+        Resolved(Class source, Converter<Object, Object> converter) {
+            this.source = source;
+            this.converter = converter;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.gsralex.gdata.bean.mapper;
+
+/**
+ * 把S类型的非null值转换为T类型
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface Converter<S, T> {
+
+    T convert(S source);
+}
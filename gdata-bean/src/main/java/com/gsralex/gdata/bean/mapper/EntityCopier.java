@@ -0,0 +1,49 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.exception.DataException;
+
+import java.util.Date;
+
+/**
+ * 按映射的列拷贝实体，byte[]和Date也会拷贝，其他值共用引用
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class EntityCopier {
+
+    public static <T> T copy(T t) {
+        if (t == null) {
+            return null;
+        }
+        Mapper mapper = MapperHolder.getMapperCache(t.getClass());
+        T copy = newInstance(mapper, (Class<T>) t.getClass());
+        for (FieldColumn column : mapper.getMapper().values()) {
+            PropertyAccessor accessor = column.getAccessor();
+            if (accessor.isReadable() && accessor.isWritable()) {
+                accessor.setValue(copy, copyValue(accessor.getValue(t)));
+            }
+        }
+        return copy;
+    }
+
+    public static Object copyValue(Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        } else if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        return value;
+    }
+
+    private static <T> T newInstance(Mapper mapper, Class<T> type) {
+        if (mapper.getGeneratedMapper() != null) {
+            return (T) mapper.getGeneratedMapper().newInstance();
+        }
+        try {
+            return type.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new DataException("newInstance:" + type.getName(), e);
+        }
+    }
+}
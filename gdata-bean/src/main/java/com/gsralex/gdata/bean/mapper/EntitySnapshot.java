@@ -0,0 +1,66 @@
+package com.gsralex.gdata.bean.mapper;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * 实体在某一时刻的列值，按Mapper中列的声明顺序保存
+ * 用于比较出被修改过的列，主键列不参与比较
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class EntitySnapshot {
+
+    private final FieldColumn[] columns;
+    private final Object[] values;
+
+    private EntitySnapshot(FieldColumn[] columns, Object[] values) {
+        this.columns = columns;
+        this.values = values;
+    }
+
+    public static EntitySnapshot capture(Object t) {
+        Mapper mapper = MapperHolder.getMapperCache(t.getClass());
+        FieldColumn[] columns = mapper.getMapper().values().toArray(new FieldColumn[0]);
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].getAccessor().isReadable()) {
+                values[i] = EntityCopier.copyValue(columns[i].getAccessor().getValue(t));
+            }
+        }
+        return new EntitySnapshot(columns, values);
+    }
+
+    /**
+     * 与当前实体比较，返回被修改的非主键列序号
+     */
+    public BitSet getChangedColumns(Object t) {
+        BitSet changed = new BitSet(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            FieldColumn column = columns[i];
+            if (column.isId() || !column.getAccessor().isReadable()) {
+                continue;
+            }
+            if (!Objects.deepEquals(values[i], column.getAccessor().getValue(t))) {
+                changed.set(i);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 没有快照时使用，所有非主键列都视为已修改
+     */
+    public static BitSet getAllColumns(Class type) {
+        BitSet all = new BitSet();
+        int i = 0;
+        for (FieldColumn column : MapperHolder.getMapperCache(type).getMapper().values()) {
+            if (!column.isId()) {
+                all.set(i);
+            }
+            i++;
+        }
+        return all;
+    }
+}
@@ -10,7 +10,7 @@ public class FieldColumn {
     private boolean generatedKey;
     private String label;
     private Class type;
-
+    private PropertyAccessor accessor;
 
     public String getName() {
         return name;
@@ -51,4 +51,12 @@ public class FieldColumn {
     public void setType(Class type) {
         this.type = type;
     }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    public void setAccessor(PropertyAccessor accessor) {
+        this.accessor = accessor;
+    }
 }
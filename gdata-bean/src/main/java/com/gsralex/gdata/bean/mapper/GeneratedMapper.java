@@ -0,0 +1,31 @@
+package com.gsralex.gdata.bean.mapper;
+
+/**
+ * 编译期(gdata-apt)为@Table实体生成的映射，运行时不再反射读取注解和getter/setter
+ * sql的参数按字段声明顺序排列，SqlTemplate按同样的顺序通过属性读写器绑定
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public interface GeneratedMapper<T> {
+
+    String CLASS_SUFFIX = "_GdataMapper";
+
+    Class<T> getType();
+
+    /**
+     * 属性读写器为生成的lambda
+     */
+    Mapper createMapper();
+
+    T newInstance();
+
+    /**
+     * @param aliasFormat SqlAlias.getAliasFormat的返回值
+     */
+    String getInsertSql(String aliasFormat);
+
+    String getUpdateSql(String aliasFormat);
+
+    String getDeleteSql(String aliasFormat);
+}
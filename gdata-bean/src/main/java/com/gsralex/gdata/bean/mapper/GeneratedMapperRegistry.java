@@ -0,0 +1,124 @@
+package com.gsralex.gdata.bean.mapper;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查找编译期生成的GeneratedMapper：先读ServiceLoader注册，再按类名约定(Foo_GdataMapper)查找
+ * 找不到时返回null，调用方退回反射映射
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class GeneratedMapperRegistry {
+
+    private static final GeneratedMapper NONE = new NoneMapper();
+
+    private static ConcurrentHashMap<Class, GeneratedMapper> cacheMapper = new ConcurrentHashMap<>();
+    private static volatile boolean serviceLoaded = false;
+
+    public static <T> GeneratedMapper<T> get(Class<T> type) {
+        GeneratedMapper mapper = cacheMapper.get(type);
+        if (mapper == null) {
+            loadServices(type.getClassLoader());
+            mapper = cacheMapper.get(type);
+            if (mapper == null) {
+                mapper = findByName(type);
+                GeneratedMapper old = cacheMapper.putIfAbsent(type, mapper);
+                if (old != null) {
+                    mapper = old;
+                }
+            }
+        }
+        return mapper == NONE ? null : mapper;
+    }
+
+    public static void register(GeneratedMapper mapper) {
+        cacheMapper.put(mapper.getType(), mapper);
+    }
+
+    public static String getGeneratedClassName(Class type) {
+        String packageName = type.getPackage() != null ? type.getPackage().getName() : "";
+        String simpleName = packageName.length() == 0 ? type.getName() : type.getName().substring(packageName.length() + 1);
+        simpleName = simpleName.replace('$', '_') + GeneratedMapper.CLASS_SUFFIX;
+        return packageName.length() == 0 ? simpleName : packageName + "." + simpleName;
+    }
+
+    private static void loadServices(ClassLoader classLoader) {
+        if (serviceLoaded) {
+            return;
+        }
+        synchronized (GeneratedMapperRegistry.class) {
+            if (serviceLoaded) {
+                return;
+            }
+            ClassLoader loader = classLoader != null ? classLoader : GeneratedMapperRegistry.class.getClassLoader();
+            try {
+                Iterator<GeneratedMapper> iterator = ServiceLoader.load(GeneratedMapper.class, loader).iterator();
+                while (iterator.hasNext()) {
+                    GeneratedMapper mapper = iterator.next();
+                    cacheMapper.putIfAbsent(mapper.getType(), mapper);
+                }
+            } catch (ServiceConfigurationError e) {
+                //broken registration, fall back to lookup by name
+            }
+            serviceLoaded = true;
+        }
+    }
+
+    private static GeneratedMapper findByName(Class type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return NONE;
+        }
+        try {
+            Class mapperType = Class.forName(getGeneratedClassName(type), true, loader);
+            if (GeneratedMapper.class.isAssignableFrom(mapperType)) {
+                GeneratedMapper mapper = (GeneratedMapper) mapperType.newInstance();
+                if (mapper.getType() == type) {
+                    return mapper;
+                }
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            //not generated
+        } catch (InstantiationException | IllegalAccessException e) {
+            //not usable
+        }
+        return NONE;
+    }
+
+    private static class NoneMapper implements GeneratedMapper<Object> {
+
+        @Override
+        public Class<Object> getType() {
+            return Object.class;
+        }
+
+        @Override
+        public Mapper createMapper() {
+            return null;
+        }
+
+        @Override
+        public Object newInstance() {
+            return null;
+        }
+
+        @Override
+        public String getInsertSql(String aliasFormat) {
+            return null;
+        }
+
+        @Override
+        public String getUpdateSql(String aliasFormat) {
+            return null;
+        }
+
+        @Override
+        public String getDeleteSql(String aliasFormat) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.gsralex.gdata.bean.mapper;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +16,10 @@ public class Mapper {
     private Map<String, FieldColumn> mapper;
 
     private List<FieldColumn> idColumns;
+    private GeneratedMapper generatedMapper;
 
     public Mapper() {
-        mapper = new HashMap<>();
+        mapper = new LinkedHashMap<>();
         idColumns = new ArrayList<>();
     }
 
@@ -46,4 +47,14 @@ public class Mapper {
         return idColumns;
     }
 
+    /**
+     * 编译期生成的映射，反射构建的Mapper为null
+     */
+    public GeneratedMapper getGeneratedMapper() {
+        return generatedMapper;
+    }
+
+    public void setGeneratedMapper(GeneratedMapper generatedMapper) {
+        this.generatedMapper = generatedMapper;
+    }
 }
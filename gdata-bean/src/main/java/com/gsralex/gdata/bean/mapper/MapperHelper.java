@@ -1,9 +1,11 @@
 package com.gsralex.gdata.bean.mapper;
 
+import com.gsralex.gdata.bean.cache.BoundedCache;
 import org.apache.commons.lang3.StringUtils;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.Map;
@@ -15,6 +17,37 @@ import java.util.Set;
  */
 public class MapperHelper {
 
+    private static final int DEFAULT_PLAN_CACHE_SIZE = 1024;
+
+    private BoundedCache<PlanKey, RowMapperPlan> planCache;
+
+    public MapperHelper() {
+        this(DEFAULT_PLAN_CACHE_SIZE);
+    }
+
+    public MapperHelper(int planCacheSize) {
+        this.planCache = new BoundedCache<>(planCacheSize);
+    }
+
+    /**
+     * 取(sql,type)对应的映射计划，结果集的列数或列label变化时重建
+     */
+    public <T> RowMapperPlan<T> getPlan(String sql, ResultSetMetaData metaData, Class<T> type) throws SQLException {
+        PlanKey key = new PlanKey(sql, type);
+        int columnCount = metaData.getColumnCount();
+        RowMapperPlan<T> plan = planCache.get(key);
+        if (plan != null && plan.matches(metaData)) {
+            return plan;
+        }
+        if (isSimple(type)) {
+            plan = RowMapperPlan.createSimple(type, columnCount);
+        } else {
+            plan = RowMapperPlan.createComplex(type, metaData);
+        }
+        planCache.put(key, plan);
+        return plan;
+    }
+
 
     public <T> T mapperEntity(ResultSet resultSet, Set<String> columnSet, Class<T> type) {
         if (isSimple(type)) {
@@ -39,16 +72,15 @@ public class MapperHelper {
         try {
             instance = type.newInstance();
             Mapper mapper = MapperHolder.getMapperCache(type);
-            FieldValue fieldValue = new FieldValue(instance);
             for (Map.Entry<String, FieldColumn> item : mapper.getMapper().entrySet()) {
                 String label = StringUtils.lowerCase(item.getValue().getLabel());
                 if (columnSet.contains(label)) {
                     Class fieldType = item.getValue().getType();
                     Object object = getRsValue(resultSet, 0, label, fieldType);
-                    setRsValue(object, item.getValue(), fieldValue);
+                    setRsValue(object, item.getValue(), instance);
                 }
             }
-            return (T) fieldValue.getInstance();
+            return instance;
         } catch (IllegalAccessException e) {
             e.printStackTrace();
         } catch (InstantiationException e) {
@@ -70,41 +102,13 @@ public class MapperHelper {
                 || type == BigDecimal.class) {
             return true;
         }
-        return false;
+        return TypeConverter.isValueType(type);
     }
 
     public Object getRsValue(ResultSet rs, int columnIndex, String label, Class type) {
-        boolean isEmptyLabel = StringUtils.isEmpty(label);
-        Object result;
         try {
-            if (type == int.class || type == Integer.class) {
-                result = isEmptyLabel ? rs.getInt(columnIndex) : rs.getInt(label);
-            } else if (type == float.class || type == Float.class) {
-                result = isEmptyLabel ? rs.getFloat(columnIndex) : rs.getFloat(label);
-            } else if (type == double.class || type == Double.class) {
-                result = isEmptyLabel ? rs.getDouble(columnIndex) : rs.getDouble(label);
-            } else if (type == long.class || type == Long.class) {
-                result = isEmptyLabel ? rs.getLong(columnIndex) : rs.getLong(label);
-            } else if (type == String.class) {
-                result = isEmptyLabel ? rs.getString(columnIndex) : rs.getString(label);
-            } else if (type == Date.class) {
-                result = isEmptyLabel ? rs.getTimestamp(columnIndex) : rs.getTimestamp(label);
-            } else if (type == boolean.class || type == Boolean.class) {
-                result = isEmptyLabel ? rs.getBoolean(columnIndex) : rs.getBoolean(label);
-            } else if (type == byte.class || type == Byte.class) {
-                result = isEmptyLabel ? rs.getByte(columnIndex) : rs.getByte(label);
-            } else if (type == short.class || type == Short.class) {
-                result = isEmptyLabel ? rs.getShort(columnIndex) : rs.getShort(label);
-            } else if (type == BigDecimal.class) {
-                result = isEmptyLabel ? rs.getBigDecimal(columnIndex) : rs.getBigDecimal(label);
-            } else {
-                result = isEmptyLabel ? rs.getObject(columnIndex) : rs.getObject(label);
-            }
-            if (rs.wasNull()) {
-                return null;
-            } else {
-                return result;
-            }
+            int index = StringUtils.isEmpty(label) ? columnIndex : rs.findColumn(label);
+            return ColumnReaders.getReader(type).read(rs, index);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -113,11 +117,42 @@ public class MapperHelper {
 
 
     public void setRsValue(Object value, FieldColumn column, FieldValue fieldValue) {
+        setRsValue(value, column, fieldValue.getInstance());
+    }
+
+    public void setRsValue(Object value, FieldColumn column, Object instance) {
         try {
-            String fieldName = column.getName();
-            Class type = column.getType();
-            fieldValue.setValue(type, fieldName, value);
+            column.getAccessor().setValue(instance, value);
         } catch (Throwable e) {
         }
     }
+
+    private static class PlanKey {
+        private final String sql;
+        private final Class type;
+        private final int hash;
+
+        PlanKey(String sql, Class type) {
+            this.sql = sql;
+            this.type = type;
+            this.hash = 31 * sql.hashCode() + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return type == other.type && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
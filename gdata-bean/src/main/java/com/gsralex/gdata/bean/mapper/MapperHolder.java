@@ -39,9 +39,15 @@ public class MapperHolder {
 
 
     private static Mapper getMapper(Class type) {
+        GeneratedMapper generatedMapper = GeneratedMapperRegistry.get(type);
+        if (generatedMapper != null) {
+            Mapper mapper = generatedMapper.createMapper();
+            mapper.setGeneratedMapper(generatedMapper);
+            return mapper;
+        }
         String tableName;
         Table tbName = (Table) type.getAnnotation(Table.class);
-        if (tbName != null) {
+        if (tbName != null && !StringUtils.isEmpty(tbName.name())) {
             tableName = tbName.name();
         } else {
             tableName = type.getSimpleName();
@@ -50,6 +56,7 @@ public class MapperHolder {
         Mapper mapper = new Mapper();
         mapper.setType(type);
         mapper.setTableName(tableName);
+        BeanMethods beanMethods = new BeanMethods(type);
         Field[] fields = type.getDeclaredFields();
         for (Field field : fields) {
             String filedName = field.getName();
@@ -77,6 +84,7 @@ public class MapperHolder {
                 column.setLabel(field.getName());
             }
 
+            column.setAccessor(PropertyAccessor.create(beanMethods, column.getType(), column.getName()));
             mapper.getMapper().put(filedName, column);
         }
         return mapper;
@@ -0,0 +1,236 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.exception.DataException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 单个属性的读写器，类型级别生成一次并缓存在FieldColumn上
+ * getter/setter优先用LambdaMetafactory生成，失败时退回MethodHandle
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class PropertyAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Class beanType;
+    private Class fieldType;
+    private String fieldName;
+    private Function<Object, Object> getter;
+    private BiConsumer<Object, Object> setter;
+
+    private PropertyAccessor(Class beanType, Class fieldType, String fieldName) {
+        this.beanType = beanType;
+        this.fieldType = fieldType;
+        this.fieldName = fieldName;
+    }
+
+    public static PropertyAccessor create(Class beanType, Class fieldType, String fieldName) {
+        return create(new BeanMethods(beanType), fieldType, fieldName);
+    }
+
+    /**
+     * 供生成代码使用，getter/setter可以为null
+     */
+    public static PropertyAccessor create(Class beanType, Class fieldType, String fieldName,
+                                          Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        PropertyAccessor accessor = new PropertyAccessor(beanType, fieldType, fieldName);
+        accessor.getter = getter;
+        accessor.setter = setter;
+        return accessor;
+    }
+
+    static PropertyAccessor create(BeanMethods beanMethods, Class fieldType, String fieldName) {
+        PropertyAccessor accessor = new PropertyAccessor(beanMethods.getType(), fieldType, fieldName);
+        Method getMethod = beanMethods.findGetter(fieldType, fieldName);
+        if (getMethod != null) {
+            accessor.getter = createGetter(getMethod);
+        }
+        Method setMethod = beanMethods.findSetter(fieldType, fieldName);
+        if (setMethod != null) {
+            accessor.setter = createSetter(setMethod);
+        }
+        return accessor;
+    }
+
+    public Class getFieldType() {
+        return fieldType;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public boolean isReadable() {
+        return getter != null;
+    }
+
+    public boolean isWritable() {
+        return setter != null;
+    }
+
+    public Object getValue(Object instance) {
+        if (getter == null) {
+            throw new DataException("getValue",
+                    new NoSuchMethodException("getMethod:" + beanType.getName() + "." + fieldName));
+        }
+        try {
+            return getter.apply(instance);
+        } catch (Throwable e) {
+            throw new DataException("getValue", e);
+        }
+    }
+
+    public void setValue(Object instance, Object value) {
+        if (setter == null) {
+            throw new DataException("setValue",
+                    new NoSuchMethodException("setMethod:" + beanType.getName() + "." + fieldName));
+        }
+        if (value == null && fieldType.isPrimitive()) {
+            //primitive field keeps its default value
+            return;
+        }
+        try {
+            setter.accept(instance, value);
+        } catch (Throwable e) {
+            throw new DataException("setValue", e);
+        }
+    }
+
+    private static Function<Object, Object> createGetter(Method method) {
+        MethodHandle handle = unreflect(method);
+        if (isLambdaVisible(method)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                //fall back to method handle
+            }
+        }
+        final MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return new Function<Object, Object>() {
+            @Override
+            public Object apply(Object instance) {
+                try {
+                    return genericHandle.invokeExact(instance);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new DataException("getValue", e);
+                }
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> createSetter(Method method) {
+        MethodHandle handle = unreflect(method);
+        if (isLambdaVisible(method)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                //fall back to method handle
+            }
+        }
+        final MethodHandle genericHandle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return new BiConsumer<Object, Object>() {
+            @Override
+            public void accept(Object instance, Object value) {
+                try {
+                    genericHandle.invokeExact(instance, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new DataException("setValue", e);
+                }
+            }
+        };
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            try {
+                method.setAccessible(true);
+                return LOOKUP.unreflect(method);
+            } catch (Throwable ex) {
+                throw new DataException("unreflect:" + method, ex);
+            }
+        }
+    }
+
+    /**
+     * 生成的lambda类挂在本类的classloader上，bean或属性类型对其不可见时不能使用
+     */
+    private static boolean isLambdaVisible(Method method) {
+        if (!java.lang.reflect.Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return false;
+        }
+        if (!isVisible(method.getDeclaringClass())) {
+            return false;
+        }
+        for (Class type : method.getParameterTypes()) {
+            if (!isVisible(type)) {
+                return false;
+            }
+        }
+        return isVisible(method.getReturnType());
+    }
+
+    private static boolean isVisible(Class type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        ClassLoader loader = PropertyAccessor.class.getClassLoader();
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Class wrap(Class type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+}
@@ -0,0 +1,139 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个结果集结构到目标类型的映射计划：列序号 -> 属性 -> 读取方法
+ * 由MapperHelper按(sql,type)缓存，逐行映射时只做按序号的读取
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class RowMapperPlan<T> {
+
+    private Class<T> type;
+    private boolean simple;
+    private int columnCount;
+    private String[] labels;
+    private int[] indexes;
+    private FieldColumn[] columns;
+    private ColumnReader[] readers;
+    private GeneratedMapper<T> generatedMapper;
+
+    private RowMapperPlan(Class<T> type, int columnCount) {
+        this.type = type;
+        this.columnCount = columnCount;
+    }
+
+    public static <T> RowMapperPlan<T> createSimple(Class<T> type, int columnCount) {
+        RowMapperPlan<T> plan = new RowMapperPlan<>(type, columnCount);
+        plan.simple = true;
+        plan.indexes = new int[]{1};
+        plan.readers = new ColumnReader[]{ColumnReaders.getReader(type)};
+        plan.columns = new FieldColumn[0];
+        return plan;
+    }
+
+    public static <T> RowMapperPlan<T> createComplex(Class<T> type, ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        Map<String, Integer> labelIndexMap = new HashMap<>();
+        for (int i = 1; i <= columnCount; i++) {
+            String label = StringUtils.lowerCase(metaData.getColumnLabel(i));
+            labels[i - 1] = label;
+            if (!labelIndexMap.containsKey(label)) {
+                labelIndexMap.put(label, i);
+            }
+        }
+        Mapper mapper = MapperHolder.getMapperCache(type);
+        List<FieldColumn> columnList = new ArrayList<>();
+        List<Integer> indexList = new ArrayList<>();
+        for (FieldColumn column : mapper.getMapper().values()) {
+            Integer index = labelIndexMap.get(StringUtils.lowerCase(column.getLabel()));
+            if (index != null && column.getAccessor().isWritable()) {
+                columnList.add(column);
+                indexList.add(index);
+            }
+        }
+        RowMapperPlan<T> plan = new RowMapperPlan<>(type, columnCount);
+        plan.labels = labels;
+        plan.generatedMapper = mapper.getGeneratedMapper();
+        int size = columnList.size();
+        plan.indexes = new int[size];
+        plan.columns = new FieldColumn[size];
+        plan.readers = new ColumnReader[size];
+        for (int i = 0; i < size; i++) {
+            plan.indexes[i] = indexList.get(i);
+            plan.columns[i] = columnList.get(i);
+            plan.readers[i] = ColumnReaders.getReader(columnList.get(i).getType());
+        }
+        return plan;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * 结果集结构是否与建立计划时一致：简单类型只比较列数，实体还要逐列比较label
+     */
+    public boolean matches(ResultSetMetaData metaData) throws SQLException {
+        if (metaData.getColumnCount() != columnCount) {
+            return false;
+        }
+        if (labels == null) {
+            return true;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            //same sql, different shape: select * after an alter, or another view behind a synonym
+            if (!labels[i].equals(StringUtils.lowerCase(metaData.getColumnLabel(i + 1)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSimple() {
+        return simple;
+    }
+
+    public T mapRow(ResultSet rs) throws SQLException {
+        if (simple) {
+            return (T) readers[0].read(rs, 1);
+        }
+        T instance = newInstance();
+        for (int i = 0; i < indexes.length; i++) {
+            Object value = readers[i].read(rs, indexes[i]);
+            try {
+                columns[i].getAccessor().setValue(instance, value);
+            } catch (DataException e) {
+                //same as MapperHelper.setRsValue, an unassignable value is skipped
+            }
+        }
+        return instance;
+    }
+
+    private T newInstance() {
+        if (generatedMapper != null) {
+            return generatedMapper.newInstance();
+        }
+        try {
+            return type.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new DataException("newInstance:" + type.getName(), e);
+        }
+    }
+}
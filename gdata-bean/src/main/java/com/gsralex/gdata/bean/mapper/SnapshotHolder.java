@@ -0,0 +1,74 @@
+package com.gsralex.gdata.bean.mapper;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体 -> 快照，按对象identity弱引用保存，实体被回收后快照随之清除
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SnapshotHolder {
+
+    private static final Map<IdentityKey, EntitySnapshot> snapshots = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    public static void put(Object t, EntitySnapshot snapshot) {
+        expunge();
+        snapshots.put(new IdentityKey(t, queue), snapshot);
+    }
+
+    public static EntitySnapshot get(Object t) {
+        return snapshots.get(new IdentityKey(t, null));
+    }
+
+    public static void remove(Object t) {
+        snapshots.remove(new IdentityKey(t, null));
+    }
+
+    public static void clear() {
+        snapshots.clear();
+    }
+
+    public static int size() {
+        expunge();
+        return snapshots.size();
+    }
+
+    private static void expunge() {
+        Object key;
+        while ((key = queue.poll()) != null) {
+            snapshots.remove(key);
+        }
+    }
+
+    private static class IdentityKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IdentityKey)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((IdentityKey) obj).get();
+        }
+    }
+}
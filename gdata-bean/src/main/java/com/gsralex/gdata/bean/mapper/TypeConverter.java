@@ -0,0 +1,334 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.exception.DataException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 值类型转换，按(源类型,目标类型)解析一次转换器并缓存
+ * 数值之间直接转换不经过字符串，整数收窄时超出范围抛出DataException，小数转整数时截断；
+ * 支持java.time与Date/Timestamp互转(按系统时区)、枚举(按name或序号)，可以注册自定义转换器
+ * 映射实体、DataRowSet的取值方法和自增主键回写都使用这里的规则
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TypeConverter {
+
+    private static final Converter<Object, Object> IDENTITY = value -> value;
+    //cached marker for pairs without a converter
+    private static final Converter<Object, Object> NONE = value -> value;
+
+    private static final Map<Class, Class> BOXES = new HashMap<>();
+
+    static {
+        BOXES.put(int.class, Integer.class);
+        BOXES.put(long.class, Long.class);
+        BOXES.put(short.class, Short.class);
+        BOXES.put(byte.class, Byte.class);
+        BOXES.put(double.class, Double.class);
+        BOXES.put(float.class, Float.class);
+        BOXES.put(boolean.class, Boolean.class);
+        BOXES.put(char.class, Character.class);
+    }
+
+    private static final Map<Class, Map<Class, Converter>> registered = new ConcurrentHashMap<>();
+    private static final Map<Class, Map<Class, Converter>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * 注册自定义转换器，优先于内置规则；源类型的子类也会使用
+     */
+    public static <S, T> void register(Class<S> source, Class<T> target, Converter<? super S, ? extends T> converter) {
+        registered.computeIfAbsent(source, k -> new ConcurrentHashMap<>()).put(box(target), converter);
+        resolved.clear();
+    }
+
+    /**
+     * 转换value，null返回null；没有可用的转换时抛出DataException
+     */
+    public static <T> T convert(Object value, Class<T> target) {
+        if (value == null) {
+            return null;
+        }
+        Converter<Object, Object> converter = getConverter(value.getClass(), target);
+        if (converter == null) {
+            throw new DataException("convert:" + value.getClass().getName() + " to " + target.getName());
+        }
+        return (T) converter.convert(value);
+    }
+
+    /**
+     * 没有可用的转换时返回null
+     */
+    public static Converter<Object, Object> getConverter(Class<?> source, Class<?> target) {
+        Map<Class, Converter> targets = resolved.get(source);
+        if (targets == null) {
+            targets = resolved.computeIfAbsent(source, k -> new ConcurrentHashMap<>());
+        }
+        Converter converter = targets.get(target);
+        if (converter == null) {
+            converter = resolve(source, box(target));
+            targets.put(target, converter == null ? NONE : converter);
+        }
+        return converter == NONE ? null : converter;
+    }
+
+    /**
+     * 可以作为单列查询结果的值类型(内置的数值、字符串、日期类型以外)
+     */
+    public static boolean isValueType(Class<?> type) {
+        type = box(type);
+        if (type.isEnum() || type == BigInteger.class || type == Character.class || type == byte[].class
+                || isTemporal(type)) {
+            return true;
+        }
+        for (Map<Class, Converter> targets : registered.values()) {
+            if (targets.containsKey(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Class box(Class<?> type) {
+        Class boxed = BOXES.get(type);
+        return boxed != null ? boxed : type;
+    }
+
+    private static Converter resolve(Class source, Class target) {
+        Converter custom = findRegistered(source, target);
+        if (custom != null) {
+            return custom;
+        }
+        if (target.isAssignableFrom(source)) {
+            return IDENTITY;
+        }
+        if (Number.class.isAssignableFrom(source) && isNumeric(target)) {
+            return getNumberConverter(target);
+        }
+        if (source == Boolean.class && isNumeric(target)) {
+            Converter number = getNumberConverter(target);
+            return value -> number.convert((Boolean) value ? 1 : 0);
+        }
+        if (target == Boolean.class && Number.class.isAssignableFrom(source)) {
+            return value -> value instanceof BigDecimal ? ((BigDecimal) value).signum() != 0
+                    : ((Number) value).doubleValue() != 0;
+        }
+        if (target == String.class) {
+            if (source.isEnum()) {
+                return value -> ((Enum) value).name();
+            }
+            return Object::toString;
+        }
+        if (target.isEnum()) {
+            Object[] constants = target.getEnumConstants();
+            if (source == String.class) {
+                return value -> Enum.valueOf(target, ((String) value).trim());
+            } else if (Number.class.isAssignableFrom(source)) {
+                Converter ordinal = getNumberConverter(Integer.class);
+                return value -> constants[(Integer) ordinal.convert(value)];
+            }
+            return null;
+        }
+        if (source == String.class) {
+            return getStringConverter(target);
+        }
+        if (isTemporal(source) && isTemporal(target)) {
+            return getTemporalConverter(source, target);
+        }
+        return null;
+    }
+
+    private static Converter findRegistered(Class source, Class target) {
+        if (registered.isEmpty()) {
+            return null;
+        }
+        for (Class type = source; type != null; type = type.getSuperclass()) {
+            Map<Class, Converter> targets = registered.get(type);
+            if (targets != null && targets.containsKey(target)) {
+                return targets.get(target);
+            }
+            for (Class i : type.getInterfaces()) {
+                targets = registered.get(i);
+                if (targets != null && targets.containsKey(target)) {
+                    return targets.get(target);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNumeric(Class type) {
+        return type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == Double.class || type == Float.class || type == BigDecimal.class || type == BigInteger.class;
+    }
+
+    private static Converter getNumberConverter(Class target) {
+        if (target == Integer.class) {
+            return value -> (int) toLong((Number) value, Integer.MIN_VALUE, Integer.MAX_VALUE, target);
+        } else if (target == Long.class) {
+            return value -> toLong((Number) value, Long.MIN_VALUE, Long.MAX_VALUE, target);
+        } else if (target == Short.class) {
+            return value -> (short) toLong((Number) value, Short.MIN_VALUE, Short.MAX_VALUE, target);
+        } else if (target == Byte.class) {
+            return value -> (byte) toLong((Number) value, Byte.MIN_VALUE, Byte.MAX_VALUE, target);
+        } else if (target == Double.class) {
+            return value -> ((Number) value).doubleValue();
+        } else if (target == Float.class) {
+            return value -> ((Number) value).floatValue();
+        } else if (target == BigDecimal.class) {
+            return value -> toBigDecimal((Number) value);
+        } else {
+            return value -> value instanceof BigDecimal ? ((BigDecimal) value).toBigInteger()
+                    : isIntegral((Number) value) ? BigInteger.valueOf(((Number) value).longValue())
+                    : toBigDecimal((Number) value).toBigInteger();
+        }
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static long toLong(Number value, long min, long max, Class target) {
+        long result;
+        if (isIntegral(value)) {
+            result = value.longValue();
+        } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+            BigInteger integer = value instanceof BigInteger ? (BigInteger) value : ((BigDecimal) value).toBigInteger();
+            if (integer.bitLength() > 63) {
+                throw outOfRange(value, target);
+            }
+            result = integer.longValue();
+        } else {
+            double d = value.doubleValue();
+            if (Double.isNaN(d) || d < Long.MIN_VALUE || d >= 0x1p63) {
+                throw outOfRange(value, target);
+            }
+            result = (long) d;
+        }
+        if (result < min || result > max) {
+            throw outOfRange(value, target);
+        }
+        return result;
+    }
+
+    private static DataException outOfRange(Object value, Class target) {
+        return new DataException("convert:" + value + " out of range of " + target.getSimpleName());
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (isIntegral(value)) {
+            return BigDecimal.valueOf(value.longValue());
+        }
+        return BigDecimal.valueOf(value.doubleValue());
+    }
+
+    private static Converter getStringConverter(Class target) {
+        if (target == Integer.class) {
+            return value -> Integer.valueOf(((String) value).trim());
+        } else if (target == Long.class) {
+            return value -> Long.valueOf(((String) value).trim());
+        } else if (target == Short.class) {
+            return value -> Short.valueOf(((String) value).trim());
+        } else if (target == Byte.class) {
+            return value -> Byte.valueOf(((String) value).trim());
+        } else if (target == Double.class) {
+            return value -> Double.valueOf(((String) value).trim());
+        } else if (target == Float.class) {
+            return value -> Float.valueOf(((String) value).trim());
+        } else if (target == BigDecimal.class) {
+            return value -> new BigDecimal(((String) value).trim());
+        } else if (target == BigInteger.class) {
+            return value -> new BigInteger(((String) value).trim());
+        } else if (target == Boolean.class) {
+            return value -> {
+                String s = ((String) value).trim();
+                return "1".equals(s) || Boolean.parseBoolean(s);
+            };
+        } else if (target == Character.class) {
+            return value -> ((String) value).isEmpty() ? null : ((String) value).charAt(0);
+        } else if (target == LocalDate.class) {
+            return value -> LocalDate.parse(((String) value).trim());
+        } else if (target == LocalTime.class) {
+            return value -> LocalTime.parse(((String) value).trim());
+        } else if (target == LocalDateTime.class) {
+            return value -> LocalDateTime.parse(((String) value).trim().replace(' ', 'T'));
+        }
+        return null;
+    }
+
+    private static boolean isTemporal(Class type) {
+        return Date.class.isAssignableFrom(type) || type == LocalDateTime.class || type == LocalDate.class
+                || type == LocalTime.class || type == Instant.class || type == OffsetDateTime.class
+                || type == ZonedDateTime.class;
+    }
+
+    /**
+     * 经过LocalDateTime(系统时区)转换
+     */
+    private static Converter getTemporalConverter(Class source, Class target) {
+        Converter from;
+        if (source == Timestamp.class) {
+            from = value -> ((Timestamp) value).toLocalDateTime();
+        } else if (source == java.sql.Date.class) {
+            from = value -> ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (source == Time.class) {
+            from = value -> ((Time) value).toLocalTime().atDate(LocalDate.of(1970, 1, 1));
+        } else if (Date.class.isAssignableFrom(source)) {
+            from = value -> LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), ZoneId.systemDefault());
+        } else if (source == LocalDateTime.class) {
+            from = IDENTITY;
+        } else if (source == LocalDate.class) {
+            from = value -> ((LocalDate) value).atStartOfDay();
+        } else if (source == LocalTime.class) {
+            from = value -> ((LocalTime) value).atDate(LocalDate.of(1970, 1, 1));
+        } else if (source == Instant.class) {
+            from = value -> LocalDateTime.ofInstant((Instant) value, ZoneId.systemDefault());
+        } else if (source == OffsetDateTime.class) {
+            from = value -> ((OffsetDateTime) value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else {
+            from = value -> ((ZonedDateTime) value).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        Converter to;
+        if (target == LocalDateTime.class) {
+            to = IDENTITY;
+        } else if (target == LocalDate.class) {
+            to = value -> ((LocalDateTime) value).toLocalDate();
+        } else if (target == LocalTime.class) {
+            to = value -> ((LocalDateTime) value).toLocalTime();
+        } else if (target == Instant.class) {
+            to = value -> ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (target == OffsetDateTime.class) {
+            to = value -> ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        } else if (target == ZonedDateTime.class) {
+            to = value -> ((LocalDateTime) value).atZone(ZoneId.systemDefault());
+        } else if (target == java.sql.Date.class) {
+            to = value -> java.sql.Date.valueOf(((LocalDateTime) value).toLocalDate());
+        } else if (target == Time.class) {
+            to = value -> Time.valueOf(((LocalDateTime) value).toLocalTime());
+        } else if (target == Timestamp.class || target == Date.class) {
+            to = value -> Timestamp.valueOf((LocalDateTime) value);
+        } else {
+            return null;
+        }
+        return value -> to.convert(from.convert(value));
+    }
+}
@@ -0,0 +1,147 @@
+package com.gsralex.gdata.bean.placeholder;
+
+import com.gsralex.gdata.bean.cache.BoundedCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 解析后的命名参数sql，不可变
+ * fragments比names多一个，jdbc sql = fragments[0] ? fragments[1] ? ... fragments[n]
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class NamedSql {
+
+    private final String sql;
+    private final String[] fragments;
+    private final String[] names;
+    private final BoundedCache<String, String> expandedSqlCache = new BoundedCache<>(64);
+
+    private NamedSql(String[] fragments, String[] names) {
+        this.fragments = fragments;
+        this.names = names;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            sb.append(fragments[i]).append("?");
+        }
+        sb.append(fragments[names.length]);
+        this.sql = sb.toString();
+    }
+
+    /**
+     * 单遍扫描，跳过字符串、带引号的标识符、注释以及postgresql的::类型转换
+     */
+    public static NamedSql parse(String pSql) {
+        List<String> fragments = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int length = pSql.length();
+        int start = 0;
+        int i = 0;
+        while (i < length) {
+            char c = pSql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(pSql, i, c);
+            } else if (c == '-' && i + 1 < length && pSql.charAt(i + 1) == '-') {
+                int end = pSql.indexOf('\n', i + 2);
+                i = end == -1 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && pSql.charAt(i + 1) == '*') {
+                int end = pSql.indexOf("*/", i + 2);
+                i = end == -1 ? length : end + 2;
+            } else if (c == ':') {
+                if (i + 1 < length && pSql.charAt(i + 1) == ':') {
+                    //::type
+                    i += 2;
+                    continue;
+                }
+                int end = i + 1;
+                while (end < length && isNameChar(pSql.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    fragments.add(pSql.substring(start, i));
+                    names.add(pSql.substring(i + 1, end));
+                    start = end;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        fragments.add(pSql.substring(start));
+        return new NamedSql(fragments.toArray(new String[fragments.size()]), names.toArray(new String[names.size()]));
+    }
+
+    private static int skipQuoted(String pSql, int i, char quote) {
+        int length = pSql.length();
+        i++;
+        while (i < length) {
+            char c = pSql.charAt(i);
+            if (c == '\\' && quote == '\'') {
+                //mysql escape
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (i + 1 < length && pSql.charAt(i + 1) == quote) {
+                    //'' escape
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    private static boolean isNameChar(char c) {
+        return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 第i个参数展开成sizes[i]个占位符
+     */
+    public String getSql(int[] sizes) {
+        String key = Arrays.toString(sizes);
+        String expanded = expandedSqlCache.get(key);
+        if (expanded == null) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                sb.append(fragments[i]);
+                for (int j = 0; j < sizes[i]; j++) {
+                    sb.append(j == 0 ? "?" : ",?");
+                }
+            }
+            sb.append(fragments[names.length]);
+            expanded = sb.toString();
+            expandedSqlCache.put(key, expanded);
+        }
+        return expanded;
+    }
+
+    public int getParameterCount() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public List<String> getNames() {
+        List<String> list = new ArrayList<>(names.length);
+        Collections.addAll(list, names);
+        return Collections.unmodifiableList(list);
+    }
+
+    public String getFragment(int index) {
+        return fragments[index];
+    }
+}
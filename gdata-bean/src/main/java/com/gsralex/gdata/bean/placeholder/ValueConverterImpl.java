@@ -1,15 +1,15 @@
 package com.gsralex.gdata.bean.placeholder;
 
+import com.gsralex.gdata.bean.cache.BoundedCache;
 import com.gsralex.gdata.bean.exception.DataException;
 import com.gsralex.gdata.bean.exception.ExceptionMessage;
 import com.gsralex.gdata.bean.mapper.Mapper;
 import com.gsralex.gdata.bean.mapper.FieldColumn;
-import com.gsralex.gdata.bean.mapper.FieldValue;
 import com.gsralex.gdata.bean.mapper.MapperHolder;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * @author gsralex
@@ -18,35 +18,26 @@ import java.util.regex.Pattern;
 public class ValueConverterImpl implements ValueConverter {
 
 
-    private static final Pattern valuePattern = Pattern.compile("\\:(?<value>(\\w+))", Pattern.CASE_INSENSITIVE);
+    private static final int CACHE_SIZE = 1024;
+
+    private BoundedCache<String, NamedSql> cache = new BoundedCache<>(CACHE_SIZE);
 
     @Override
     public SqlObject convertBeanSource(String pSql, BeanSource beanSource) {
         SqlObject sqlObject = new SqlObject();
         Object object = beanSource.getValue();
         if (object != null) {
-            List<Object> objectsList = new ArrayList<>();
-            String sql = pSql;
-            Class type = object.getClass();
-            FieldValue fieldValue = new FieldValue(object);
-            Mapper mapper = MapperHolder.getMapperCache(type);
-            Matcher matcher = valuePattern.matcher(sql);
-            while (matcher.find()) {
-                String key = matcher.group("value");
-                FieldColumn column = mapper.getMapper().get(key);
+            NamedSql namedSql = getNamedSql(pSql);
+            Mapper mapper = MapperHolder.getMapperCache(object.getClass());
+            Object[] objects = new Object[namedSql.getParameterCount()];
+            for (int i = 0; i < objects.length; i++) {
+                FieldColumn column = mapper.getMapper().get(namedSql.getName(i));
                 if (column == null) {
                     throw new DataException(ExceptionMessage.PLH_NOTPROPBEANSOURCE);
                 }
-                sql = matcher.replaceFirst("?");
-                Class fieldType = column.getType();
-                String fieldName = key;
-                objectsList.add(fieldValue.getValue(fieldType, fieldName));
-                matcher = valuePattern.matcher(sql);
+                objects[i] = column.getAccessor().getValue(object);
             }
-            sqlObject.setSql(sql);
-            Object[] objects = new Object[objectsList.size()];
-            objectsList.toArray(objects);
-            sqlObject.setObjects(objects);
+            setSqlObject(sqlObject, namedSql, objects);
         }
         return sqlObject;
     }
@@ -55,36 +46,126 @@ public class ValueConverterImpl implements ValueConverter {
     public SqlObject convertMap(String pSql, Map<String, Object> paramMap) {
         SqlObject sqlObject = new SqlObject();
         if (paramMap != null) {
-            //map key lowercase
-            Map<String, Object> newParamMap = mapKeyToLowerCase(paramMap);
-            List<Object> objectsList = new ArrayList<>();
-            String sql = pSql;
-            Matcher matcher = valuePattern.matcher(sql);
-            while (matcher.find()) {
-                String key = matcher.group("value");
-                key = key.toLowerCase();
-                Object value = newParamMap.get(key);
+            NamedSql namedSql = getNamedSql(pSql);
+            Object[] objects = new Object[namedSql.getParameterCount()];
+            for (int i = 0; i < objects.length; i++) {
+                Object value = getIgnoreCase(paramMap, namedSql.getName(i));
                 if (value == null) {
                     throw new DataException(ExceptionMessage.PLH_NOTKEYMAP);
                 }
-                sql = matcher.replaceFirst("?");
-                objectsList.add(value);
-                matcher = valuePattern.matcher(sql);
+                objects[i] = value;
             }
-            sqlObject.setSql(sql);
-            Object[] objects = new Object[objectsList.size()];
-            objectsList.toArray(objects);
-            sqlObject.setObjects(objects);
+            setSqlObject(sqlObject, namedSql, objects);
         }
         return sqlObject;
     }
 
-    private Map<String, Object> mapKeyToLowerCase(Map<String, Object> paramMap) {
-        Map<String, Object> newParamMap = new HashMap<>();
+    /**
+     * Collection和数组(byte[]除外)参数展开成 ?,?,...
+     * 个数向上补齐到2的幂，补齐部分重复最后一个值，使不同的sql文本数量保持在log级别
+     * 空集合抛出异常：展开为null时 not in (null) 不匹配任何行，调用方需自己处理空集合
+     */
+    private void setSqlObject(SqlObject sqlObject, NamedSql namedSql, Object[] objects) {
+        int[] sizes = null;
+        int total = objects.length;
+        for (int i = 0; i < objects.length; i++) {
+            if (isExpandable(objects[i])) {
+                if (sizes == null) {
+                    sizes = new int[objects.length];
+                    for (int j = 0; j < sizes.length; j++) {
+                        sizes[j] = 1;
+                    }
+                }
+                int size = getSize(objects[i]);
+                if (size == 0) {
+                    throw new DataException(ExceptionMessage.PLH_EMPTYLIST);
+                }
+                sizes[i] = getBucketSize(size);
+                total += sizes[i] - 1;
+            }
+        }
+        if (sizes == null) {
+            sqlObject.setSql(namedSql.getSql());
+            sqlObject.setObjects(objects);
+            return;
+        }
+        Object[] expanded = new Object[total];
+        int index = 0;
+        for (int i = 0; i < objects.length; i++) {
+            if (!isExpandable(objects[i])) {
+                expanded[index++] = objects[i];
+                continue;
+            }
+            Object last = null;
+            int count = 0;
+            if (objects[i] instanceof Collection) {
+                for (Object item : (Collection) objects[i]) {
+                    expanded[index++] = item;
+                    last = item;
+                    count++;
+                }
+            } else {
+                for (int length = Array.getLength(objects[i]); count < length; count++) {
+                    last = Array.get(objects[i], count);
+                    expanded[index++] = last;
+                }
+            }
+            for (; count < sizes[i]; count++) {
+                expanded[index++] = last;
+            }
+        }
+        sqlObject.setSql(namedSql.getSql(sizes));
+        sqlObject.setObjects(expanded);
+    }
+
+    private static boolean isExpandable(Object value) {
+        if (value instanceof Collection) {
+            return true;
+        }
+        return value != null && value.getClass().isArray() && !(value instanceof byte[]);
+    }
+
+    private static int getSize(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection) value).size();
+        }
+        return Array.getLength(value);
+    }
+
+    static int getBucketSize(int size) {
+        if (size <= 1) {
+            return 1;
+        }
+        int bucket = Integer.highestOneBit(size);
+        return bucket == size ? size : bucket << 1;
+    }
+
+    /**
+     * 每个不同的pSql只解析一次
+     */
+    public NamedSql getNamedSql(String pSql) {
+        NamedSql namedSql = cache.get(pSql);
+        if (namedSql == null) {
+            namedSql = NamedSql.parse(pSql);
+            cache.put(pSql, namedSql);
+        }
+        return namedSql;
+    }
+
+    /**
+     * map的key不区分大小写，先按原样查找，找不到时再逐个比较
+     */
+    private Object getIgnoreCase(Map<String, Object> paramMap, String name) {
+        Object value = paramMap.get(name);
+        if (value != null) {
+            return value;
+        }
         for (Map.Entry<String, Object> entry : paramMap.entrySet()) {
-            newParamMap.put(entry.getKey().toLowerCase(), entry.getValue());
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
         }
-        return newParamMap;
+        return null;
     }
 
     private static class ValueConverterImplHolder {
@@ -0,0 +1,103 @@
+package com.gsralex.gdata.bean.result;
+
+import java.util.Date;
+
+/**
+ * 行视图的公共部分：按label找到列序号后按序号取值，类型转换与DataRowSetImpl相同
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+abstract class AbstractDataRowSet implements DataRowSet {
+
+    /**
+     * 从1开始的列序号，不存在时返回-1
+     */
+    abstract int findColumn(String label);
+
+    @Override
+    public Object getObject(String label) {
+        int column = findColumn(label);
+        return column > 0 ? getObject(column) : null;
+    }
+
+    @Override
+    public Integer getInt(int column) {
+        return DataRowSetImpl.toInt(getObject(column));
+    }
+
+    @Override
+    public Integer getInt(String label) {
+        return DataRowSetImpl.toInt(getObject(label));
+    }
+
+    @Override
+    public Double getDouble(int column) {
+        return DataRowSetImpl.toDouble(getObject(column));
+    }
+
+    @Override
+    public Double getDouble(String label) {
+        return DataRowSetImpl.toDouble(getObject(label));
+    }
+
+    @Override
+    public Long getLong(int column) {
+        return DataRowSetImpl.toLong(getObject(column));
+    }
+
+    @Override
+    public Long getLong(String label) {
+        return DataRowSetImpl.toLong(getObject(label));
+    }
+
+    @Override
+    public String getString(int column) {
+        return DataRowSetImpl.toString(getObject(column));
+    }
+
+    @Override
+    public String getString(String label) {
+        return DataRowSetImpl.toString(getObject(label));
+    }
+
+    @Override
+    public Short getShort(int column) {
+        return DataRowSetImpl.toShort(getObject(column));
+    }
+
+    @Override
+    public Short getShort(String label) {
+        return DataRowSetImpl.toShort(getObject(label));
+    }
+
+    @Override
+    public Boolean getBoolean(int column) {
+        return DataRowSetImpl.toBoolean(getObject(column));
+    }
+
+    @Override
+    public Boolean getBoolean(String label) {
+        return DataRowSetImpl.toBoolean(getObject(label));
+    }
+
+    @Override
+    public Date getDate(int column) {
+        return DataRowSetImpl.toDate(getObject(column));
+    }
+
+    @Override
+    public Date getDate(String label) {
+        return DataRowSetImpl.toDate(getObject(label));
+    }
+
+    @Override
+    public Byte getByte(int column) {
+        return DataRowSetImpl.toByte(getObject(column));
+    }
+
+    @Override
+    public Byte getByte(String label) {
+        return DataRowSetImpl.toByte(getObject(label));
+    }
+}
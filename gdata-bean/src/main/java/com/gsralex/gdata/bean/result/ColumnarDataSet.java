@@ -0,0 +1,385 @@
+package com.gsralex.gdata.bean.result;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.mapper.EntityCopier;
+import com.gsralex.gdata.bean.sqlstatement.JdbcHelper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 按列存储的DataSet，Long/Integer/Double列存为long[]/int[]/double[]并用位图记录null，其他列存为Object[]
+ * 所有行共用一份label到列的索引，行是按下标访问列的视图，getMap每次调用时生成新的Map
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class ColumnarDataSet implements DataSet {
+
+    private static final int OBJECT = 0;
+    private static final int LONG = 1;
+    private static final int INT = 2;
+    private static final int DOUBLE = 3;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String[] labels;
+    private final Map<String, Integer> index;
+    private final int[] kinds;
+    private final Object[] columns;
+    private final long[][] nulls;
+    private int rowCount;
+    private List<DataRowSet> rows;
+
+    private ColumnarDataSet(String[] labels, int[] kinds, int capacity) {
+        this.labels = labels;
+        this.kinds = kinds;
+        this.index = new HashMap<>(labels.length * 2);
+        for (int i = labels.length - 1; i >= 0; i--) {
+            //duplicated labels resolve to the first column, like ResultSet.findColumn
+            index.put(labels[i], i);
+        }
+        this.columns = new Object[labels.length];
+        this.nulls = new long[labels.length][];
+        for (int i = 0; i < labels.length; i++) {
+            columns[i] = newColumn(kinds[i], capacity);
+            if (kinds[i] != OBJECT) {
+                nulls[i] = new long[(capacity + 63) >>> 6];
+            }
+        }
+    }
+
+    private ColumnarDataSet(ColumnarDataSet source) {
+        this.labels = source.labels;
+        this.index = source.index;
+        this.kinds = source.kinds;
+        this.nulls = source.nulls;
+        this.rowCount = source.rowCount;
+        this.columns = source.columns.clone();
+        for (int i = 0; i < columns.length; i++) {
+            if (kinds[i] == OBJECT) {
+                Object[] values = Arrays.copyOf((Object[]) columns[i], rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    values[row] = EntityCopier.copyValue(values[row]);
+                }
+                columns[i] = values;
+            }
+        }
+    }
+
+    /**
+     * 读取ResultSet剩余的全部行，不关闭ResultSet
+     */
+    public static ColumnarDataSet read(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        String[] labels = JdbcHelper.getColumnLabels(metaData);
+        int[] kinds = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            kinds[i] = getKind(metaData, i + 1);
+        }
+        ColumnarDataSet dataSet = new ColumnarDataSet(labels, kinds, INITIAL_CAPACITY);
+        while (rs.next()) {
+            dataSet.readRow(rs);
+        }
+        return dataSet;
+    }
+
+    /**
+     * 只有驱动声明getObject返回Long/Integer/Double的列按基本类型存储，保证getObject的结果与之前一致
+     */
+    private static int getKind(ResultSetMetaData metaData, int column) {
+        String className;
+        try {
+            className = metaData.getColumnClassName(column);
+        } catch (SQLException | RuntimeException e) {
+            return OBJECT;
+        }
+        if (Long.class.getName().equals(className)) {
+            return LONG;
+        } else if (Integer.class.getName().equals(className)) {
+            return INT;
+        } else if (Double.class.getName().equals(className)) {
+            return DOUBLE;
+        }
+        return OBJECT;
+    }
+
+    private static Object newColumn(int kind, int capacity) {
+        switch (kind) {
+            case LONG:
+                return new long[capacity];
+            case INT:
+                return new int[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            default:
+                return new Object[capacity];
+        }
+    }
+
+    private void readRow(ResultSet rs) throws SQLException {
+        int row = rowCount;
+        ensureCapacity(row + 1);
+        for (int i = 0; i < kinds.length; i++) {
+            int column = i + 1;
+            switch (kinds[i]) {
+                case LONG:
+                    ((long[]) columns[i])[row] = rs.getLong(column);
+                    break;
+                case INT:
+                    ((int[]) columns[i])[row] = rs.getInt(column);
+                    break;
+                case DOUBLE:
+                    ((double[]) columns[i])[row] = rs.getDouble(column);
+                    break;
+                default:
+                    ((Object[]) columns[i])[row] = rs.getObject(column);
+                    continue;
+            }
+            if (rs.wasNull()) {
+                nulls[i][row >>> 6] |= 1L << row;
+            }
+        }
+        rowCount++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        int length = labels.length == 0 ? capacity : getLength(columns[0]);
+        if (capacity <= length) {
+            return;
+        }
+        int newLength = Math.max(capacity, length << 1);
+        for (int i = 0; i < columns.length; i++) {
+            Object column = columns[i];
+            if (column instanceof long[]) {
+                columns[i] = Arrays.copyOf((long[]) column, newLength);
+            } else if (column instanceof int[]) {
+                columns[i] = Arrays.copyOf((int[]) column, newLength);
+            } else if (column instanceof double[]) {
+                columns[i] = Arrays.copyOf((double[]) column, newLength);
+            } else {
+                columns[i] = Arrays.copyOf((Object[]) column, newLength);
+            }
+            if (nulls[i] != null) {
+                nulls[i] = Arrays.copyOf(nulls[i], (newLength + 63) >>> 6);
+            }
+        }
+    }
+
+    private static int getLength(Object column) {
+        if (column instanceof long[]) {
+            return ((long[]) column).length;
+        } else if (column instanceof int[]) {
+            return ((int[]) column).length;
+        } else if (column instanceof double[]) {
+            return ((double[]) column).length;
+        }
+        return ((Object[]) column).length;
+    }
+
+    /**
+     * 拷贝Object列中的可变值(Date、byte[])，基本类型列共用
+     */
+    public ColumnarDataSet copy() {
+        return new ColumnarDataSet(this);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return labels.length;
+    }
+
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * 从1开始的列序号，不存在时返回-1
+     */
+    public int getColumnIndex(String label) {
+        Integer i = findIndex(label);
+        return i != null ? i + 1 : -1;
+    }
+
+    @Override
+    public DataRowSet get(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("row:" + row);
+        }
+        return new Row(row);
+    }
+
+    @Override
+    public List<DataRowSet> getRows() {
+        if (rows == null) {
+            rows = new RowList();
+        }
+        return rows;
+    }
+
+    private Integer findIndex(String label) {
+        Integer i = index.get(label);
+        if (i == null && label != null) {
+            i = index.get(label.toLowerCase());
+        }
+        return i;
+    }
+
+    private boolean isNullAt(int row, int i) {
+        if (kinds[i] == OBJECT) {
+            return ((Object[]) columns[i])[row] == null;
+        }
+        return (nulls[i][row >>> 6] & (1L << row)) != 0;
+    }
+
+    private Object getValue(int row, int i) {
+        if (isNullAt(row, i)) {
+            return null;
+        }
+        switch (kinds[i]) {
+            case LONG:
+                return ((long[]) columns[i])[row];
+            case INT:
+                return ((int[]) columns[i])[row];
+            case DOUBLE:
+                return ((double[]) columns[i])[row];
+            default:
+                return ((Object[]) columns[i])[row];
+        }
+    }
+
+    private class RowList extends AbstractList<DataRowSet> implements RandomAccess {
+
+        @Override
+        public DataRowSet get(int row) {
+            return ColumnarDataSet.this.get(row);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+
+    private class Row extends AbstractDataRowSet {
+
+        private final int row;
+
+        Row(int row) {
+            this.row = row;
+        }
+
+        private int column(int column) {
+            if (column < 1 || column > labels.length) {
+                throw new DataException("column:" + column);
+            }
+            return column - 1;
+        }
+
+        @Override
+        public Map<String, Object> getMap() {
+            Map<String, Object> map = new HashMap<>(labels.length * 2);
+            for (int i = 0; i < labels.length; i++) {
+                map.putIfAbsent(labels[i], getValue(row, i));
+            }
+            return map;
+        }
+
+        @Override
+        public Object getObject(int column) {
+            return getValue(row, column(column));
+        }
+
+        @Override
+        int findColumn(String label) {
+            return getColumnIndex(label);
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            return isNullAt(row, column(column));
+        }
+
+        @Override
+        public boolean isNull(String label) {
+            Integer i = findIndex(label);
+            return i == null || isNullAt(row, i);
+        }
+
+        @Override
+        public int getIntValue(int column) {
+            return getIntAt(column(column));
+        }
+
+        @Override
+        public int getIntValue(String label) {
+            Integer i = findIndex(label);
+            return i != null ? getIntAt(i) : 0;
+        }
+
+        private int getIntAt(int i) {
+            if (kinds[i] == INT) {
+                return isNullAt(row, i) ? 0 : ((int[]) columns[i])[row];
+            }
+            Integer value = DataRowSetImpl.toInt(getValue(row, i));
+            return value != null ? value : 0;
+        }
+
+        @Override
+        public long getLongValue(int column) {
+            return getLongAt(column(column));
+        }
+
+        @Override
+        public long getLongValue(String label) {
+            Integer i = findIndex(label);
+            return i != null ? getLongAt(i) : 0L;
+        }
+
+        private long getLongAt(int i) {
+            if (kinds[i] == LONG || kinds[i] == INT) {
+                if (isNullAt(row, i)) {
+                    return 0L;
+                }
+                return kinds[i] == LONG ? ((long[]) columns[i])[row] : ((int[]) columns[i])[row];
+            }
+            Long value = DataRowSetImpl.toLong(getValue(row, i));
+            return value != null ? value : 0L;
+        }
+
+        @Override
+        public double getDoubleValue(int column) {
+            return getDoubleAt(column(column));
+        }
+
+        @Override
+        public double getDoubleValue(String label) {
+            Integer i = findIndex(label);
+            return i != null ? getDoubleAt(i) : 0d;
+        }
+
+        private double getDoubleAt(int i) {
+            if (kinds[i] != OBJECT) {
+                if (isNullAt(row, i)) {
+                    return 0d;
+                }
+                if (kinds[i] == DOUBLE) {
+                    return ((double[]) columns[i])[row];
+                }
+                return kinds[i] == LONG ? ((long[]) columns[i])[row] : ((int[]) columns[i])[row];
+            }
+            Double value = DataRowSetImpl.toDouble(getValue(row, i));
+            return value != null ? value : 0d;
+        }
+    }
+}
@@ -49,4 +49,45 @@ public interface DataRowSet {
     Byte getByte(int column) throws DataException;
 
     Byte getByte(String label) throws DataException;
+
+    /**
+     * 以下方法在值为null时返回0/false，列式实现不装箱
+     */
+    default boolean isNull(int column) throws DataException {
+        return getObject(column) == null;
+    }
+
+    default boolean isNull(String label) throws DataException {
+        return getObject(label) == null;
+    }
+
+    default int getIntValue(int column) throws DataException {
+        Integer value = getInt(column);
+        return value != null ? value : 0;
+    }
+
+    default int getIntValue(String label) throws DataException {
+        Integer value = getInt(label);
+        return value != null ? value : 0;
+    }
+
+    default long getLongValue(int column) throws DataException {
+        Long value = getLong(column);
+        return value != null ? value : 0L;
+    }
+
+    default long getLongValue(String label) throws DataException {
+        Long value = getLong(label);
+        return value != null ? value : 0L;
+    }
+
+    default double getDoubleValue(int column) throws DataException {
+        Double value = getDouble(column);
+        return value != null ? value : 0d;
+    }
+
+    default double getDoubleValue(String label) throws DataException {
+        Double value = getDouble(label);
+        return value != null ? value : 0d;
+    }
 }
@@ -1,6 +1,8 @@
 package com.gsralex.gdata.bean.result;
 
 import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.mapper.Converter;
+import com.gsralex.gdata.bean.mapper.TypeConverter;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -19,6 +21,10 @@ public class DataRowSetImpl implements DataRowSet {
         this.map = map;
     }
 
+    String[] getLabels() {
+        return labels;
+    }
+
     @Override
     public Map<String, Object> getMap() {
         return map;
@@ -52,14 +58,8 @@ public class DataRowSetImpl implements DataRowSet {
         return toInt(getObject(label));
     }
 
-    private Integer toInt(Object obj) {
-        if (obj instanceof Integer) {
-            return (Integer) obj; //no use
-        }
-        if (obj != null) {
-            return Integer.parseInt(obj.toString());
-        }
-        return null;
+    static Integer toInt(Object obj) {
+        return TypeConverter.convert(obj, Integer.class);
     }
 
     @Override
@@ -72,14 +72,8 @@ public class DataRowSetImpl implements DataRowSet {
         return toDouble(getObject(label));
     }
 
-    private Double toDouble(Object obj) {
-        if (obj instanceof Double) {
-            return (Double) obj; //no use
-        }
-        if (obj != null) {
-            return Double.parseDouble(obj.toString());
-        }
-        return null;
+    static Double toDouble(Object obj) {
+        return TypeConverter.convert(obj, Double.class);
     }
 
     @Override
@@ -92,14 +86,8 @@ public class DataRowSetImpl implements DataRowSet {
         return toLong(getObject(label));
     }
 
-    private Long toLong(Object obj) {
-        if (obj instanceof Long) {
-            return (Long) obj; //no use
-        }
-        if (obj != null) {
-            return Long.parseLong(obj.toString());
-        }
-        return null;
+    static Long toLong(Object obj) {
+        return TypeConverter.convert(obj, Long.class);
     }
 
     @Override
@@ -112,14 +100,8 @@ public class DataRowSetImpl implements DataRowSet {
         return toString(getObject(label));
     }
 
-    private String toString(Object obj) {
-        if (obj instanceof String) {
-            return (String) obj;
-        }
-        if (obj != null) {
-            return obj.toString();
-        }
-        return null;
+    static String toString(Object obj) {
+        return TypeConverter.convert(obj, String.class);
     }
 
     @Override
@@ -132,14 +114,8 @@ public class DataRowSetImpl implements DataRowSet {
         return toShort(getObject(label));
     }
 
-    private Short toShort(Object obj) {
-        if (obj instanceof Short) {
-            return (Short) obj; //no use
-        }
-        if (obj != null) {
-            return Short.parseShort(obj.toString());
-        }
-        return null;
+    static Short toShort(Object obj) {
+        return TypeConverter.convert(obj, Short.class);
     }
 
     @Override
@@ -154,14 +130,8 @@ public class DataRowSetImpl implements DataRowSet {
     }
 
 
-    private Boolean toBoolean(Object obj) {
-        if (obj instanceof Boolean) {
-            return (Boolean) obj;
-        }
-        if (obj != null) {
-            return Boolean.parseBoolean(obj.toString());
-        }
-        return null;
+    static Boolean toBoolean(Object obj) {
+        return TypeConverter.convert(obj, Boolean.class);
     }
 
     @Override
@@ -174,30 +144,26 @@ public class DataRowSetImpl implements DataRowSet {
         return toDate(getObject(label));
     }
 
-    private Date toDate(Object obj) {
-        if (obj instanceof Date) {
-            return (Date) obj;
+    static Date toDate(Object obj) {
+        if (obj == null) {
+            return null;
         }
-        return null;
+        //values that are not dates read as null, like before
+        Converter<Object, Object> converter = TypeConverter.getConverter(obj.getClass(), Date.class);
+        return converter != null ? (Date) converter.convert(obj) : null;
     }
 
     @Override
     public Byte getByte(int column) throws DataException {
-        return toByte(getByte(column));
+        return toByte(getObject(column));
     }
 
     @Override
     public Byte getByte(String label) throws DataException {
-        return toByte(getByte(label));
+        return toByte(getObject(label));
     }
 
-    private Byte toByte(Object obj) {
-        if (obj instanceof Byte) {
-            return (Byte) obj; //no use
-        }
-        if (obj != null) {
-            return Byte.parseByte(obj.toString());
-        }
-        return null;
+    static Byte toByte(Object obj) {
+        return TypeConverter.convert(obj, Byte.class);
     }
 }
@@ -1,6 +1,6 @@
 package com.gsralex.gdata.bean.result;
 
-import com.gsralex.gdata.bean.sqlstatement.JdbcHelper;
+import com.gsralex.gdata.bean.mapper.EntityCopier;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -20,17 +20,7 @@ public class DataSetUtils {
             return new DataSetImpl();
         }
         try {
-            String[] labels = JdbcHelper.getColumnLabels(rs.getMetaData());
-            List<DataRowSet> dataRowSets = new ArrayList<>();
-            while (rs.next()) {
-                Map<String, Object> map = new HashMap<>();
-                for (String label : labels) {
-                    map.put(label, rs.getObject(label));
-                }
-                DataRowSet dataRowSet = new DataRowSetImpl(labels, map);
-                dataRowSets.add(dataRowSet);
-            }
-            return new DataSetImpl(dataRowSets);
+            return ColumnarDataSet.read(rs);
         } finally {
             if (autoCloseResultSet) {
                 try {
@@ -41,4 +31,27 @@ public class DataSetUtils {
             }
         }
     }
+
+    /**
+     * 拷贝每一行，修改拷贝不影响原来的DataSet
+     */
+    public static DataSet copy(DataSet dataSet) {
+        if (dataSet == null) {
+            return null;
+        }
+        if (dataSet instanceof ColumnarDataSet) {
+            return ((ColumnarDataSet) dataSet).copy();
+        }
+        List<DataRowSet> dataRowSets = new ArrayList<>(dataSet.getRows().size());
+        for (DataRowSet row : dataSet.getRows()) {
+            Map<String, Object> map = new HashMap<>();
+            for (Map.Entry<String, Object> entry : row.getMap().entrySet()) {
+                map.put(entry.getKey(), EntityCopier.copyValue(entry.getValue()));
+            }
+            String[] labels = row instanceof DataRowSetImpl ? ((DataRowSetImpl) row).getLabels()
+                    : map.keySet().toArray(new String[0]);
+            dataRowSets.add(new DataRowSetImpl(labels, map));
+        }
+        return new DataSetImpl(dataRowSets);
+    }
 }
@@ -0,0 +1,75 @@
+package com.gsralex.gdata.bean.result;
+
+import java.io.File;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SpillingDataSet的临时文件登记表，close时移除并删除
+ * 未close的DataSet被回收后，下次登记时删除其文件；进程退出时删除仍登记的文件
+ * 不使用File.deleteOnExit，它为每个文件保留一个路径直到进程退出
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+class SpillFiles {
+
+    private static final Map<FileReference, Boolean> files = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private static final AtomicBoolean hook = new AtomicBoolean();
+
+    static FileReference register(Object owner, File file) {
+        expunge();
+        if (hook.compareAndSet(false, true)) {
+            Thread thread = new Thread(SpillFiles::deleteAll, "gdata-spill-cleanup");
+            Runtime.getRuntime().addShutdownHook(thread);
+        }
+        FileReference reference = new FileReference(owner, file, queue);
+        files.put(reference, Boolean.TRUE);
+        return reference;
+    }
+
+    /**
+     * 仍登记的文件数
+     */
+    static int size() {
+        expunge();
+        return files.size();
+    }
+
+    private static void expunge() {
+        Object reference;
+        while ((reference = queue.poll()) != null) {
+            ((FileReference) reference).delete();
+        }
+    }
+
+    private static void deleteAll() {
+        for (FileReference reference : files.keySet()) {
+            reference.file.delete();
+        }
+    }
+
+    static class FileReference extends PhantomReference<Object> {
+
+        private final File file;
+
+        FileReference(Object owner, File file, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.file = file;
+        }
+
+        /**
+         * 删除失败(windows上文件仍被映射)时保留登记，进程退出时再删除
+         */
+        void delete() {
+            clear();
+            if (file.delete() || !file.exists()) {
+                files.remove(this);
+            }
+        }
+    }
+}
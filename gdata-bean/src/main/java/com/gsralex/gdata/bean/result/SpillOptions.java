@@ -0,0 +1,59 @@
+package com.gsralex.gdata.bean.result;
+
+import java.io.File;
+
+/**
+ * SpillingDataSet的参数
+ * 估算的堆内存超过maxHeapBytes后，其余行写入directory下的临时文件，按segmentSize分段映射读取
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SpillOptions {
+
+    private static final long DEFAULT_MAX_HEAP_BYTES = 64L * 1024 * 1024;
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private long maxHeapBytes = DEFAULT_MAX_HEAP_BYTES;
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private File directory;
+
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    /**
+     * 0表示所有行都写入文件
+     */
+    public void setMaxHeapBytes(long maxHeapBytes) {
+        if (maxHeapBytes < 0) {
+            throw new IllegalArgumentException("maxHeapBytes:" + maxHeapBytes);
+        }
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * 每个映射段的大小上限，超过该大小的单行单独成段
+     */
+    public void setSegmentSize(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize:" + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 临时文件目录，默认java.io.tmpdir
+     */
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+}
@@ -0,0 +1,540 @@
+package com.gsralex.gdata.bean.result;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.sqlstatement.JdbcHelper;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 可以超出堆内存的DataSet：估算的行大小累计到maxHeapBytes之前的行留在堆上，之后的行按紧凑的二进制格式写入临时文件
+ * 文件按段映射为MappedByteBuffer，内存中只保留每行的偏移量，取值时才从映射的缓冲区解码
+ * 用完需要close删除临时文件，未close时在DataSet被回收后或进程退出时删除
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SpillingDataSet implements DataSet, AutoCloseable {
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte STRING = 4;
+    private static final byte BYTES = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte TIMESTAMP = 7;
+    private static final byte SQL_DATE = 8;
+    private static final byte SQL_TIME = 9;
+    private static final byte DATE = 10;
+    private static final byte BIG_DECIMAL = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte SHORT = 13;
+    private static final byte BYTE = 14;
+    private static final byte FLOAT = 15;
+    private static final byte SERIALIZED = 16;
+
+    private final String[] labels;
+    private final Map<String, Integer> index;
+    private final SpillOptions options;
+
+    private final List<Object[]> heapRows = new ArrayList<>();
+    private long heapBytes;
+
+    private File file;
+    private SpillFiles.FileReference fileReference;
+    private DataOutputStream out;
+    private ByteArrayOutputStream rowBuffer;
+    private DataOutputStream rowOut;
+    private long fileLength;
+    private long[] offsets = new long[0];
+    private int spilledRows;
+    private long[] segmentStarts = new long[0];
+    private int segmentCount;
+    private long segmentLength;
+    private MappedByteBuffer[] segments;
+
+    private volatile boolean closed;
+    private List<DataRowSet> rows;
+
+    private SpillingDataSet(String[] labels, SpillOptions options) {
+        this.labels = labels;
+        this.options = options;
+        this.index = new HashMap<>(labels.length * 2);
+        for (int i = labels.length - 1; i >= 0; i--) {
+            index.put(labels[i], i);
+        }
+    }
+
+    /**
+     * 读取ResultSet剩余的全部行，不关闭ResultSet
+     */
+    public static SpillingDataSet read(ResultSet rs, SpillOptions options) throws SQLException {
+        SpillingDataSet dataSet = new SpillingDataSet(JdbcHelper.getColumnLabels(rs.getMetaData()), options);
+        boolean ok = false;
+        try {
+            int columnCount = dataSet.labels.length;
+            while (rs.next()) {
+                Object[] values = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                dataSet.add(values);
+            }
+            dataSet.finish();
+            ok = true;
+            return dataSet;
+        } catch (IOException e) {
+            throw new DataException("spill", e);
+        } finally {
+            if (!ok) {
+                dataSet.close();
+            }
+        }
+    }
+
+    private void add(Object[] values) throws IOException {
+        if (out == null) {
+            long size = estimate(values);
+            if (heapBytes + size <= options.getMaxHeapBytes()) {
+                heapRows.add(values);
+                heapBytes += size;
+                return;
+            }
+            openFile();
+        }
+        rowBuffer.reset();
+        for (Object value : values) {
+            writeValue(rowOut, value);
+        }
+        int length = rowBuffer.size();
+        if (segmentLength != 0 && segmentLength + length > options.getSegmentSize()) {
+            //rows never straddle two segments
+            addSegment(fileLength);
+        }
+        if (spilledRows == offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(1024, spilledRows << 1));
+        }
+        offsets[spilledRows++] = fileLength;
+        rowBuffer.writeTo(out);
+        fileLength += length;
+        segmentLength += length;
+    }
+
+    private void openFile() throws IOException {
+        file = File.createTempFile("gdata-spill-", ".dat", options.getDirectory());
+        //deleted after this DataSet is collected if close is never called
+        fileReference = SpillFiles.register(this, file);
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+        rowBuffer = new ByteArrayOutputStream(256);
+        rowOut = new DataOutputStream(rowBuffer);
+        addSegment(0);
+    }
+
+    private void addSegment(long start) {
+        if (segmentCount == segmentStarts.length) {
+            segmentStarts = Arrays.copyOf(segmentStarts, Math.max(4, segmentCount << 1));
+        }
+        segmentStarts[segmentCount++] = start;
+        segmentLength = 0;
+    }
+
+    private void finish() throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.close();
+        out = null;
+        rowBuffer = null;
+        rowOut = null;
+        segments = new MappedByteBuffer[segmentCount];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            for (int i = 0; i < segmentCount; i++) {
+                long start = segmentStarts[i];
+                long end = i + 1 < segmentCount ? segmentStarts[i + 1] : fileLength;
+                //the mapping stays valid after the channel is closed
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            }
+        }
+    }
+
+    /**
+     * 粗略估算一行在堆上占用的字节数
+     */
+    private static long estimate(Object[] values) {
+        long size = 16 + 8L * values.length + 16;
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            } else if (value instanceof String) {
+                size += 40 + 2L * ((String) value).length();
+            } else if (value instanceof byte[]) {
+                size += 16 + ((byte[]) value).length;
+            } else if (value instanceof Number || value instanceof Boolean) {
+                size += value instanceof BigDecimal || value instanceof BigInteger ? 64 : 24;
+            } else if (value instanceof Date) {
+                size += 32;
+            } else {
+                size += 64;
+            }
+        }
+        return size;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            writeBytes(out, STRING, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof byte[]) {
+            writeBytes(out, BYTES, (byte[]) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof BigDecimal) {
+            writeBytes(out, BIG_DECIMAL, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof BigInteger) {
+            writeBytes(out, BIG_INTEGER, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Serializable) {
+            //java.time and other driver types
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(value);
+            }
+            writeBytes(out, SERIALIZED, bytes.toByteArray());
+        } else {
+            writeBytes(out, STRING, value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte tag, byte[] bytes) throws IOException {
+        out.writeByte(tag);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 值(含类型标记)的长度
+     */
+    private static int valueLength(ByteBuffer buffer, int pos) {
+        switch (buffer.get(pos)) {
+            case NULL:
+                return 1;
+            case LONG:
+            case DOUBLE:
+            case SQL_DATE:
+            case SQL_TIME:
+            case DATE:
+                return 9;
+            case INT:
+            case FLOAT:
+                return 5;
+            case TIMESTAMP:
+                return 13;
+            case SHORT:
+                return 3;
+            case BOOLEAN:
+            case BYTE:
+                return 2;
+            default:
+                return 5 + buffer.getInt(pos + 1);
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer, int pos) {
+        byte tag = buffer.get(pos);
+        switch (tag) {
+            case NULL:
+                return null;
+            case LONG:
+                return buffer.getLong(pos + 1);
+            case INT:
+                return buffer.getInt(pos + 1);
+            case DOUBLE:
+                return buffer.getDouble(pos + 1);
+            case BOOLEAN:
+                return buffer.get(pos + 1) != 0;
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(buffer.getLong(pos + 1));
+                timestamp.setNanos(buffer.getInt(pos + 9));
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(buffer.getLong(pos + 1));
+            case SQL_TIME:
+                return new Time(buffer.getLong(pos + 1));
+            case DATE:
+                return new Date(buffer.getLong(pos + 1));
+            case SHORT:
+                return buffer.getShort(pos + 1);
+            case BYTE:
+                return buffer.get(pos + 1);
+            case FLOAT:
+                return buffer.getFloat(pos + 1);
+            default:
+                break;
+        }
+        byte[] bytes = new byte[buffer.getInt(pos + 1)];
+        ByteBuffer slice = buffer.duplicate();
+        ((Buffer) slice).position(pos + 5);
+        slice.get(bytes);
+        switch (tag) {
+            case STRING:
+                return new String(bytes, StandardCharsets.UTF_8);
+            case BYTES:
+                return bytes;
+            case BIG_DECIMAL:
+                return new BigDecimal(new String(bytes, StandardCharsets.UTF_8));
+            case BIG_INTEGER:
+                return new BigInteger(new String(bytes, StandardCharsets.UTF_8));
+            default:
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return ois.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new DataException("readValue", e);
+                }
+        }
+    }
+
+    public int getRowCount() {
+        return heapRows.size() + spilledRows;
+    }
+
+    public boolean isSpilled() {
+        return spilledRows != 0;
+    }
+
+    public int getSpilledRowCount() {
+        return spilledRows;
+    }
+
+    /**
+     * 临时文件的字节数
+     */
+    public long getSpilledBytes() {
+        return fileLength;
+    }
+
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * 从1开始的列序号，不存在时返回-1
+     */
+    public int getColumnIndex(String label) {
+        Integer i = index.get(label);
+        if (i == null && label != null) {
+            i = index.get(label.toLowerCase());
+        }
+        return i != null ? i + 1 : -1;
+    }
+
+    @Override
+    public DataRowSet get(int row) {
+        checkOpen();
+        if (row < 0 || row >= getRowCount()) {
+            throw new IndexOutOfBoundsException("row:" + row);
+        }
+        if (row < heapRows.size()) {
+            return new HeapRow(heapRows.get(row));
+        }
+        long offset = offsets[row - heapRows.size()];
+        int segment = Arrays.binarySearch(segmentStarts, 0, segmentCount, offset);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        return new SpilledRow(segments[segment], (int) (offset - segmentStarts[segment]));
+    }
+
+    @Override
+    public List<DataRowSet> getRows() {
+        if (rows == null) {
+            rows = new RowList();
+        }
+        return rows;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new DataException(ExceptionMessage.DS_CLOSED);
+        }
+    }
+
+    /**
+     * 删除临时文件，之后不能再读取
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments = null;
+        heapRows.clear();
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+            }
+            out = null;
+        }
+        if (fileReference != null) {
+            fileReference.delete();
+        }
+    }
+
+    private class RowList extends AbstractList<DataRowSet> implements RandomAccess {
+
+        @Override
+        public DataRowSet get(int row) {
+            return SpillingDataSet.this.get(row);
+        }
+
+        @Override
+        public int size() {
+            return getRowCount();
+        }
+    }
+
+    private abstract class Row extends AbstractDataRowSet {
+
+        abstract Object getValue(int i);
+
+        @Override
+        int findColumn(String label) {
+            return getColumnIndex(label);
+        }
+
+        @Override
+        public Map<String, Object> getMap() {
+            Map<String, Object> map = new HashMap<>(labels.length * 2);
+            for (int i = 0; i < labels.length; i++) {
+                map.putIfAbsent(labels[i], getValue(i));
+            }
+            return map;
+        }
+
+        @Override
+        public Object getObject(int column) {
+            if (column < 1 || column > labels.length) {
+                throw new DataException("column:" + column);
+            }
+            return getValue(column - 1);
+        }
+    }
+
+    private class HeapRow extends Row {
+
+        private final Object[] values;
+
+        HeapRow(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        Object getValue(int i) {
+            return values[i];
+        }
+    }
+
+    private class SpilledRow extends Row {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private int[] positions;
+
+        SpilledRow(ByteBuffer buffer, int start) {
+            this.buffer = buffer;
+            this.start = start;
+        }
+
+        private int position(int i) {
+            checkOpen();
+            if (positions == null) {
+                //one pass over the row, then each column is decoded on demand
+                int[] p = new int[labels.length];
+                int pos = start;
+                for (int c = 0; c < p.length; c++) {
+                    p[c] = pos;
+                    pos += valueLength(buffer, pos);
+                }
+                positions = p;
+            }
+            return positions[i];
+        }
+
+        @Override
+        Object getValue(int i) {
+            return readValue(buffer, position(i));
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            if (column < 1 || column > labels.length) {
+                throw new DataException("column:" + column);
+            }
+            return buffer.get(position(column - 1)) == NULL;
+        }
+    }
+}
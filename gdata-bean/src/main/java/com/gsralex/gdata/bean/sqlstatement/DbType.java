@@ -5,5 +5,5 @@ package com.gsralex.gdata.bean.sqlstatement;
  * @version 2018/3/30
  */
 public enum DbType {
-    MySql, Oracle, SqlServer
+    MySql, Oracle, SqlServer, H2, PostgreSql, Other
 }
@@ -49,9 +49,20 @@ public class JdbcHelper {
     }
 
 
+    /**
+     * 追加 " in (?,?,...)"
+     */
+    public static void appendInList(StringBuilder sql, int size) {
+        sql.append(" in (");
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+    }
+
     public static String getProductName(DataSource dataSource) {
-        try {
-            return dataSource.getConnection().getMetaData().getDatabaseProductName();
+        try (Connection conn = dataSource.getConnection()) {
+            return conn.getMetaData().getDatabaseProductName();
         } catch (SQLException e) {
             return "";
         }
@@ -1,7 +1,7 @@
 package com.gsralex.gdata.bean.sqlstatement;
 
 
-import org.apache.commons.lang3.StringUtils;
+import com.gsralex.gdata.bean.dialect.Dialects;
 
 /**
  * @author gsralex
@@ -9,33 +9,19 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class SqlAlias {
 
-    private static final String DB_MYSQL = "mysql";
-    private static final String DB_SQLSERVER = "sql server";
-    private static final String DB_ORACLE = "oracle";
-
     private static final String ALIAS_MYSQL = "`%s`";
     private static final String ALIAS_SQLSERVER = "[%s]";
     private static final String ALIAS_ORACLE = "\"%s\"";
     private static final String ALIAS_DEFAULT = "%s";
 
+    /**
+     * 所有可能的别名格式，gdata-apt据此预生成sql
+     */
+    public static String[] getAliasFormats() {
+        return new String[]{ALIAS_MYSQL, ALIAS_SQLSERVER, ALIAS_ORACLE, ALIAS_DEFAULT};
+    }
+
     public static String getAliasFormat(String databaseProductName) {
-        if (databaseProductName == null) {
-            databaseProductName = "";
-        }
-        databaseProductName = databaseProductName.toLowerCase().trim();
-        switch (databaseProductName) {
-            case DB_MYSQL: {
-                return ALIAS_MYSQL;
-            }
-            case DB_SQLSERVER: {
-                return ALIAS_SQLSERVER;
-            }
-            case DB_ORACLE: {
-                return ALIAS_ORACLE;
-            }
-            default: {
-                return ALIAS_DEFAULT;
-            }
-        }
+        return Dialects.getDialect(databaseProductName).getAliasFormat();
     }
 }
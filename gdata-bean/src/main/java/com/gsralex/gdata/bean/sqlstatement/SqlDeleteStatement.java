@@ -1,17 +1,19 @@
 package com.gsralex.gdata.bean.sqlstatement;
 
+import com.gsralex.gdata.bean.cache.BoundedCache;
 import com.gsralex.gdata.bean.exception.DataException;
 import com.gsralex.gdata.bean.exception.ExceptionMessage;
 import com.gsralex.gdata.bean.mapper.FieldColumn;
-import com.gsralex.gdata.bean.mapper.FieldValue;
 import com.gsralex.gdata.bean.mapper.Mapper;
 import com.gsralex.gdata.bean.mapper.MapperHolder;
-import org.apache.commons.lang3.StringUtils;
+import com.gsralex.gdata.bean.mapper.TypeUtils;
+
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 
 /**
@@ -20,10 +22,21 @@ import java.util.Map;
  */
 public class SqlDeleteStatement implements SqlStatement {
 
-    private String productName;
+    private Dialect dialect;
+    private String aliasFormat;
+    private BoundedCache<String, String> inSqlCache = new BoundedCache<>(256);
 
     public SqlDeleteStatement(DataSource dataSource) {
-        productName = JdbcHelper.getProductName(dataSource);
+        this(Dialects.getDialect(JdbcHelper.getProductName(dataSource)));
+    }
+
+    public SqlDeleteStatement(Dialect dialect) {
+        this.dialect = dialect;
+        this.aliasFormat = dialect.getAliasFormat();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
     }
 
     @Override
@@ -37,37 +50,65 @@ public class SqlDeleteStatement implements SqlStatement {
 
     @Override
     public <T> String getSql(Class<T> type) {
+        return getTemplate(type).getSql();
+    }
+
+    @Override
+    public <T> SqlTemplate getTemplate(Class<T> type) {
+        return SqlTemplateHolder.getTemplate(SqlKind.Delete, type, dialect.getName(), this::buildTemplate);
+    }
+
+    private SqlTemplate buildTemplate(Class type) {
         Mapper mapper = MapperHolder.getMapperCache(type);
+        List<FieldColumn> columns = mapper.getIdColumns();
+        if (mapper.getGeneratedMapper() != null) {
+            return new SqlTemplate(mapper.getGeneratedMapper().getDeleteSql(aliasFormat), columns,
+                    Collections.<FieldColumn>emptyList());
+        }
         StringBuilder sql = new StringBuilder();
+        sql.append("delete from ").append(String.format(aliasFormat, mapper.getTableName()));
+        sql.append(" where ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i != 0) {
+                sql.append(" and ");
+            }
+            sql.append(String.format(aliasFormat, columns.get(i).getLabel())).append("=?");
+        }
+        return new SqlTemplate(sql.toString(), columns, Collections.<FieldColumn>emptyList());
+    }
+
+    /**
+     * 只有单列主键才能合并成 delete ... where id in (...)
+     */
+    public <T> boolean supportsInList(Class<T> type) {
+        return MapperHolder.getMapperCache(type).getIdColumns().size() == 1;
+    }
 
-        String tableName = String.format(SqlAlias.getAliasFormat(productName), mapper.getTableName());
-        sql.append(String.format("delete from %s ", tableName));
-        sql.append("where");
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (column.isId()) {
-                String label = String.format(SqlAlias.getAliasFormat(productName), column.getLabel());
-                sql.append(String.format(" %s=? and", label));
+    public <T> String getInSql(Class<T> type, int size) {
+        String key = type.getName() + ":" + size;
+        String sql = inSqlCache.get(key);
+        if (sql == null) {
+            Mapper mapper = MapperHolder.getMapperCache(type);
+            if (mapper.getIdColumns().size() != 1) {
+                throw new DataException(ExceptionMessage.NOTSINGLEID_FORIN);
             }
+            StringBuilder sb = new StringBuilder();
+            sb.append("delete from ").append(String.format(aliasFormat, mapper.getTableName()));
+            sb.append(" where ").append(String.format(aliasFormat, mapper.getIdColumns().get(0).getLabel()));
+            JdbcHelper.appendInList(sb, size);
+            sql = sb.toString();
+            inSqlCache.put(key, sql);
         }
-        return StringUtils.removeEnd(sql.toString(), "and");
+        return sql;
+    }
+
+    public <T> Object[] getInObjects(List<T> list, int fromIndex, int toIndex) {
+        return getTemplate(TypeUtils.getType(list)).getObjects(list, fromIndex, toIndex);
     }
 
     @Override
     public <T> Object[] getObjects(T t) {
-        List<Object> objects = new ArrayList<>();
-        FieldValue fieldValue = new FieldValue(t);
-        Mapper mapper = MapperHolder.getMapperCache(t.getClass());
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (column.isId()) {
-                Object value = fieldValue.getValue(column.getType(), entry.getKey());
-                objects.add(value);
-            }
-        }
-        Object[] objArray = new Object[objects.size()];
-        objects.toArray(objArray);
-        return objArray;
+        return getTemplate(t.getClass()).getObjects(t);
     }
 
 
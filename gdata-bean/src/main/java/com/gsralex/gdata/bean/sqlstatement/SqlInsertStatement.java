@@ -1,17 +1,20 @@
 package com.gsralex.gdata.bean.sqlstatement;
 
+import com.gsralex.gdata.bean.cache.BoundedCache;
 import com.gsralex.gdata.bean.jdbc.JdbcGeneratedKey;
 import com.gsralex.gdata.bean.mapper.FieldColumn;
-import com.gsralex.gdata.bean.mapper.FieldValue;
 import com.gsralex.gdata.bean.mapper.Mapper;
 import com.gsralex.gdata.bean.mapper.MapperHolder;
 import com.gsralex.gdata.bean.result.DataRowSet;
+import com.gsralex.gdata.bean.mapper.TypeConverter;
 import com.gsralex.gdata.bean.mapper.TypeUtils;
 
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
+
 import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author gsralex
@@ -19,25 +22,67 @@ import java.util.Map;
  */
 public class SqlInsertStatement implements SqlStatement {
 
-    private String productName;
+    private Dialect dialect;
+    private String aliasFormat;
+    private BoundedCache<String, String> multiRowSqlCache = new BoundedCache<>(256);
 
     public SqlInsertStatement(DataSource dataSource) {
-        productName = JdbcHelper.getProductName(dataSource);
+        this(Dialects.getDialect(JdbcHelper.getProductName(dataSource)));
     }
 
-    public <T> boolean existsGenerateKey(Class<T> type) {
-        Mapper mapper = MapperHolder.getMapperCache(type);
-        int generatedKeyCnt = 0;
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (column.isGeneratedKey()) {
-                generatedKeyCnt++;
-            }
+    public SqlInsertStatement(Dialect dialect) {
+        this.dialect = dialect;
+        this.aliasFormat = dialect.getAliasFormat();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * 是否支持 insert into t(...) values(...),(...)
+     * 需要回写自增主键时，只有能一次返回多行主键的数据库才支持
+     */
+    public boolean supportsMultiRowInsert(boolean generatedKey) {
+        return dialect.supportsMultiRowInsert(generatedKey);
+    }
+
+    /**
+     * 每条多行insert的行数，同时受maxRows和最大参数个数限制
+     */
+    public <T> int getMultiRowSize(Class<T> type, int maxRows) {
+        int columnCount = getTemplate(type).getColumnCount();
+        int rows = maxRows;
+        if (columnCount != 0) {
+            rows = Math.min(rows, dialect.getMaxParameterCount() / columnCount);
         }
-        if (generatedKeyCnt == 0) {
-            return false;
+        return Math.max(rows, 1);
+    }
+
+    public <T> String getMultiRowSql(Class<T> type, int rows) {
+        String key = type.getName() + ":" + rows;
+        String sql = multiRowSqlCache.get(key);
+        if (sql == null) {
+            SqlTemplate template = getTemplate(type);
+            String singleSql = template.getSql();
+            String values = singleSql.substring(singleSql.lastIndexOf("("));
+            StringBuilder sb = new StringBuilder(singleSql.length() + (values.length() + 1) * (rows - 1));
+            sb.append(singleSql);
+            for (int i = 1; i < rows; i++) {
+                sb.append(",").append(values);
+            }
+            sql = sb.toString();
+            multiRowSqlCache.put(key, sql);
         }
-        return true;
+        return sql;
+    }
+
+    public <T> Object[] getMultiRowObjects(List<T> list, int fromIndex, int toIndex) {
+        return getTemplate(TypeUtils.getType(list)).getObjects(list, fromIndex, toIndex);
+    }
+
+    public <T> boolean existsGenerateKey(Class<T> type) {
+        return getTemplate(type).hasGeneratedKey();
     }
 
 
@@ -69,25 +114,11 @@ public class SqlInsertStatement implements SqlStatement {
         if (columnList != null && columnList.size() != 0) {
             int row = 0;
             for (T t : list) {
-                FieldValue fieldValue = new FieldValue(t);
                 for (FieldColumn column : columnList) {
-                    Long longValue = (Long) keyList.get(row++);//key default long value
-                    if (longValue != null) {
-                        Object value = null;
-                        if (column.getType() == Integer.class || column.getType() == int.class) {
-                            value = longValue.intValue();
-                        } else if (column.getType() == Short.class || column.getType() == short.class) {
-                            value = longValue.shortValue();
-                        } else if (column.getType() == Double.class || column.getType() == double.class) {
-                            value = longValue.doubleValue();
-                        } else if (column.getType() == Float.class || column.getType() == float.class) {
-                            value = longValue.floatValue();
-                        } else if (column.getType() == Byte.class || column.getType() == byte.class) {
-                            value = longValue.byteValue();
-                        } else if (column.getType() == Long.class || column.getType() == long.class) {
-                            value = longValue;
-                        }
-                        fieldValue.setValue(column.getType(), column.getName(), value);
+                    Object key = keyList.get(row++);
+                    if (key != null) {
+                        //drivers return Long, Integer, BigInteger or BigDecimal keys
+                        column.getAccessor().setValue(t, TypeConverter.convert(key, column.getType()));
                     }
                 }
             }
@@ -108,48 +139,47 @@ public class SqlInsertStatement implements SqlStatement {
 
     @Override
     public <T> String getSql(Class<T> type) {
+        return getTemplate(type).getSql();
+    }
+
+    @Override
+    public <T> SqlTemplate getTemplate(Class<T> type) {
+        return SqlTemplateHolder.getTemplate(SqlKind.Insert, type, dialect.getName(), this::buildTemplate);
+    }
+
+    private SqlTemplate buildTemplate(Class type) {
         Mapper mapper = MapperHolder.getMapperCache(type);
+        List<FieldColumn> columns = new ArrayList<>();
+        List<FieldColumn> generatedKeyColumns = new ArrayList<>();
+        for (FieldColumn column : mapper.getMapper().values()) {
+            if (column.isId() && column.isGeneratedKey()) {
+                generatedKeyColumns.add(column);
+            } else {
+                columns.add(column);
+            }
+        }
+        if (mapper.getGeneratedMapper() != null) {
+            return new SqlTemplate(mapper.getGeneratedMapper().getInsertSql(aliasFormat), columns, generatedKeyColumns);
+        }
         StringBuilder sql = new StringBuilder();
-
-        String tableName = String.format(SqlAlias.getAliasFormat(productName), mapper.getTableName());
-        sql.append(String.format("insert into %s", tableName));
+        sql.append("insert into ").append(String.format(aliasFormat, mapper.getTableName()));
         sql.append("(");
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (!(column.isId() && column.isGeneratedKey())) {
-                String label = String.format(SqlAlias.getAliasFormat(productName), column.getLabel());
-                sql.append(String.format("%s,", label));
+        for (int i = 0; i < columns.size(); i++) {
+            if (i != 0) {
+                sql.append(",");
             }
+            sql.append(String.format(aliasFormat, columns.get(i).getLabel()));
         }
-        sql.deleteCharAt(sql.length() - 1);
-        sql.append(")");
-
-        sql.append(" values(");
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (!(column.isId() && column.isGeneratedKey())) {
-                sql.append("?,");
-            }
+        sql.append(") values(");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
         }
-        sql.deleteCharAt(sql.length() - 1);
         sql.append(")");
-        return sql.toString();
+        return new SqlTemplate(sql.toString(), columns, generatedKeyColumns);
     }
 
     @Override
     public <T> Object[] getObjects(T t) {
-        Mapper mapper = MapperHolder.getMapperCache(t.getClass());
-        FieldValue fieldValue = new FieldValue(t);
-        List<Object> objects = new ArrayList<>();
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (!(column.isId() && column.isGeneratedKey())) {
-                Object value = fieldValue.getValue(column.getType(), entry.getKey());
-                objects.add(value);
-            }
-        }
-        Object[] objArray = new Object[objects.size()];
-        objects.toArray(objArray);
-        return objArray;
+        return getTemplate(t.getClass()).getObjects(t);
     }
 }
@@ -0,0 +1,9 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public enum SqlKind {
+    Insert, Update, Delete, Upsert, Select
+}
@@ -0,0 +1,129 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import com.gsralex.gdata.bean.cache.BoundedCache;
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.mapper.FieldColumn;
+import com.gsralex.gdata.bean.mapper.Mapper;
+import com.gsralex.gdata.bean.mapper.MapperHolder;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按@Id查询，select的列来自Mapper
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlSelectStatement implements SqlStatement {
+
+    private Dialect dialect;
+    private String aliasFormat;
+    private BoundedCache<String, String> inSqlCache = new BoundedCache<>(256);
+    private BoundedCache<String, Boolean> byIdCache = new BoundedCache<>(1024);
+
+    public SqlSelectStatement(DataSource dataSource) {
+        this(Dialects.getDialect(JdbcHelper.getProductName(dataSource)));
+    }
+
+    public SqlSelectStatement(Dialect dialect) {
+        this.dialect = dialect;
+        this.aliasFormat = dialect.getAliasFormat();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public <T> boolean checkValid(Class<T> type) {
+        Mapper mapper = MapperHolder.getMapperCache(type);
+        if (mapper.getIdColumns().size() == 0) {
+            throw new DataException(ExceptionMessage.NOTID_FORSELECT);
+        }
+        return true;
+    }
+
+    /**
+     * select ... where id=? [and id2=?]
+     */
+    @Override
+    public <T> String getSql(Class<T> type) {
+        return getTemplate(type).getSql();
+    }
+
+    @Override
+    public <T> SqlTemplate getTemplate(Class<T> type) {
+        return SqlTemplateHolder.getTemplate(SqlKind.Select, type, dialect.getName(), this::buildTemplate);
+    }
+
+    private SqlTemplate buildTemplate(Class type) {
+        Mapper mapper = MapperHolder.getMapperCache(type);
+        List<FieldColumn> columns = mapper.getIdColumns();
+        StringBuilder sql = appendSelect(new StringBuilder(), mapper);
+        sql.append(" where ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i != 0) {
+                sql.append(" and ");
+            }
+            sql.append(String.format(aliasFormat, columns.get(i).getLabel())).append("=?");
+        }
+        return new SqlTemplate(sql.toString(), columns, Collections.<FieldColumn>emptyList());
+    }
+
+    /**
+     * select ... where id in (?,?,...)，只支持单列主键
+     */
+    public <T> String getInSql(Class<T> type, int size) {
+        String key = type.getName() + ":" + size;
+        String sql = inSqlCache.get(key);
+        if (sql == null) {
+            Mapper mapper = MapperHolder.getMapperCache(type);
+            if (mapper.getIdColumns().size() != 1) {
+                throw new DataException(ExceptionMessage.NOTSINGLEID_FORIN);
+            }
+            StringBuilder sb = appendSelect(new StringBuilder(), mapper);
+            sb.append(" where ").append(String.format(aliasFormat, mapper.getIdColumns().get(0).getLabel()));
+            JdbcHelper.appendInList(sb, size);
+            sql = sb.toString();
+            inSqlCache.put(key, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * sql是否为按主键查询，即getSql(type)或 select * from table where id=?
+     * 比较时忽略大小写、空白和标识符的引号
+     */
+    public <T> boolean isSelectById(Class<T> type, String sql) {
+        String key = type.getName() + ":" + sql;
+        Boolean result = byIdCache.get(key);
+        if (result == null) {
+            String normalized = SqlTables.normalize(sql);
+            String template = SqlTables.normalize(getSql(type));
+            result = normalized.equals(template)
+                    || normalized.equals("select *" + template.substring(template.indexOf(" from ")));
+            byIdCache.put(key, result);
+        }
+        return result;
+    }
+
+    private StringBuilder appendSelect(StringBuilder sql, Mapper mapper) {
+        sql.append("select ");
+        int i = 0;
+        for (FieldColumn column : mapper.getMapper().values()) {
+            sql.append(i++ == 0 ? "" : ",").append(String.format(aliasFormat, column.getLabel()));
+        }
+        sql.append(" from ").append(String.format(aliasFormat, mapper.getTableName()));
+        return sql;
+    }
+
+    @Override
+    public <T> Object[] getObjects(T t) {
+        return getTemplate(t.getClass()).getObjects(t);
+    }
+}
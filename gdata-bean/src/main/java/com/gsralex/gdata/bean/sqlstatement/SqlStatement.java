@@ -12,4 +12,6 @@ public interface SqlStatement {
 
     <T> Object[] getObjects(T t);
 
+    <T> SqlTemplate getTemplate(Class<T> type);
+
 }
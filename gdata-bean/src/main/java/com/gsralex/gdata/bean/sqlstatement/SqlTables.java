@@ -0,0 +1,194 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import com.gsralex.gdata.bean.cache.BoundedCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 从sql文本中粗略解析涉及的表，用于查询缓存按表失效
+ * 表名统一小写并去掉schema前缀，解析不出时返回空集合/null，调用方按"全部失效"处理
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlTables {
+
+    private static final Set<String> CLAUSE_KEYWORDS = new HashSet<>(Arrays.asList(
+            "where", "join", "on", "using", "group", "order", "having", "limit", "offset", "union",
+            "intersect", "except", "minus", "left", "right", "inner", "outer", "cross", "full", "natural",
+            "straight_join", "for", "fetch", "window", "select", "from", "set", "values", "lateral", "with"));
+
+    private static BoundedCache<String, Set<String>> readCache = new BoundedCache<>(1024);
+    private static BoundedCache<String, String> writeCache = new BoundedCache<>(1024);
+
+    /**
+     * select语句中from/join后的表
+     */
+    public static Set<String> getReadTables(String sql) {
+        Set<String> tables = readCache.get(sql);
+        if (tables == null) {
+            tables = Collections.unmodifiableSet(parseReadTables(tokenize(normalize(sql))));
+            readCache.put(sql, tables);
+        }
+        return tables;
+    }
+
+    /**
+     * insert/update/delete/merge/replace/truncate/alter/drop的目标表，无法识别时返回null
+     */
+    public static String getWriteTable(String sql) {
+        String table = writeCache.get(sql);
+        if (table == null) {
+            table = parseWriteTable(tokenize(normalize(sql)));
+            //cache misses as empty string
+            writeCache.put(sql, table == null ? "" : table);
+        }
+        return table == null || table.isEmpty() ? null : table;
+    }
+
+    /**
+     * 表名的统一形式：小写、去掉引号和schema
+     */
+    public static String getTableTag(String table) {
+        String tag = normalize(table);
+        int i = tag.lastIndexOf('.');
+        return i < 0 ? tag : tag.substring(i + 1);
+    }
+
+    /**
+     * 忽略大小写、多余空白、标识符的引号和末尾分号
+     */
+    public static String normalize(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        boolean space = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '`' || c == '"' || c == '[' || c == ']' || c == ';') {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = sb.length() != 0;
+                continue;
+            }
+            if (c == '=' || c == ',') {
+                space = false;
+            } else if (space && sb.length() != 0 && sb.charAt(sb.length() - 1) != '=' && sb.charAt(sb.length() - 1) != ',') {
+                sb.append(' ');
+            }
+            space = false;
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == ' ') {
+                i++;
+            } else if (c == '\'') {
+                //skip string literals
+                int end = sql.indexOf('\'', i + 1);
+                i = end < 0 ? length : end + 1;
+                tokens.add("'");
+            } else if (isIdentifierPart(c)) {
+                int start = i;
+                while (i < length && isIdentifierPart(sql.charAt(i))) {
+                    i++;
+                }
+                tokens.add(sql.substring(start, i));
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static Set<String> parseReadTables(List<String> tokens) {
+        Set<String> tables = new LinkedHashSet<>();
+        //0: none, 1: expect a table, 2: after a table (alias or comma may follow)
+        int state = 0;
+        for (String token : tokens) {
+            if (token.equals("from") || token.equals("join") || token.equals("straight_join")) {
+                state = 1;
+            } else if (state == 1) {
+                if (isIdentifier(token) && !CLAUSE_KEYWORDS.contains(token)) {
+                    tables.add(getTableTag(token));
+                    state = 2;
+                } else {
+                    //sub query, the inner from is picked up on its own
+                    state = 0;
+                }
+            } else if (state == 2) {
+                if (token.equals(",")) {
+                    state = 1;
+                } else if (!isIdentifier(token) || CLAUSE_KEYWORDS.contains(token)) {
+                    state = 0;
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static String parseWriteTable(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int i = 0;
+        String first = tokens.get(i++);
+        if (first.equals("insert") || first.equals("replace") || first.equals("merge") || first.equals("upsert")) {
+            //insert [ignore] into t
+            while (i < tokens.size() && !tokens.get(i).equals("into")) {
+                if (i > 2) {
+                    return null;
+                }
+                i++;
+            }
+            i++;
+        } else if (first.equals("update")) {
+            while (i < tokens.size() && (tokens.get(i).equals("ignore") || tokens.get(i).equals("low_priority")
+                    || tokens.get(i).equals("only"))) {
+                i++;
+            }
+        } else if (first.equals("delete")) {
+            //delete from t, delete t from t join ...
+            while (i < tokens.size() && !tokens.get(i).equals("from")) {
+                i++;
+            }
+            i++;
+        } else if (first.equals("truncate") || first.equals("alter") || first.equals("drop")) {
+            if (i < tokens.size() && tokens.get(i).equals("table")) {
+                i++;
+            } else {
+                return null;
+            }
+            while (i < tokens.size() && (tokens.get(i).equals("if") || tokens.get(i).equals("exists"))) {
+                i++;
+            }
+        } else {
+            return null;
+        }
+        if (i >= tokens.size() || !isIdentifier(tokens.get(i))) {
+            return null;
+        }
+        return getTableTag(tokens.get(i));
+    }
+
+    private static boolean isIdentifier(String token) {
+        return isIdentifierPart(token.charAt(0)) && !Character.isDigit(token.charAt(0));
+    }
+}
@@ -0,0 +1,81 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import com.gsralex.gdata.bean.mapper.FieldColumn;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 某个实体在某种数据库下预先生成好的sql，以及按占位符顺序排列的参数列
+ * 不可变，由SqlTemplateHolder按(kind,type,dialect)缓存
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlTemplate {
+
+    private final String sql;
+    private final FieldColumn[] columns;
+    private final FieldColumn[] generatedKeyColumns;
+
+    public SqlTemplate(String sql, List<FieldColumn> columns, List<FieldColumn> generatedKeyColumns) {
+        this.sql = sql;
+        this.columns = columns.toArray(new FieldColumn[columns.size()]);
+        this.generatedKeyColumns = generatedKeyColumns.toArray(new FieldColumn[generatedKeyColumns.size()]);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<FieldColumn> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public List<FieldColumn> getGeneratedKeyColumns() {
+        return Collections.unmodifiableList(Arrays.asList(generatedKeyColumns));
+    }
+
+    public boolean hasGeneratedKey() {
+        return generatedKeyColumns.length != 0;
+    }
+
+    public Object[] getObjects(Object t) {
+        Object[] objects = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            objects[i] = columns[i].getAccessor().getValue(t);
+        }
+        return objects;
+    }
+
+    /**
+     * 直接绑定到statement，不生成中间的Object[]
+     */
+    public void bind(PreparedStatement ps, Object t) throws SQLException {
+        for (int i = 0; i < columns.length; i++) {
+            ps.setObject(i + 1, columns[i].getAccessor().getValue(t));
+        }
+    }
+
+    /**
+     * 多行语句的参数，按行依次排列
+     */
+    public Object[] getObjects(List<?> list, int fromIndex, int toIndex) {
+        Object[] objects = new Object[columns.length * (toIndex - fromIndex)];
+        int i = 0;
+        for (int row = fromIndex; row < toIndex; row++) {
+            Object t = list.get(row);
+            for (FieldColumn column : columns) {
+                objects[i++] = column.getAccessor().getValue(t);
+            }
+        }
+        return objects;
+    }
+}
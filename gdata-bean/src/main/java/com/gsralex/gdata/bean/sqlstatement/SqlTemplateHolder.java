@@ -0,0 +1,62 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 按(kind,type,dialect)缓存SqlTemplate，每个组合只生成一次sql
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlTemplateHolder {
+
+    private static ConcurrentHashMap<TemplateKey, SqlTemplate> cacheTemplate = new ConcurrentHashMap<>();
+
+    public static SqlTemplate getTemplate(SqlKind kind, Class type, String dialectName,
+                                          Function<Class, SqlTemplate> builder) {
+        TemplateKey key = new TemplateKey(kind, type, dialectName);
+        SqlTemplate template = cacheTemplate.get(key);
+        if (template == null) {
+            template = builder.apply(type);
+            SqlTemplate old = cacheTemplate.putIfAbsent(key, template);
+            if (old != null) {
+                template = old;
+            }
+        }
+        return template;
+    }
+
+    public static void clear() {
+        cacheTemplate.clear();
+    }
+
+    private static class TemplateKey {
+        private final SqlKind kind;
+        private final Class type;
+        private final String dialectName;
+
+        TemplateKey(SqlKind kind, Class type, String dialectName) {
+            this.kind = kind;
+            this.type = type;
+            this.dialectName = dialectName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TemplateKey)) {
+                return false;
+            }
+            TemplateKey other = (TemplateKey) o;
+            return kind == other.kind && type == other.type && dialectName.equals(other.dialectName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (kind.hashCode() * 31 + type.hashCode()) * 31 + dialectName.hashCode();
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.gsralex.gdata.bean.sqlstatement;
 
+import com.gsralex.gdata.bean.cache.BoundedCache;
 import com.gsralex.gdata.bean.exception.DataException;
 import com.gsralex.gdata.bean.exception.ExceptionMessage;
 import com.gsralex.gdata.bean.mapper.FieldColumn;
-import com.gsralex.gdata.bean.mapper.FieldValue;
 import com.gsralex.gdata.bean.mapper.Mapper;
 import com.gsralex.gdata.bean.mapper.MapperHolder;
-import org.apache.commons.lang3.StringUtils;
+
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
 
 import javax.sql.DataSource;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author gsralex
@@ -19,10 +22,21 @@ import java.util.Map;
  */
 public class SqlUpdateStatement implements SqlStatement {
 
-    private String productName;
+    private Dialect dialect;
+    private String aliasFormat;
+    private BoundedCache<String, SqlTemplate> changedTemplateCache = new BoundedCache<>(1024);
 
     public SqlUpdateStatement(DataSource dataSource) {
-        productName = JdbcHelper.getProductName(dataSource);
+        this(Dialects.getDialect(JdbcHelper.getProductName(dataSource)));
+    }
+
+    public SqlUpdateStatement(Dialect dialect) {
+        this.dialect = dialect;
+        this.aliasFormat = dialect.getAliasFormat();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
     }
 
     @Override
@@ -36,52 +50,76 @@ public class SqlUpdateStatement implements SqlStatement {
 
     @Override
     public <T> String getSql(Class<T> type) {
-        Mapper mapper = MapperHolder.getMapperCache(type);
-        StringBuilder sql = new StringBuilder();
-        String tableName = String.format(SqlAlias.getAliasFormat(productName), mapper.getTableName());
+        return getTemplate(type).getSql();
+    }
+
+    @Override
+    public <T> SqlTemplate getTemplate(Class<T> type) {
+        return SqlTemplateHolder.getTemplate(SqlKind.Update, type, dialect.getName(), this::buildTemplate);
+    }
 
-        sql.append(String.format("update %s ", tableName));
-        sql.append("set ");
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
+    private SqlTemplate buildTemplate(Class type) {
+        Mapper mapper = MapperHolder.getMapperCache(type);
+        List<FieldColumn> setColumns = new ArrayList<>();
+        for (FieldColumn column : mapper.getMapper().values()) {
             if (!column.isId()) {
-                String label = String.format(SqlAlias.getAliasFormat(productName), column.getLabel());
-                sql.append(String.format("%s=?,", label));
+                setColumns.add(column);
             }
         }
-        sql = sql.deleteCharAt(sql.length() - 1);
-        sql.append(" where ");
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (column.isId()) {
-                sql.append(String.format(" `%s`=? and", column.getLabel()));
-            }
+        List<FieldColumn> columns = new ArrayList<>(setColumns);
+        columns.addAll(mapper.getIdColumns());
+        if (mapper.getGeneratedMapper() != null) {
+            return new SqlTemplate(mapper.getGeneratedMapper().getUpdateSql(aliasFormat), columns,
+                    Collections.<FieldColumn>emptyList());
         }
-        return StringUtils.remove(sql.toString(), "and");
+        return new SqlTemplate(buildSql(mapper, setColumns), columns, Collections.<FieldColumn>emptyList());
     }
 
-    @Override
-    public <T> Object[] getObjects(T t) {
-        Mapper mapper = MapperHolder.getMapperCache(t.getClass());
-        FieldValue fieldValue = new FieldValue(t);
-        List<Object> objects = new ArrayList<>();
+    /**
+     * 只set被修改的列，changed为列在Mapper中的序号
+     */
+    public <T> SqlTemplate getChangedTemplate(Class<T> type, BitSet changed) {
+        String key = type.getName() + ":" + changed;
+        SqlTemplate template = changedTemplateCache.get(key);
+        if (template == null) {
+            Mapper mapper = MapperHolder.getMapperCache(type);
+            List<FieldColumn> setColumns = new ArrayList<>();
+            int i = 0;
+            for (FieldColumn column : mapper.getMapper().values()) {
+                if (changed.get(i++) && !column.isId()) {
+                    setColumns.add(column);
+                }
+            }
+            List<FieldColumn> columns = new ArrayList<>(setColumns);
+            columns.addAll(mapper.getIdColumns());
+            template = new SqlTemplate(buildSql(mapper, setColumns), columns, Collections.<FieldColumn>emptyList());
+            changedTemplateCache.put(key, template);
+        }
+        return template;
+    }
 
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (!column.isId()) {
-                Object value = fieldValue.getValue(column.getType(), entry.getKey());
-                objects.add(value);
+    private String buildSql(Mapper mapper, List<FieldColumn> setColumns) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("update ").append(String.format(aliasFormat, mapper.getTableName()));
+        sql.append(" set ");
+        for (int i = 0; i < setColumns.size(); i++) {
+            if (i != 0) {
+                sql.append(",");
             }
+            sql.append(String.format(aliasFormat, setColumns.get(i).getLabel())).append("=?");
         }
-        for (Map.Entry<String, FieldColumn> entry : mapper.getMapper().entrySet()) {
-            FieldColumn column = entry.getValue();
-            if (column.isId()) {
-                Object value = fieldValue.getValue(column.getType(), entry.getKey());
-                objects.add(value);
+        sql.append(" where ");
+        for (int i = 0; i < mapper.getIdColumns().size(); i++) {
+            if (i != 0) {
+                sql.append(" and ");
             }
+            sql.append(String.format(aliasFormat, mapper.getIdColumns().get(i).getLabel())).append("=?");
         }
-        Object[] objArray = new Object[objects.size()];
-        objects.toArray(objArray);
-        return objArray;
+        return sql.toString();
+    }
+
+    @Override
+    public <T> Object[] getObjects(T t) {
+        return getTemplate(t.getClass()).getObjects(t);
     }
 }
@@ -0,0 +1,151 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import com.gsralex.gdata.bean.cache.BoundedCache;
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.mapper.FieldColumn;
+import com.gsralex.gdata.bean.mapper.Mapper;
+import com.gsralex.gdata.bean.mapper.MapperHolder;
+import com.gsralex.gdata.bean.mapper.TypeUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按@Id插入或更新，写入全部列(包含主键)，语法由Dialect决定
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlUpsertStatement implements SqlStatement {
+
+    private Dialect dialect;
+    private BoundedCache<String, String> multiRowSqlCache = new BoundedCache<>(256);
+
+    public SqlUpsertStatement(DataSource dataSource) {
+        this(Dialects.getDialect(JdbcHelper.getProductName(dataSource)));
+    }
+
+    public SqlUpsertStatement(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public <T> boolean checkValid(Class<T> type) {
+        if (!dialect.supportsUpsert()) {
+            throw new DataException(ExceptionMessage.UPSERT_NOTSUPPORT);
+        }
+        Mapper mapper = MapperHolder.getMapperCache(type);
+        if (mapper.getIdColumns().size() == 0) {
+            throw new DataException(ExceptionMessage.NOTID_FORUPSERT);
+        }
+        return true;
+    }
+
+    @Override
+    public <T> String getSql(Class<T> type) {
+        return getTemplate(type).getSql();
+    }
+
+    @Override
+    public <T> SqlTemplate getTemplate(Class<T> type) {
+        return SqlTemplateHolder.getTemplate(SqlKind.Upsert, type, dialect.getName(), this::buildTemplate);
+    }
+
+    private SqlTemplate buildTemplate(Class type) {
+        Mapper mapper = MapperHolder.getMapperCache(type);
+        List<FieldColumn> columns = new ArrayList<>(mapper.getMapper().values());
+        return new SqlTemplate(buildSql(mapper, 1), columns, Collections.<FieldColumn>emptyList());
+    }
+
+    private String buildSql(Mapper mapper, int rows) {
+        List<String> labels = new ArrayList<>();
+        for (FieldColumn column : mapper.getMapper().values()) {
+            labels.add(column.getLabel());
+        }
+        List<String> idLabels = new ArrayList<>();
+        for (FieldColumn column : mapper.getIdColumns()) {
+            idLabels.add(column.getLabel());
+        }
+        return dialect.getUpsertSql(mapper.getTableName(), labels, idLabels, rows);
+    }
+
+    /**
+     * 每条upsert的行数，同时受maxRows和最大参数个数限制
+     */
+    public <T> int getMultiRowSize(Class<T> type, int maxRows) {
+        int columnCount = getTemplate(type).getColumnCount();
+        int rows = maxRows;
+        if (columnCount != 0) {
+            rows = Math.min(rows, dialect.getMaxParameterCount() / columnCount);
+        }
+        return Math.max(rows, 1);
+    }
+
+    public <T> String getMultiRowSql(Class<T> type, int rows) {
+        if (rows == 1) {
+            return getSql(type);
+        }
+        String key = type.getName() + ":" + rows;
+        String sql = multiRowSqlCache.get(key);
+        if (sql == null) {
+            sql = buildSql(MapperHolder.getMapperCache(type), rows);
+            multiRowSqlCache.put(key, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 按主键去重，保留最后一次出现的行
+     * 同一条upsert里重复的主键在postgresql(on conflict)、oracle/sqlserver(merge)下会报错
+     */
+    public <T> List<T> distinctById(List<T> list) {
+        List<FieldColumn> idColumns = MapperHolder.getMapperCache(TypeUtils.getType(list)).getIdColumns();
+        Map<Object, Integer> lastIndex = new HashMap<>(list.size() * 2);
+        for (int i = 0, size = list.size(); i < size; i++) {
+            lastIndex.put(getIdKey(idColumns, list.get(i)), i);
+        }
+        if (lastIndex.size() == list.size()) {
+            return list;
+        }
+        List<T> distinctList = new ArrayList<>(lastIndex.size());
+        for (int i = 0, size = list.size(); i < size; i++) {
+            T t = list.get(i);
+            if (lastIndex.get(getIdKey(idColumns, t)) == i) {
+                distinctList.add(t);
+            }
+        }
+        return distinctList;
+    }
+
+    private static Object getIdKey(List<FieldColumn> idColumns, Object t) {
+        if (idColumns.size() == 1) {
+            return idColumns.get(0).getAccessor().getValue(t);
+        }
+        Object[] ids = new Object[idColumns.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idColumns.get(i).getAccessor().getValue(t);
+        }
+        return Arrays.asList(ids);
+    }
+
+    public <T> Object[] getMultiRowObjects(List<T> list, int fromIndex, int toIndex) {
+        return getTemplate(TypeUtils.getType(list)).getObjects(list, fromIndex, toIndex);
+    }
+
+    @Override
+    public <T> Object[] getObjects(T t) {
+        return getTemplate(t.getClass()).getObjects(t);
+    }
+}
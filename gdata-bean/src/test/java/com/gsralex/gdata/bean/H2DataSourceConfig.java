@@ -0,0 +1,40 @@
+package com.gsralex.gdata.bean;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 内存中的h2(mysql模式)，每个name一个独立的库，建好空的t_foo表
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class H2DataSourceConfig {
+
+    private static final String T_FOO = "create table t_foo(id int auto_increment primary key, foo_1 varchar(100), "
+            + "foo_2 double, foo_3 timestamp, foo_4 int, foo_img varchar(100), foo_5 boolean, foo_date timestamp, "
+            + "foo_6 boolean)";
+
+    public static DataSource getDataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        execute(dataSource, "drop all objects", T_FOO);
+        return dataSource;
+    }
+
+    public static void execute(DataSource dataSource, String... sqls) {
+        try (Connection conn = dataSource.getConnection(); Statement statement = conn.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new DataException("execute", e);
+        }
+    }
+}
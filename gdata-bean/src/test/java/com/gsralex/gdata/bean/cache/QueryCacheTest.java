@@ -0,0 +1,224 @@
+package com.gsralex.gdata.bean.cache;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.jdbc.JdbcUtils;
+import com.gsralex.gdata.bean.result.DataSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class QueryCacheTest {
+
+    private static final String SQL = "select foo_4 from t_foo order by foo_4";
+
+    private static List<Integer> load(AtomicInteger loads) {
+        return Collections.singletonList(loads.incrementAndGet());
+    }
+
+    @Test
+    public void tableInvalidation() {
+        DataSource dataSource = H2DataSourceConfig.getDataSource("querycache");
+        H2DataSourceConfig.execute(dataSource, "create table t_bar(id int)");
+        JdbcUtils jdbcUtils = new JdbcUtils(dataSource);
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.declare(SQL);
+        jdbcUtils.setQueryCache(queryCache);
+
+        insert(jdbcUtils, 1);
+        Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(1));
+        Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(1));
+        Assert.assertEquals(queryCache.getStats().getHitCount(), 1);
+
+        //a write to another table keeps the entry
+        jdbcUtils.executeUpdate("insert into t_bar(id) values(?)", new Object[]{1});
+        Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(1));
+        Assert.assertEquals(queryCache.getStats().getHitCount(), 2);
+
+        insert(jdbcUtils, 2);
+        Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(1, 2));
+
+        jdbcUtils.inTransaction(() -> {
+            insert(jdbcUtils, 3);
+            //queries in a transaction bypass the cache and see their own writes
+            Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(1, 2, 3));
+            return null;
+        });
+        Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(1, 2, 3));
+
+        //plain sql writes are tagged by their target table too
+        jdbcUtils.executeUpdate("delete from t_foo where foo_4=?", new Object[]{1});
+        Assert.assertEquals(jdbcUtils.queryForList(SQL, null, Integer.class), Arrays.asList(2, 3));
+    }
+
+    private static void insert(JdbcUtils jdbcUtils, int foo4) {
+        Foo foo = FooSource.getEntity();
+        foo.setFoo4(foo4);
+        jdbcUtils.insert(foo);
+    }
+
+    @Test
+    public void literals() {
+        DataSource dataSource = H2DataSourceConfig.getDataSource("querycache");
+        JdbcUtils jdbcUtils = new JdbcUtils(dataSource);
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.setCacheAll(true);
+        jdbcUtils.setQueryCache(queryCache);
+        H2DataSourceConfig.execute(dataSource, "insert into t_foo(foo_1, foo_4) values('ABC', 1)",
+                "insert into t_foo(foo_1, foo_4) values('abc', 2)", "insert into t_foo(foo_1, foo_4) values('a  b', 3)",
+                "insert into t_foo(foo_1, foo_4) values('a b', 4)");
+
+        //literals that differ only in case or whitespace are different queries
+        String sql = "select foo_4 from t_foo where foo_1=";
+        Assert.assertEquals(jdbcUtils.queryForList(sql + "'ABC'", null, Integer.class), Arrays.asList(1));
+        Assert.assertEquals(jdbcUtils.queryForList(sql + "'abc'", null, Integer.class), Arrays.asList(2));
+        Assert.assertEquals(jdbcUtils.queryForList(sql + "'a  b'", null, Integer.class), Arrays.asList(3));
+        Assert.assertEquals(jdbcUtils.queryForList(sql + "'a b'", null, Integer.class), Arrays.asList(4));
+        Assert.assertEquals(queryCache.getStats().getHitCount(), 0);
+        Assert.assertEquals(jdbcUtils.queryForList(sql + "'ABC'", null, Integer.class), Arrays.asList(1));
+        Assert.assertEquals(queryCache.getStats().getHitCount(), 1);
+    }
+
+    @Test
+    public void unknownWrite() {
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.declare(SQL);
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(1));
+        queryCache.invalidateSql("update t_bar set id=1");
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(1));
+        //the target table of a call is unknown, so every entry is dropped
+        queryCache.invalidateSql("call refresh_all()");
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(2));
+    }
+
+    @Test
+    public void staleLoad() {
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.declare(SQL);
+        AtomicInteger loads = new AtomicInteger();
+        //a write while the query runs: the caller gets the result, the entry is not trusted afterwards
+        List<Integer> value = queryCache.get(SQL, null, Integer.class, () -> {
+            queryCache.invalidateTable("t_foo");
+            return load(loads);
+        });
+        Assert.assertEquals(value, Arrays.asList(1));
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(2));
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(2));
+    }
+
+    @Test
+    public void parameters() {
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        String sql = "select foo_4 from t_foo where id=?";
+        queryCache.declare(sql);
+        AtomicInteger loads = new AtomicInteger();
+        queryCache.get(sql, new Object[]{1}, Integer.class, () -> load(loads));
+        //integral parameters are compared as Long
+        queryCache.get(sql, new Object[]{1L}, Integer.class, () -> load(loads));
+        Assert.assertEquals(loads.get(), 1);
+        queryCache.get(sql, new Object[]{2}, Integer.class, () -> load(loads));
+        queryCache.get(sql, new Object[]{1}, Long.class, () -> load(loads));
+        Assert.assertEquals(loads.get(), 3);
+
+        //undeclared sql is not cached
+        queryCache.get("select 1", null, Integer.class, () -> load(loads));
+        queryCache.get("select 1", null, Integer.class, () -> load(loads));
+        Assert.assertEquals(loads.get(), 5);
+    }
+
+    @Test
+    public void refresh() throws InterruptedException {
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.declare(SQL);
+        queryCache.setRefreshAfterWriteMillis(50);
+        //run the refresh on the calling thread
+        queryCache.setRefreshExecutor(Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(1));
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(1));
+        Assert.assertEquals(queryCache.getRefreshCount(), 0);
+
+        Thread.sleep(60);
+        //the old value is returned while the refresh loads the new one
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(1));
+        Assert.assertEquals(queryCache.getRefreshCount(), 1);
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(2));
+
+        //a failed refresh keeps the old value and is tried again by the next read
+        Thread.sleep(60);
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> {
+            throw new IllegalStateException("refresh");
+        }), Arrays.asList(2));
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(2));
+        Assert.assertEquals(queryCache.get(SQL, null, Integer.class, () -> load(loads)), Arrays.asList(3));
+        Assert.assertEquals(queryCache.getRefreshCount(), 2);
+    }
+
+    @Test
+    public void copies() {
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.setCacheAll(true);
+        Date date = new Date(1000);
+        Foo foo = FooSource.getEntity();
+        foo.setFoo4(1);
+        foo.setFoo3(date);
+        Map<String, Object> row = new HashMap<>();
+        row.put("foo_3", date);
+
+        List<Foo> entities = queryCache.get("select * from t_foo", null, Foo.class,
+                () -> new ArrayList<>(Arrays.asList(foo)));
+        entities.get(0).setFoo4(2);
+        entities.get(0).getFoo3().setTime(2000);
+        entities.clear();
+        List<Foo> cached = queryCache.get("select * from t_foo", null, Foo.class, () -> null);
+        Assert.assertEquals(cached.size(), 1);
+        Assert.assertEquals(cached.get(0).getFoo4(), 1);
+        Assert.assertEquals(cached.get(0).getFoo3().getTime(), 1000);
+        Assert.assertNotSame(cached.get(0), foo);
+
+        List<Map<String, Object>> maps = queryCache.get("select foo_3 from t_foo", null, Map.class,
+                () -> new ArrayList<>(Arrays.asList(row)));
+        maps.get(0).put("foo_3", null);
+        List<Map<String, Object>> cachedMaps = queryCache.get("select foo_3 from t_foo", null, Map.class,
+                () -> null);
+        Map<String, Object> cachedRow = cachedMaps.get(0);
+        Assert.assertEquals(((Date) cachedRow.get("foo_3")).getTime(), 1000);
+        Assert.assertNotSame(cachedRow.get("foo_3"), date);
+    }
+
+    @Test
+    public void dataSetCopies() {
+        DataSource dataSource = H2DataSourceConfig.getDataSource("querycache");
+        JdbcUtils jdbcUtils = new JdbcUtils(dataSource);
+        QueryCache queryCache = new QueryCache(new CacheConfig());
+        queryCache.setCacheAll(true);
+        jdbcUtils.setQueryCache(queryCache);
+        Foo foo = FooSource.getEntity();
+        foo.setFoo3(new Date(1000));
+        jdbcUtils.insert(foo);
+
+        String sql = "select foo_3, foo_4 from t_foo";
+        DataSet first = jdbcUtils.queryForDataSet(sql);
+        DataSet second = jdbcUtils.queryForDataSet(sql);
+        Assert.assertEquals(queryCache.getStats().getHitCount(), 1);
+        Assert.assertNotSame(first, second);
+        first.get(0).getDate("foo_3").setTime(2000);
+        Assert.assertEquals(second.get(0).getDate("foo_3").getTime(), 1000);
+        Assert.assertEquals(jdbcUtils.queryForDataSet(sql).get(0).getDate("foo_3").getTime(), 1000);
+    }
+}
@@ -0,0 +1,75 @@
+package com.gsralex.gdata.bean.cache;
+
+import com.gsralex.gdata.bean.domain.Foo;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TinyLfuCacheTest {
+
+    @Test
+    public void admission() throws Exception {
+        CacheStats stats = new CacheStats();
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, null, 0, stats);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        //make the first 50 hot
+        for (int n = 0; n < 5; n++) {
+            for (int i = 0; i < 50; i++) {
+                Assert.assertEquals(cache.get(i), Integer.valueOf(i));
+            }
+        }
+        //a scan of one-hit keys must not flush the hot ones
+        for (int i = 1000; i < 2000; i++) {
+            cache.put(i, i);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+        int hot = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(i) != null) {
+                hot++;
+            }
+        }
+        Assert.assertTrue("hot:" + hot, hot >= 45);
+        Assert.assertTrue(stats.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void weightAndExpire() throws Exception {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, (k, v) -> v.length(), 0, new CacheStats());
+        cache.put("a", "12345");
+        cache.put("b", "12345678901");
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(cache.weightedSize(), 5);
+
+        CacheStats stats = new CacheStats();
+        TinyLfuCache<String, String> expiring = new TinyLfuCache<>(10, null, 1000000L, stats);
+        expiring.put("a", "1");
+        Thread.sleep(5);
+        Assert.assertNull(expiring.get("a"));
+        Assert.assertEquals(stats.getExpirationCount(), 1);
+        Assert.assertEquals(expiring.size(), 0);
+    }
+
+    @Test
+    public void entityCache() throws Exception {
+        EntityCache<Foo> cache = new EntityCache<>(Foo.class, new CacheConfig());
+        Foo foo = new Foo();
+        foo.setId(1);
+        foo.setFoo1("a");
+        cache.put(foo);
+        foo.setFoo1("b");
+        Foo cached = cache.get(1L);
+        Assert.assertEquals(cached.getFoo1(), "a");
+        cached.setFoo1("c");
+        Assert.assertEquals(cache.get(1).getFoo1(), "a");
+        Assert.assertNull(cache.getKey((Object) null));
+        cache.invalidateById(1);
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals(cache.getStats().getInvalidationCount(), 1);
+    }
+}
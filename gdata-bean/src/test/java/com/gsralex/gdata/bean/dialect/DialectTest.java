@@ -0,0 +1,46 @@
+package com.gsralex.gdata.bean.dialect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class DialectTest {
+
+    @Test
+    public void getDialect() throws Exception {
+        Assert.assertEquals(Dialects.getDialect("MySQL").getName(), "mysql");
+        Assert.assertEquals(Dialects.getDialect("MariaDB").getName(), "mysql");
+        Assert.assertEquals(Dialects.getDialect("H2").getName(), "h2");
+        Assert.assertEquals(Dialects.getDialect("Microsoft SQL Server").getName(), "sqlserver");
+        Assert.assertSame(Dialects.getDialect("unknown"), Dialects.getDefault());
+        Assert.assertSame(Dialects.getDialect(null), Dialects.getDefault());
+    }
+
+    @Test
+    public void getUpsertSql() throws Exception {
+        List<String> columns = Arrays.asList("id", "name");
+        List<String> ids = Collections.singletonList("id");
+        Assert.assertEquals(new MySqlDialect().getUpsertSql("t", columns, ids, 2),
+                "insert into `t`(`id`,`name`) values(?,?),(?,?) on duplicate key update `name`=values(`name`)");
+        Assert.assertEquals(new PostgreSqlDialect().getUpsertSql("t", columns, ids, 1),
+                "insert into t(id,name) values(?,?) on conflict (id) do update set name=excluded.name");
+        Assert.assertEquals(new H2Dialect().getUpsertSql("t", columns, ids, 1),
+                "merge into t(id,name) key(id) values(?,?)");
+    }
+
+    @Test
+    public void streaming() throws Exception {
+        Assert.assertEquals(new MySqlDialect().getStreamingFetchSize(1000), Integer.MIN_VALUE);
+        Assert.assertEquals(new MySqlDialect().getStreamingFetchSize(0), 0);
+        Assert.assertEquals(new H2Dialect().getStreamingFetchSize(1000), 1000);
+        Assert.assertTrue(new PostgreSqlDialect().isCursorRequiresTransaction());
+        Assert.assertFalse(new MySqlDialect().isCursorRequiresTransaction());
+    }
+}
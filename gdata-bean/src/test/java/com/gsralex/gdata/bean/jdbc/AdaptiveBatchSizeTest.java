@@ -0,0 +1,56 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class AdaptiveBatchSizeTest {
+
+    private static final long MS = 1000000L;
+
+    @Test
+    public void aimd() throws Exception {
+        AdaptiveBatchSize adaptive = new AdaptiveBatchSize(100, 1000, 50);
+        adaptive.onFlush(100, 10 * MS);
+        Assert.assertEquals(adaptive.getBatchSize(), 200);
+        adaptive.onFlush(200, 20 * MS);
+        Assert.assertEquals(adaptive.getBatchSize(), 300);
+        //over the latency ceiling
+        adaptive.onFlush(300, 80 * MS);
+        Assert.assertEquals(adaptive.getBatchSize(), 150);
+        //tail batch is ignored
+        adaptive.onFlush(10, 80 * MS);
+        Assert.assertEquals(adaptive.getBatchSize(), 150);
+        adaptive.onBackoff();
+        adaptive.onBackoff();
+        Assert.assertEquals(adaptive.getBatchSize(), 100);
+        Assert.assertEquals(adaptive.getBackoffCount(), 2);
+        for (int i = 0; i < 20; i++) {
+            adaptive.onFlush(adaptive.getBatchSize(), adaptive.getBatchSize() * MS / 100);
+        }
+        Assert.assertEquals(adaptive.getBatchSize(), 1000);
+    }
+
+    @Test
+    public void throughputDrop() throws Exception {
+        AdaptiveBatchSize adaptive = new AdaptiveBatchSize(100, 1000, 1000);
+        adaptive.onFlush(100, 10 * MS);
+        //10000 rows/s -> 4000 rows/s
+        adaptive.onFlush(200, 50 * MS);
+        Assert.assertEquals(adaptive.getBatchSize(), 100);
+    }
+
+    @Test
+    public void isLockFailure() throws Exception {
+        Assert.assertTrue(AdaptiveBatchSize.isLockFailure(new SQLTransactionRollbackException()));
+        Assert.assertTrue(AdaptiveBatchSize.isLockFailure(new SQLException("deadlock", "40P01")));
+        Assert.assertTrue(AdaptiveBatchSize.isLockFailure(new SQLException("lock wait", "HY000", 1205)));
+        Assert.assertFalse(AdaptiveBatchSize.isLockFailure(new SQLException("syntax", "42000")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.exception.DataException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class AsyncJdbcUtilsTest {
+
+    private JdbcUtils jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("async"));
+
+    @Test
+    public void reject() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (AsyncJdbcUtils async = new AsyncJdbcUtils(jdbcUtils, 1, 1, false)) {
+            CompletableFuture<Integer> running = async.submit(session -> {
+                await(latch);
+                return 1;
+            });
+            CompletableFuture<Integer> queued = async.submit(session -> 2);
+            CompletableFuture<Integer> rejected = async.submit(session -> 3);
+            try {
+                rejected.join();
+                Assert.fail();
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            latch.countDown();
+            Assert.assertEquals(AsyncJdbcUtils.allOf(Arrays.asList(running, queued)).join(), Arrays.asList(1, 2));
+        }
+    }
+
+    @Test
+    public void cancelQueued() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        boolean[] executed = {false};
+        try (AsyncJdbcUtils async = new AsyncJdbcUtils(jdbcUtils, 1, 1)) {
+            CompletableFuture<Integer> running = async.submit(session -> {
+                await(latch);
+                return 1;
+            });
+            CompletableFuture<Integer> queued = async.submit(session -> {
+                executed[0] = true;
+                return 2;
+            });
+            Assert.assertTrue(queued.cancel(true));
+            latch.countDown();
+            Assert.assertEquals(running.join().intValue(), 1);
+            async.close();
+            async.awaitTermination(1, TimeUnit.SECONDS);
+            Assert.assertFalse(executed[0]);
+        }
+    }
+
+    @Test
+    public void cancelRunning() throws Exception {
+        //about 1000 seconds unless the statement is cancelled, h2 checks the cancel flag per row
+        H2DataSourceConfig.execute(jdbcUtils.getDataSource(),
+                "create alias pause for \"" + AsyncJdbcUtilsTest.class.getName() + ".pause\"");
+        String sql = "select sum(pause(10)) from system_range(1, 100000)";
+        Session[] sessions = {null};
+        Throwable[] errors = {null};
+        CountDownLatch started = new CountDownLatch(1);
+        AsyncJdbcUtils async = new AsyncJdbcUtils(jdbcUtils, 1, 1);
+        CompletableFuture<Integer> running = async.submit(session -> {
+            sessions[0] = session;
+            started.countDown();
+            try {
+                return session.queryForObject(sql, null, Integer.class);
+            } catch (DataException e) {
+                errors[0] = e;
+                throw e;
+            }
+        });
+        started.await();
+        //let the query reach the driver
+        Thread.sleep(300);
+        Assert.assertTrue(running.cancel(true));
+        async.close();
+        Assert.assertTrue(async.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue(running.isCancelled());
+        //the statement was cancelled in the driver and the session gave its connection back
+        //57014: statement was canceled
+        Assert.assertEquals(((SQLException) errors[0].getCause()).getSQLState(), "57014");
+        Assert.assertTrue(sessions[0].isClosed());
+        Assert.assertNull(sessions[0].getConnectionBinding().getState());
+        try {
+            running.get();
+            Assert.fail();
+        } catch (CancellationException e) {
+        }
+    }
+
+    public static int pause(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return 1;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.dialect.H2Dialect;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class CursorTest {
+
+    private static final String SQL = "select * from t_foo order by id";
+    private static final int ROWS = 10;
+
+    private BasicDataSource dataSource;
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        H2DataSourceConfig.getDataSource("cursor");
+        //a pool, so numActive tells whether the cursor gave its connection back
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:cursor;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        jdbcUtils = new JdbcUtils(dataSource);
+        List<Foo> list = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Foo foo = FooSource.getEntity();
+            foo.setFoo4(i);
+            list.add(foo);
+        }
+        jdbcUtils.batchInsert(list);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        JdbcConnHolder.closeConnection();
+        dataSource.close();
+    }
+
+    @Test
+    public void lazy() {
+        try (ResultCursor<Foo> cursor = jdbcUtils.queryForIterator(SQL, null, Foo.class, 2)) {
+            Assert.assertTrue(cursor.hasNext());
+            Assert.assertEquals(cursor.next().getFoo4(), 0);
+            //open until the last row is read, on a connection of its own
+            Assert.assertFalse(cursor.isClosed());
+            Assert.assertEquals(dataSource.getNumActive(), 1);
+            Assert.assertNull(JdbcConnHolder.getState());
+            int count = 1;
+            while (cursor.hasNext()) {
+                Assert.assertEquals(cursor.next().getFoo4(), count++);
+            }
+            Assert.assertEquals(count, ROWS);
+            Assert.assertTrue(cursor.isClosed());
+            Assert.assertEquals(dataSource.getNumActive(), 0);
+        }
+    }
+
+    @Test
+    public void nestedQuery() {
+        int count = 0;
+        try (ResultCursor<Foo> cursor = jdbcUtils.queryForIterator(SQL, null, Foo.class, 2)) {
+            while (cursor.hasNext()) {
+                Foo foo = cursor.next();
+                //other calls on this thread release their connection, not the cursor's
+                Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), foo.getFoo4());
+                jdbcUtils.executeUpdate("update t_foo set foo_1=? where id=?", new Object[]{"read", foo.getId()});
+                Assert.assertEquals(dataSource.getNumActive(), 1);
+                count++;
+            }
+        }
+        Assert.assertEquals(count, ROWS);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+        Assert.assertNull(JdbcConnHolder.getState());
+        Assert.assertEquals(jdbcUtils.queryForObject("select count(1) from t_foo where foo_1=?",
+                new Object[]{"read"}, Integer.class), Integer.valueOf(ROWS));
+    }
+
+    @Test
+    public void streamClose() {
+        try (Stream<Foo> stream = jdbcUtils.queryForStream(SQL, null, Foo.class, 2)) {
+            Iterator<Foo> it = stream.iterator();
+            Assert.assertEquals(it.next().getFoo4(), 0);
+            Assert.assertEquals(it.next().getFoo4(), 1);
+            Assert.assertEquals(dataSource.getNumActive(), 1);
+        }
+        //closed before the last row
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void inTransaction() {
+        jdbcUtils.inTransaction(() -> {
+            jdbcUtils.insert(FooSource.getEntity());
+            int count = 0;
+            //the cursor uses the transaction's connection and sees its writes
+            try (ResultCursor<Foo> cursor = jdbcUtils.queryForIterator(SQL, null, Foo.class, 2)) {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    count++;
+                }
+            }
+            Assert.assertEquals(count, ROWS + 1);
+            Assert.assertEquals(dataSource.getNumActive(), 1);
+            Assert.assertTrue(jdbcUtils.getConnectionBinding().inTransaction());
+            return null;
+        });
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void cursorRequiresTransaction() throws SQLException {
+        JdbcUtils cursorTx = new JdbcUtils(dataSource, new H2Dialect() {
+            @Override
+            public boolean isCursorRequiresTransaction() {
+                return true;
+            }
+        });
+        try (ResultCursor<Boolean> cursor = cursorTx.queryForIterator("select autocommit() from t_foo", null,
+                Boolean.class, 2)) {
+            //read in a local transaction on the cursor's connection
+            Assert.assertFalse(cursor.next());
+            //the thread's own calls stay in autocommit
+            cursorTx.executeUpdate("update t_foo set foo_1=? where id=?", new Object[]{"tx", 1});
+            Assert.assertFalse(cursorTx.getConnectionBinding().inTransaction());
+            Assert.assertEquals(dataSource.getNumActive(), 1);
+        }
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+        //the connection went back to the pool in autocommit
+        try (Connection connection = dataSource.getConnection()) {
+            Assert.assertTrue(connection.getAutoCommit());
+        }
+
+        //fetchSize 0 reads without the local transaction
+        try (ResultCursor<Boolean> cursor = cursorTx.queryForIterator("select autocommit() from t_foo", null,
+                Boolean.class, 0)) {
+            Assert.assertTrue(cursor.next());
+        }
+    }
+}
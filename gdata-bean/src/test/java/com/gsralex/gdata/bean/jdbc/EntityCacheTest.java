@@ -0,0 +1,141 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.cache.CacheConfig;
+import com.gsralex.gdata.bean.cache.EntityCache;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class EntityCacheTest {
+
+    private static volatile Runnable onRead;
+
+    private JdbcUtils jdbcUtils;
+    private EntityCache<Foo> cache;
+
+    private void setUp(DataSource dataSource) {
+        jdbcUtils = new JdbcUtils(dataSource);
+        jdbcUtils.setEntityCache(Foo.class, new CacheConfig());
+        cache = jdbcUtils.getEntityCache(Foo.class);
+    }
+
+    @After
+    public void tearDown() {
+        onRead = null;
+        JdbcConnHolder.closeConnection();
+    }
+
+    private Foo insert(int foo4) {
+        Foo foo = FooSource.getEntity();
+        foo.setFoo4(foo4);
+        jdbcUtils.insert(foo, true);
+        return foo;
+    }
+
+    @Test
+    public void generation() {
+        setUp(H2DataSourceConfig.getDataSource("entitycache"));
+        Foo foo = FooSource.getEntity();
+        foo.setId(1);
+
+        long generation = cache.getGeneration(1);
+        cache.invalidateById(1L);
+        Assert.assertFalse(cache.put(foo, generation));
+        Assert.assertNull(cache.get(1));
+
+        generation = cache.getGeneration(1);
+        Assert.assertTrue(cache.put(foo, generation));
+        Assert.assertNotNull(cache.get(1));
+
+        generation = cache.getGeneration(1);
+        cache.invalidateAll();
+        Assert.assertFalse(cache.put(foo, generation));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void findByIdUpdate() {
+        setUp(H2DataSourceConfig.getDataSource("entitycache"));
+        Foo foo = insert(1);
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), 1);
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), 1);
+        Assert.assertEquals(cache.getStats().getHitCount(), 1);
+
+        foo.setFoo4(2);
+        jdbcUtils.update(foo);
+        Assert.assertNull(cache.get(foo.getId()));
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), 2);
+        Assert.assertEquals(cache.get(foo.getId()).getFoo4(), 2);
+    }
+
+    @Test
+    public void afterCompletion() throws InterruptedException {
+        setUp(H2DataSourceConfig.getDataSource("entitycache"));
+        Foo foo = insert(1);
+        Foo[] read = new Foo[1];
+        jdbcUtils.inTransaction(() -> {
+            foo.setFoo4(2);
+            jdbcUtils.update(foo);
+            //inside the transaction the new row is read but not cached
+            Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), 2);
+            Assert.assertNull(cache.get(foo.getId()));
+
+            //another thread still sees the committed row and caches it
+            Thread reader = new Thread(() -> read[0] = jdbcUtils.findById(Foo.class, foo.getId()));
+            reader.start();
+            reader.join();
+            return null;
+        });
+        Assert.assertEquals(read[0].getFoo4(), 1);
+        //dropped again when the transaction committed
+        Assert.assertNull(cache.get(foo.getId()));
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), 2);
+    }
+
+    @Test
+    public void stalePut() {
+        //t_foo as a view, so a write can be simulated while findById/findByIds read the row
+        DataSource dataSource = H2DataSourceConfig.getDataSource("entitystale");
+        H2DataSourceConfig.execute(dataSource,
+                "alter table t_foo rename to t_foo_data",
+                "create alias touch for \"" + EntityCacheTest.class.getName() + ".touch\"",
+                "create view t_foo as select touch(id) id, foo_1, foo_2, foo_3, foo_4, foo_img, foo_5, foo_date, "
+                        + "foo_6 from t_foo_data");
+        setUp(dataSource);
+        H2DataSourceConfig.execute(dataSource, "insert into t_foo_data(foo_4) values(1)",
+                "insert into t_foo_data(foo_4) values(2)");
+
+        onRead = () -> cache.invalidateById(1);
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, 1).getFoo4(), 1);
+        Assert.assertNull(cache.get(1));
+
+        Map<Object, Foo> map = jdbcUtils.findByIds(Foo.class, Arrays.asList(1, 2));
+        Assert.assertEquals(map.size(), 2);
+        //only the invalidated id is skipped
+        Assert.assertNull(cache.get(1));
+        Assert.assertNotNull(cache.get(2));
+
+        onRead = null;
+        jdbcUtils.findById(Foo.class, 1);
+        Assert.assertEquals(cache.get(1).getFoo4(), 1);
+    }
+
+    public static int touch(int id) {
+        Runnable runnable = onRead;
+        if (runnable != null) {
+            runnable.run();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,71 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class InListTest {
+
+    private JdbcUtils jdbcUtils;
+    private List<Foo> list;
+
+    @Before
+    public void setUp() {
+        jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("inlist"));
+        jdbcUtils.setInListSize(3);
+        list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Foo foo = FooSource.getEntity();
+            foo.setFoo4(i);
+            list.add(foo);
+        }
+        jdbcUtils.batchInsert(list, true);
+    }
+
+    @Test
+    public void findByIds() {
+        Assert.assertTrue(jdbcUtils.findByIds(Foo.class, Collections.emptyList()).isEmpty());
+        Assert.assertTrue(jdbcUtils.findByIds(Foo.class, null).isEmpty());
+
+        //8 distinct ids in 3 chunks, two of them missing, one repeated
+        List<Object> ids = new ArrayList<>();
+        for (int i : new int[]{9, 0, 4, 7, 4, 2, 5, 1}) {
+            ids.add(list.get(i).getId());
+        }
+        ids.add(-1);
+        ids.add(-2);
+        Map<Object, Foo> map = jdbcUtils.findByIds(Foo.class, ids);
+        Assert.assertEquals(new ArrayList<>(map.keySet()), Arrays.<Object>asList(
+                list.get(9).getId(), list.get(0).getId(), list.get(4).getId(), list.get(7).getId(),
+                list.get(2).getId(), list.get(5).getId(), list.get(1).getId()));
+        for (Map.Entry<Object, Foo> entry : map.entrySet()) {
+            Assert.assertEquals(entry.getValue().getId(), entry.getKey());
+        }
+        Assert.assertEquals(map.get(list.get(7).getId()).getFoo4(), 7);
+    }
+
+    @Test
+    public void batchDeleteInList() {
+        jdbcUtils.setBatchDeleteInList(true);
+        Assert.assertEquals(jdbcUtils.batchDelete(Collections.<Foo>emptyList()), 0);
+        Assert.assertEquals(jdbcUtils.batchDelete(list.subList(0, 7)), 7);
+        Assert.assertEquals(jdbcUtils.queryForObject("select count(1) from t_foo", null, Integer.class).intValue(), 3);
+        Assert.assertNull(jdbcUtils.findById(Foo.class, list.get(6).getId()));
+        Assert.assertNotNull(jdbcUtils.findById(Foo.class, list.get(7).getId()));
+        //already deleted rows are not counted
+        Assert.assertEquals(jdbcUtils.batchDelete(list.subList(5, 9)), 2);
+    }
+}
@@ -0,0 +1,74 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.dialect.H2Dialect;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class MultiRowInsertTest {
+
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        //8 insert columns per Foo, so at most 2 rows per statement
+        H2Dialect dialect = new H2Dialect() {
+            @Override
+            public int getMaxParameterCount() {
+                return 20;
+            }
+        };
+        jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("multirow"), dialect);
+        jdbcUtils.setMultiRowInsert(true);
+        jdbcUtils.setStatementCacheSize(8);
+    }
+
+    private static List<Foo> list(int size) {
+        List<Foo> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Foo foo = FooSource.getEntity();
+            foo.setFoo4(100 + i);
+            list.add(foo);
+        }
+        return list;
+    }
+
+    @Test
+    public void parameterLimit() {
+        List<Foo> list = list(5);
+        Assert.assertEquals(jdbcUtils.batchInsert(list, true), 5);
+        //2 + 2 + 1 rows: the 2-row statement is prepared once and reused
+        StatementCacheStats stats = jdbcUtils.getStatementCacheStats();
+        Assert.assertEquals(stats.getMissCount(), 2);
+        Assert.assertEquals(stats.getHitCount(), 1);
+        for (int i = 0; i < list.size(); i++) {
+            Foo foo = list.get(i);
+            if (i != 0) {
+                Assert.assertTrue(foo.getId() > list.get(i - 1).getId());
+            }
+            Foo data = jdbcUtils.findById(Foo.class, foo.getId());
+            Assert.assertEquals(data.getFoo4(), foo.getFoo4());
+        }
+    }
+
+    @Test
+    public void multiRowInsertSize() {
+        jdbcUtils.setMultiRowInsertSize(1);
+        List<Foo> list = list(3);
+        Assert.assertEquals(jdbcUtils.batchInsert(list, true), 3);
+        Assert.assertEquals(jdbcUtils.getStatementCacheStats().getHitCount(), 2);
+        Assert.assertEquals(list.get(2).getId(), list.get(0).getId() + 2);
+        Assert.assertEquals(jdbcUtils.batchInsert(list(7), false), 7);
+        Assert.assertEquals(jdbcUtils.queryForObject("select count(1) from t_foo", null, Integer.class).intValue(), 10);
+    }
+}
@@ -0,0 +1,266 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.flow.Publisher;
+import com.gsralex.gdata.bean.flow.Subscriber;
+import com.gsralex.gdata.bean.flow.Subscription;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class QueryPublisherTest {
+
+    private static final String SQL = "select * from t_foo order by id";
+
+    private BasicDataSource dataSource;
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        H2DataSourceConfig.getDataSource("publisher");
+        //a pool, so numActive tells whether the subscription gave its connection back
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:publisher;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        jdbcUtils = new JdbcUtils(dataSource);
+        List<Foo> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Foo foo = FooSource.getEntity();
+            foo.setFoo4(i);
+            list.add(foo);
+        }
+        jdbcUtils.batchInsert(list);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        dataSource.close();
+    }
+
+    @Test
+    public void requestDemand() {
+        RecordingSubscriber subscriber = subscribe(jdbcUtils.queryForPublisher(SQL, null, Foo.class));
+        Assert.assertEquals(subscriber.items.size(), 0);
+        //nothing is queried before the first request
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+
+        subscriber.subscription.request(3);
+        assertFoo4(subscriber.items, 0, 3);
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertEquals(dataSource.getNumActive(), 1);
+
+        subscriber.subscription.request(4);
+        assertFoo4(subscriber.items, 0, 7);
+        Assert.assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertFoo4(subscriber.items, 0, 10);
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+
+        //signals after onComplete are ignored
+        subscriber.subscription.request(1);
+        Assert.assertEquals(subscriber.items.size(), 10);
+        Assert.assertEquals(subscriber.completeCount, 1);
+    }
+
+    @Test
+    public void requestExact() {
+        //demand equal to the row count still completes, prefetch smaller than the demand
+        RecordingSubscriber subscriber = subscribe(jdbcUtils.queryForPublisher(SQL, null, Foo.class, 3, null));
+        subscriber.subscription.request(10);
+        assertFoo4(subscriber.items, 0, 10);
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void requestInOnNext() {
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Foo item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        jdbcUtils.queryForPublisher(SQL, null, Foo.class).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertFoo4(subscriber.items, 0, 10);
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void cancel() {
+        RecordingSubscriber subscriber = subscribe(jdbcUtils.queryForPublisher(SQL, null, Foo.class, 2, null));
+        subscriber.subscription.request(3);
+        Assert.assertEquals(dataSource.getNumActive(), 1);
+
+        subscriber.subscription.cancel();
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+        subscriber.subscription.request(5);
+        subscriber.subscription.cancel();
+        assertFoo4(subscriber.items, 0, 3);
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void cancelInOnNext() {
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Foo item) {
+                super.onNext(item);
+                if (items.size() == 4) {
+                    subscription.cancel();
+                }
+            }
+        };
+        jdbcUtils.queryForPublisher(SQL, null, Foo.class).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertFoo4(subscriber.items, 0, 4);
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void empty() {
+        jdbcUtils.executeUpdate("delete from t_foo", null);
+        RecordingSubscriber subscriber = subscribe(jdbcUtils.queryForPublisher(SQL, null, Foo.class));
+        subscriber.subscription.request(1);
+        Assert.assertEquals(subscriber.items.size(), 0);
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void error() {
+        RecordingSubscriber subscriber = subscribe(
+                jdbcUtils.queryForPublisher("select * from t_missing", null, Foo.class));
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.error instanceof DataException);
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+
+        subscriber.subscription.request(1);
+        Assert.assertEquals(subscriber.errorCount, 1);
+    }
+
+    @Test
+    public void requestZero() {
+        RecordingSubscriber subscriber = subscribe(jdbcUtils.queryForPublisher(SQL, null, Foo.class));
+        subscriber.subscription.request(0);
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assert.assertEquals(subscriber.items.size(), 0);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+    }
+
+    @Test
+    public void requestNegativeAfterOpen() {
+        RecordingSubscriber subscriber = subscribe(jdbcUtils.queryForPublisher(SQL, null, Foo.class));
+        subscriber.subscription.request(2);
+        Assert.assertEquals(dataSource.getNumActive(), 1);
+
+        //the open cursor is closed before onError
+        subscriber.subscription.request(-1);
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assert.assertEquals(dataSource.getNumActive(), 0);
+        assertFoo4(subscriber.items, 0, 2);
+        Assert.assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void executor() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            RecordingSubscriber subscriber = new RecordingSubscriber() {
+                @Override
+                public void onNext(Foo item) {
+                    super.onNext(item);
+                    //one more per item, requested from the executor thread
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onComplete() {
+                    super.onComplete();
+                    done.countDown();
+                }
+            };
+            jdbcUtils.queryForPublisher(SQL, null, Foo.class, 2, executor).subscribe(subscriber);
+            subscriber.subscription.request(1);
+            Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertFoo4(subscriber.items, 0, 10);
+            Assert.assertNull(subscriber.error);
+            Assert.assertEquals(dataSource.getNumActive(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static RecordingSubscriber subscribe(Publisher<Foo> publisher) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        Assert.assertNotNull(subscriber.subscription);
+        return subscriber;
+    }
+
+    private static void assertFoo4(List<Foo> items, int from, int to) {
+        Assert.assertEquals(items.size(), to - from);
+        for (int i = from; i < to; i++) {
+            Assert.assertEquals(items.get(i - from).getFoo4(), i);
+        }
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Foo> {
+
+        protected final List<Foo> items = new ArrayList<>();
+        protected volatile Subscription subscription;
+        private volatile boolean completed;
+        private volatile int completeCount;
+        private volatile Throwable error;
+        private volatile int errorCount;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Foo item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            errorCount++;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            completeCount++;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SessionTest {
+
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("session"));
+    }
+
+    private int count() {
+        return jdbcUtils.queryForObject("select count(1) from t_foo", null, Integer.class);
+    }
+
+    @Test
+    public void session() throws Exception {
+        jdbcUtils.setStatementCacheSize(8);
+        Session session = jdbcUtils.openSession();
+        Assert.assertEquals(session.getStatementCacheSize(), 8);
+        //lazy
+        Assert.assertNull(session.getConnectionBinding().getState());
+        session.inTransaction(() -> session.insert(FooSource.getEntity()));
+        ConnectionState state = session.getConnectionBinding().getState();
+        Connection connection = state.getConnection();
+        session.inTransaction(() -> session.insert(FooSource.getEntity()));
+        Assert.assertSame(session.getConnectionBinding().getState(), state);
+        Assert.assertNull(JdbcConnHolder.getState());
+        Assert.assertFalse(connection.isClosed());
+        Assert.assertEquals(count(), 2);
+
+        //uncommitted work is rolled back before the connection is closed
+        session.setAutoCommit(false);
+        session.insert(FooSource.getEntity());
+        session.close();
+        Assert.assertTrue(session.isClosed());
+        Assert.assertTrue(connection.isClosed());
+        Assert.assertNull(session.getConnectionBinding().getState());
+        Assert.assertEquals(count(), 2);
+    }
+
+    @Test
+    public void sharedPlanCache() {
+        String sql = "select * from t_foo where foo_4=?";
+        jdbcUtils.insert(FooSource.getEntity());
+        jdbcUtils.queryForList(sql, new Object[]{1}, Foo.class);
+        try (Session session = jdbcUtils.openSession()) {
+            Assert.assertSame(session.getMapperHelper(), jdbcUtils.getMapperHelper());
+            List<Foo> list = session.queryForList(sql, new Object[]{1}, Foo.class);
+            Assert.assertEquals(list.size(), 1);
+        }
+    }
+}
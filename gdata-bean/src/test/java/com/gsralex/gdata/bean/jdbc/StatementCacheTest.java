@@ -0,0 +1,41 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class StatementCacheTest {
+
+    @Test
+    public void lru() throws Exception {
+        try (Connection connection = H2DataSourceConfig.getDataSource("stmtcache").getConnection()) {
+            StatementCacheStats stats = new StatementCacheStats();
+            StatementCache cache = new StatementCache(connection, 2, stats);
+            String a = "select id from t_foo";
+            String b = "select foo_1 from t_foo";
+            PreparedStatement ps = cache.prepareStatement(a, false);
+            cache.release(ps, false);
+            Assert.assertSame(cache.prepareStatement(a, false), ps);
+            //different generated keys mode
+            PreparedStatement ps1 = cache.prepareStatement(a, true);
+            Assert.assertNotSame(ps1, ps);
+            cache.release(ps, false);
+            cache.release(ps1, false);
+            cache.release(cache.prepareStatement(b, false), false);
+            Assert.assertEquals(cache.size(), 2);
+            Assert.assertTrue(ps.isClosed());
+            Assert.assertEquals(stats.getHitCount(), 1);
+            Assert.assertEquals(stats.getMissCount(), 3);
+            Assert.assertEquals(stats.getEvictionCount(), 1);
+            cache.close();
+            Assert.assertTrue(ps1.isClosed());
+        }
+    }
+}
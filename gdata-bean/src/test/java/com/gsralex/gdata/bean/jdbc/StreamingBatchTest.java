@@ -0,0 +1,199 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.cache.CacheConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.exception.DataException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class StreamingBatchTest {
+
+    private JdbcUtils jdbcUtils;
+    private List<long[]> progress;
+
+    @Before
+    public void setUp() {
+        jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("streambatch"));
+        progress = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        JdbcConnHolder.closeConnection();
+    }
+
+    private BatchOptions options(int batchSize, int commitSize) {
+        BatchOptions options = new BatchOptions();
+        options.setBatchSize(batchSize);
+        options.setCommitSize(commitSize);
+        options.setListener((flushedRows, committedRows) -> progress.add(new long[]{flushedRows, committedRows}));
+        return options;
+    }
+
+    private static List<Foo> fooList(int size) {
+        List<Foo> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Foo foo = FooSource.getEntity();
+            foo.setFoo4(i);
+            list.add(foo);
+        }
+        return list;
+    }
+
+    private List<Integer> foo4List() {
+        return jdbcUtils.queryForList("select foo_4 from t_foo order by foo_4", null, Integer.class);
+    }
+
+    private void assertProgress(long[]... expected) {
+        Assert.assertEquals(progress.size(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertArrayEquals(progress.get(i), expected[i]);
+        }
+    }
+
+    @Test
+    public void commitSize() {
+        Assert.assertEquals(jdbcUtils.batchInsert(fooList(12), options(3, 5)), 12);
+        //a commit boundary flushes early, the tail is flushed and committed at the end
+        assertProgress(new long[]{3, 0}, new long[]{5, 5}, new long[]{8, 5}, new long[]{10, 10},
+                new long[]{12, 10}, new long[]{12, 12});
+        Assert.assertEquals(foo4List().size(), 12);
+        Assert.assertNull(JdbcConnHolder.getState());
+    }
+
+    @Test
+    public void finalPartialFlush() {
+        Assert.assertEquals(jdbcUtils.batchInsert(fooList(7).stream(), options(5, 0)), 7);
+        assertProgress(new long[]{5, 0}, new long[]{7, 0}, new long[]{7, 7});
+        Assert.assertEquals(foo4List(), Arrays.asList(0, 1, 2, 3, 4, 5, 6));
+    }
+
+    @Test
+    public void exactCommitSize() {
+        //the last flush is also a commit boundary, no extra progress after the final commit
+        Assert.assertEquals(jdbcUtils.batchInsert(fooList(6), options(3, 3)), 6);
+        assertProgress(new long[]{3, 3}, new long[]{6, 6});
+    }
+
+    @Test
+    public void empty() {
+        Assert.assertEquals(jdbcUtils.batchInsert(new ArrayList<Foo>(), options(3, 3)), 0);
+        Assert.assertEquals(jdbcUtils.batchInsert(Arrays.asList((Foo) null, null), options(3, 3)), 0);
+        Assert.assertTrue(progress.isEmpty());
+    }
+
+    @Test
+    public void generatedKey() {
+        List<Foo> list = fooList(8);
+        BatchOptions options = options(3, 0);
+        options.setGeneratedKey(true);
+        jdbcUtils.batchInsert(list, options);
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < list.size(); i++) {
+            Foo foo = list.get(i);
+            Assert.assertTrue(foo.getId() > 0);
+            Assert.assertTrue(ids.add(foo.getId()));
+            Assert.assertEquals(jdbcUtils.findById(Foo.class, foo.getId()).getFoo4(), i);
+        }
+    }
+
+    @Test
+    public void rollbackFailedChunk() {
+        List<Foo> list = fooList(8);
+        //longer than foo_1 varchar(100)
+        char[] chars = new char[200];
+        Arrays.fill(chars, 'a');
+        list.get(6).setFoo1(new String(chars));
+        try {
+            jdbcUtils.batchInsert(list, options(2, 4));
+            Assert.fail();
+        } catch (DataException e) {
+        }
+        //rows 4 and 5 were flushed but not committed
+        assertProgress(new long[]{2, 0}, new long[]{4, 4}, new long[]{6, 4});
+        Assert.assertEquals(foo4List(), Arrays.asList(0, 1, 2, 3));
+        Assert.assertNull(JdbcConnHolder.getState());
+    }
+
+    @Test
+    public void rollbackInTransaction() {
+        List<Foo> list = fooList(8);
+        char[] chars = new char[200];
+        Arrays.fill(chars, 'a');
+        list.get(6).setFoo1(new String(chars));
+        try {
+            jdbcUtils.inTransaction(() -> jdbcUtils.batchInsert(list, options(2, 4)));
+            Assert.fail();
+        } catch (DataException e) {
+        }
+        //commitSize is ignored inside a transaction
+        assertProgress(new long[]{2, 0}, new long[]{4, 0}, new long[]{6, 0});
+        Assert.assertTrue(foo4List().isEmpty());
+    }
+
+    @Test
+    public void updateAndDelete() {
+        List<Foo> list = fooList(5);
+        jdbcUtils.batchInsert(list, true);
+        jdbcUtils.setEntityCache(Foo.class, new CacheConfig());
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, list.get(0).getId()).getFoo4(), 0);
+
+        for (Foo foo : list) {
+            foo.setFoo4(foo.getFoo4() + 10);
+        }
+        Assert.assertEquals(jdbcUtils.batchUpdate(list.stream(), options(2, 0)), 5);
+        //the cached row is dropped by the update
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, list.get(0).getId()).getFoo4(), 10);
+        Assert.assertEquals(foo4List(), Arrays.asList(10, 11, 12, 13, 14));
+
+        Assert.assertEquals(jdbcUtils.batchDelete(list.subList(0, 3), options(2, 2)), 3);
+        Assert.assertNull(jdbcUtils.findById(Foo.class, list.get(0).getId()));
+        Assert.assertEquals(foo4List(), Arrays.asList(13, 14));
+    }
+
+    @Test
+    public void completionCallbacks() {
+        List<Foo> list = fooList(50);
+        jdbcUtils.batchInsert(list, true);
+        jdbcUtils.setEntityCache(Foo.class, new CacheConfig());
+        for (Foo foo : list) {
+            foo.setFoo4(foo.getFoo4() + 100);
+        }
+        jdbcUtils.inTransaction(() -> {
+            jdbcUtils.batchUpdate(list, options(10, 0));
+            //one deferred invalidation for the whole stream, not one per row
+            ConnectionState state = jdbcUtils.getConnectionBinding().getState();
+            Assert.assertEquals(state.getCompletionCallbackCount(), 1);
+            return null;
+        });
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, list.get(0).getId()).getFoo4(), 100);
+
+        //callbacks of committed work run at the intermediate commit, not at the end
+        int[] ranAt = new int[1];
+        BatchOptions options = options(2, 4);
+        options.setListener((flushedRows, committedRows) -> {
+            progress.add(new long[]{flushedRows, committedRows});
+            if (progress.size() == 1) {
+                jdbcUtils.getConnectionBinding().getState().afterCompletion(() -> ranAt[0] = progress.size());
+            }
+        });
+        progress.clear();
+        jdbcUtils.batchUpdate(list.subList(0, 8), options);
+        assertProgress(new long[]{2, 0}, new long[]{4, 4}, new long[]{6, 4}, new long[]{8, 8});
+        Assert.assertEquals(ranAt[0], 1);
+    }
+}
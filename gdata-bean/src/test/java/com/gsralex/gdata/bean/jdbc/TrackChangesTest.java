@@ -0,0 +1,155 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TrackChangesTest {
+
+    private DataSource dataSource;
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        dataSource = H2DataSourceConfig.getDataSource("trackchanges");
+        jdbcUtils = new JdbcUtils(dataSource);
+        jdbcUtils.setTrackChanges(true);
+    }
+
+    private Foo insert(int foo4) {
+        Foo foo = FooSource.getEntity();
+        foo.setFoo4(foo4);
+        jdbcUtils.insert(foo, true);
+        return foo;
+    }
+
+    private int getFoo4(int id) {
+        return jdbcUtils.queryForObject("select foo_4 from t_foo where id=?", new Object[]{id}, Integer.class);
+    }
+
+    private String getFoo1(int id) {
+        return jdbcUtils.queryForObject("select foo_1 from t_foo where id=?", new Object[]{id}, String.class);
+    }
+
+    @Test
+    public void updateChanged() {
+        int id = insert(1).getId();
+        Foo foo = jdbcUtils.findById(Foo.class, id);
+        //nothing changed since the query, no sql is executed
+        Assert.assertFalse(jdbcUtils.updateChanged(foo));
+
+        foo.setFoo4(2);
+        //another writer changes foo_1, only foo_4 is written back
+        jdbcUtils.executeUpdate("update t_foo set foo_1=? where id=?", new Object[]{"other", id});
+        Assert.assertTrue(jdbcUtils.updateChanged(foo));
+        Assert.assertEquals(getFoo4(id), 2);
+        Assert.assertEquals(getFoo1(id), "other");
+        Assert.assertFalse(jdbcUtils.updateChanged(foo));
+
+        List<Foo> list = jdbcUtils.queryForList("select * from t_foo where id=?", new Object[]{id}, Foo.class);
+        Assert.assertFalse(jdbcUtils.updateChanged(list.get(0)));
+    }
+
+    @Test
+    public void batchUpdateChanged() {
+        int id1 = insert(1).getId();
+        int id2 = insert(1).getId();
+        int id3 = insert(1).getId();
+        List<Foo> list = jdbcUtils.queryForList("select * from t_foo order by id", null, Foo.class);
+        list.get(0).setFoo4(2);
+        list.get(1).setFoo1("changed");
+        list.get(2).setFoo4(3);
+        //two groups: foo_4 and foo_1
+        Assert.assertEquals(jdbcUtils.batchUpdateChanged(list), 3);
+        Assert.assertEquals(getFoo4(id1), 2);
+        Assert.assertEquals(getFoo1(id2), "changed");
+        Assert.assertEquals(getFoo4(id2), 1);
+        Assert.assertEquals(getFoo4(id3), 3);
+        Assert.assertEquals(jdbcUtils.batchUpdateChanged(list), 0);
+    }
+
+    @Test
+    public void batchUpdateChangedNotMatched() {
+        Foo existing = jdbcUtils.findById(Foo.class, insert(1).getId());
+        Foo missing = FooSource.getEntity();
+        missing.setId(999);
+        jdbcUtils.snapshot(missing);
+        existing.setFoo4(2);
+        missing.setFoo4(2);
+        jdbcUtils.batchUpdateChanged(Arrays.asList(existing, missing));
+        Assert.assertFalse(jdbcUtils.updateChanged(existing));
+
+        //the row that matched nothing keeps its old snapshot and is written again
+        H2DataSourceConfig.execute(dataSource, "insert into t_foo(id, foo_4) values(999, 1)");
+        Assert.assertTrue(jdbcUtils.updateChanged(missing));
+        Assert.assertEquals(getFoo4(999), 2);
+    }
+
+    @Test
+    public void rollback() {
+        int id = insert(1).getId();
+        Foo foo = jdbcUtils.findById(Foo.class, id);
+        foo.setFoo4(2);
+        try {
+            jdbcUtils.inTransaction(() -> {
+                Assert.assertTrue(jdbcUtils.updateChanged(foo));
+                throw new IllegalStateException("rollback");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        Assert.assertEquals(getFoo4(id), 1);
+        //the rolled back change is still pending
+        Assert.assertTrue(jdbcUtils.updateChanged(foo));
+        Assert.assertEquals(getFoo4(id), 2);
+
+        List<Foo> list = jdbcUtils.queryForList("select * from t_foo where id=?", new Object[]{id}, Foo.class);
+        list.get(0).setFoo4(3);
+        try {
+            jdbcUtils.inTransaction(() -> {
+                jdbcUtils.batchUpdateChanged(list);
+                throw new IllegalStateException("rollback");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        Assert.assertEquals(jdbcUtils.batchUpdateChanged(list), 1);
+        Assert.assertEquals(getFoo4(id), 3);
+    }
+
+    @Test
+    public void nestedRollback() {
+        int id = insert(1).getId();
+        Foo foo = jdbcUtils.findById(Foo.class, id);
+        foo.setFoo4(2);
+        jdbcUtils.inTransaction(() -> {
+            try {
+                jdbcUtils.inTransaction(Propagation.NESTED, () -> {
+                    jdbcUtils.updateChanged(foo);
+                    throw new IllegalStateException("rollback");
+                });
+            } catch (IllegalStateException e) {
+            }
+            return null;
+        });
+        //the savepoint was rolled back, the outer commit does not take the snapshot
+        Assert.assertEquals(getFoo4(id), 1);
+        Assert.assertTrue(jdbcUtils.updateChanged(foo));
+
+        foo.setFoo4(3);
+        jdbcUtils.inTransaction(() -> jdbcUtils.updateChanged(foo));
+        Assert.assertEquals(getFoo4(id), 3);
+        Assert.assertFalse(jdbcUtils.updateChanged(foo));
+    }
+}
@@ -0,0 +1,172 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TransactionTemplateTest {
+
+    private DataSource dataSource;
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        dataSource = H2DataSourceConfig.getDataSource("tx");
+        jdbcUtils = new JdbcUtils(dataSource);
+    }
+
+    @After
+    public void tearDown() {
+        JdbcConnHolder.closeConnection();
+    }
+
+    private void insert(int foo4) {
+        Foo foo = FooSource.getEntity();
+        foo.setFoo4(foo4);
+        jdbcUtils.insert(foo);
+    }
+
+    private List<Integer> foo4List() {
+        return jdbcUtils.queryForList("select foo_4 from t_foo order by foo_4", null, Integer.class);
+    }
+
+    @Test
+    public void requiresNew() {
+        try {
+            jdbcUtils.inTransaction(() -> {
+                insert(1);
+                ConnectionState outer = JdbcConnHolder.getState();
+                jdbcUtils.inTransaction(Propagation.REQUIRES_NEW, () -> {
+                    Assert.assertNotSame(JdbcConnHolder.getState(), outer);
+                    insert(2);
+                    return null;
+                });
+                Assert.assertSame(JdbcConnHolder.getState(), outer);
+                Assert.assertFalse(outer.isAutoCommit());
+                throw new IllegalStateException("outer");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        Assert.assertNull(JdbcConnHolder.getState());
+        Assert.assertEquals(foo4List(), Arrays.asList(2));
+    }
+
+    @Test
+    public void nested() {
+        jdbcUtils.inTransaction(() -> {
+            insert(1);
+            try {
+                jdbcUtils.inTransaction(Propagation.NESTED, () -> {
+                    insert(2);
+                    throw new IllegalStateException("nested");
+                });
+                Assert.fail();
+            } catch (IllegalStateException e) {
+            }
+            jdbcUtils.inTransaction(Propagation.NESTED, () -> {
+                insert(3);
+                return null;
+            });
+            return null;
+        });
+        Assert.assertEquals(foo4List(), Arrays.asList(1, 3));
+    }
+
+    @Test
+    public void rollbackOnly() {
+        try {
+            jdbcUtils.inTransaction(() -> {
+                insert(1);
+                try {
+                    jdbcUtils.inTransaction(() -> {
+                        throw new IllegalStateException("joined");
+                    });
+                } catch (IllegalStateException e) {
+                    //swallowed, but the joined transaction already marked the outer one
+                }
+                Assert.assertTrue(JdbcConnHolder.getState().isRollbackOnly());
+                return null;
+            });
+            Assert.fail();
+        } catch (DataException e) {
+            Assert.assertEquals(e.getMessage(), ExceptionMessage.TX_ROLLBACKONLY);
+        }
+        Assert.assertTrue(foo4List().isEmpty());
+    }
+
+    @Test
+    public void afterCompletion() {
+        List<String> events = new ArrayList<>();
+        jdbcUtils.inTransaction(() -> {
+            insert(1);
+            JdbcConnHolder.getState().afterCompletion(() -> events.add("committed"));
+            Assert.assertTrue(events.isEmpty());
+            return null;
+        });
+        Assert.assertEquals(events, Arrays.asList("committed"));
+        try {
+            jdbcUtils.inTransaction(() -> {
+                JdbcConnHolder.getState().afterCompletion(() -> events.add("rolledback"));
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException e) {
+        }
+        Assert.assertEquals(events, Arrays.asList("committed", "rolledback"));
+    }
+
+    @Test
+    public void batchLocalTransaction() {
+        String sql = "insert into t_foo(id, foo_4) values(?, ?)";
+        Assert.assertEquals(jdbcUtils.executeBatch(sql, Arrays.asList(new Object[]{1, 1}, new Object[]{2, 2})), 2);
+        //the local transaction is committed and the connection given back
+        Assert.assertNull(JdbcConnHolder.getState());
+        try {
+            jdbcUtils.executeBatch(sql, Arrays.asList(new Object[]{3, 3}, new Object[]{1, 4}));
+            Assert.fail();
+        } catch (DataException e) {
+        }
+        Assert.assertNull(JdbcConnHolder.getState());
+        Assert.assertEquals(foo4List(), Arrays.asList(1, 2));
+    }
+
+    @Test
+    public void autoCommitFalseDataSource() throws Exception {
+        BasicDataSource manual = new BasicDataSource();
+        manual.setDriverClassName("org.h2.Driver");
+        manual.setUrl("jdbc:h2:mem:tx;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        manual.setUsername("sa");
+        manual.setDefaultAutoCommit(false);
+        try {
+            JdbcUtils manualUtils = new JdbcUtils(manual);
+            manualUtils.executeUpdate("insert into t_foo(foo_4) values(?)", new Object[]{1});
+            //the connection is in a transaction, so it stays bound to the thread
+            ConnectionState state = JdbcConnHolder.getState();
+            Assert.assertNotNull(state);
+            Assert.assertFalse(manualUtils.getAutoCommit());
+            manualUtils.executeUpdate("insert into t_foo(foo_4) values(?)", new Object[]{2});
+            Assert.assertSame(JdbcConnHolder.getState(), state);
+            manualUtils.commit();
+            Assert.assertNull(JdbcConnHolder.getState());
+            Assert.assertEquals(foo4List(), Arrays.asList(1, 2));
+        } finally {
+            manual.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.sqlstatement.SqlUpsertStatement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class UpsertTest {
+
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("upsert"));
+    }
+
+    private static Foo foo(int id, String foo1) {
+        Foo foo = FooSource.getEntity();
+        foo.setId(id);
+        foo.setFoo1(foo1);
+        return foo;
+    }
+
+    @Test
+    public void upsert() {
+        Assert.assertTrue(jdbcUtils.upsert(foo(1, "a")));
+        Assert.assertTrue(jdbcUtils.upsert(foo(1, "b")));
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, 1).getFoo1(), "b");
+        Assert.assertEquals(jdbcUtils.queryForObject("select count(1) from t_foo", null, Integer.class).intValue(), 1);
+    }
+
+    @Test
+    public void batchUpsertDuplicateIds() {
+        jdbcUtils.insert(foo(1, "old"));
+        jdbcUtils.setMultiRowInsertSize(2);
+        List<Foo> list = Arrays.asList(foo(1, "a"), foo(2, "b"), foo(1, "c"), foo(3, "d"), foo(2, "e"));
+        jdbcUtils.batchUpsert(list);
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, 1).getFoo1(), "c");
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, 2).getFoo1(), "e");
+        Assert.assertEquals(jdbcUtils.findById(Foo.class, 3).getFoo1(), "d");
+        Assert.assertEquals(jdbcUtils.queryForObject("select count(1) from t_foo", null, Integer.class).intValue(), 3);
+    }
+
+    @Test
+    public void distinctById() {
+        SqlUpsertStatement statement = new SqlUpsertStatement(jdbcUtils.getDialect());
+        Foo a = foo(1, "a");
+        Foo b = foo(2, "b");
+        Foo c = foo(1, "c");
+        Assert.assertEquals(statement.distinctById(Arrays.asList(a, b, c)), Arrays.asList(b, c));
+        List<Foo> distinct = Arrays.asList(a, b);
+        Assert.assertSame(statement.distinctById(distinct), distinct);
+    }
+}
@@ -0,0 +1,195 @@
+package com.gsralex.gdata.bean.jdbc;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.exception.DataException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class WriteBehindBufferTest {
+
+    private static final long NEVER = 60000;
+
+    private JdbcUtils jdbcUtils;
+    private WriteBehindBuffer<Foo> buffer;
+
+    @Before
+    public void setUp() {
+        jdbcUtils = new JdbcUtils(H2DataSourceConfig.getDataSource("writebehind"));
+    }
+
+    @After
+    public void tearDown() {
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    private static Foo foo(int foo4) {
+        Foo foo = FooSource.getEntity();
+        foo.setFoo4(foo4);
+        return foo;
+    }
+
+    private static Foo tooLong(int foo4) {
+        Foo foo = foo(foo4);
+        //longer than foo_1 varchar(100)
+        char[] chars = new char[200];
+        Arrays.fill(chars, 'a');
+        foo.setFoo1(new String(chars));
+        return foo;
+    }
+
+    private List<Integer> foo4List() {
+        return jdbcUtils.queryForList("select foo_4 from t_foo order by foo_4", null, Integer.class);
+    }
+
+    private static void get(CompletableFuture<Void> future) throws Exception {
+        future.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void sizeTrigger() throws Exception {
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 3, NEVER);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(buffer.insert(foo(i)));
+        }
+        for (CompletableFuture<Void> future : futures) {
+            get(future);
+        }
+        Assert.assertEquals(foo4List(), Arrays.asList(0, 1, 2));
+
+        //below the size and before the deadline nothing is written
+        CompletableFuture<Void> pending = buffer.insert(foo(3));
+        Thread.sleep(200);
+        Assert.assertFalse(pending.isDone());
+        Assert.assertEquals(buffer.size(), 1);
+    }
+
+    @Test
+    public void delayTrigger() throws Exception {
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 100, 200);
+        long start = System.nanoTime();
+        CompletableFuture<Void> future = buffer.insert(foo(1));
+        Assert.assertFalse(future.isDone());
+        get(future);
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        Assert.assertEquals(foo4List(), Arrays.asList(1));
+        Assert.assertEquals(buffer.size(), 0);
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        Foo foo = foo(0);
+        jdbcUtils.insert(foo, true);
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 100, NEVER);
+
+        //only the last update of a key is written, so the invalid one never reaches the database
+        Foo first = tooLong(1);
+        first.setId(foo.getId());
+        Foo last = foo(2);
+        last.setId(foo.getId());
+        CompletableFuture<Void> firstFuture = buffer.update(first);
+        CompletableFuture<Void> lastFuture = buffer.update(last);
+        get(buffer.flush());
+        get(firstFuture);
+        get(lastFuture);
+        Assert.assertEquals(foo4List(), Arrays.asList(2));
+    }
+
+    @Test
+    public void flush() throws Exception {
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 100, NEVER);
+        CompletableFuture<Void> insert = buffer.insert(foo(1));
+        CompletableFuture<Void> insert2 = buffer.insert(foo(2));
+        get(buffer.flush());
+        Assert.assertTrue(insert.isDone());
+        Assert.assertTrue(insert2.isDone());
+        Assert.assertEquals(foo4List(), Arrays.asList(1, 2));
+
+        //a flush with nothing queued completes as well
+        get(buffer.flush());
+    }
+
+    @Test
+    public void closeDrains() throws Exception {
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 100, NEVER);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(buffer.insert(foo(i)));
+        }
+        buffer.close();
+        for (CompletableFuture<Void> future : futures) {
+            Assert.assertTrue(future.isDone());
+            Assert.assertFalse(future.isCompletedExceptionally());
+        }
+        Assert.assertEquals(foo4List(), Arrays.asList(0, 1, 2, 3, 4));
+
+        CompletableFuture<Void> late = buffer.insert(foo(5));
+        try {
+            late.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof DataException);
+        }
+    }
+
+    @Test
+    public void failedRow() throws Exception {
+        Foo existing = foo(10);
+        jdbcUtils.insert(existing, true);
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 100, NEVER);
+
+        CompletableFuture<Void> good = buffer.insert(foo(1));
+        CompletableFuture<Void> bad = buffer.insert(tooLong(2));
+        CompletableFuture<Void> good2 = buffer.insert(foo(3));
+        Foo update = foo(11);
+        update.setId(existing.getId());
+        CompletableFuture<Void> updated = buffer.update(update);
+        get(buffer.flush());
+
+        //the failed insert is retried alone, the rest of its group and the update group still commit
+        get(good);
+        get(good2);
+        get(updated);
+        try {
+            get(bad);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof DataException);
+        }
+        Assert.assertEquals(foo4List(), Arrays.asList(1, 3, 11));
+    }
+
+    @Test
+    public void failedUpdateGroup() throws Exception {
+        Foo existing = foo(10);
+        jdbcUtils.insert(existing, true);
+        buffer = new WriteBehindBuffer<>(jdbcUtils, 100, NEVER);
+
+        Foo update = tooLong(11);
+        update.setId(existing.getId());
+        CompletableFuture<Void> updated = buffer.update(update);
+        CompletableFuture<Void> inserted = buffer.insert(foo(1));
+        get(buffer.flush());
+
+        get(inserted);
+        Assert.assertTrue(updated.isCompletedExceptionally());
+        Assert.assertEquals(foo4List(), Arrays.asList(1, 10));
+    }
+}
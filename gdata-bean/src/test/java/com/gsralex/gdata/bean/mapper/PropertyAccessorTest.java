@@ -0,0 +1,48 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class PropertyAccessorTest {
+
+    @Test
+    public void getValue() throws Exception {
+        Foo foo = FooSource.getEntity();
+        foo.setId(12);
+        Mapper mapper = MapperHolder.getMapperCache(Foo.class);
+        Assert.assertEquals(mapper.getMapper().get("id").getAccessor().getValue(foo), 12);
+        Assert.assertEquals(mapper.getMapper().get("foo1").getAccessor().getValue(foo), "123");
+        //boolean isXxx
+        Assert.assertEquals(mapper.getMapper().get("foo5").getAccessor().getValue(foo), true);
+        //Boolean isXxx field, getXxx method
+        Assert.assertEquals(mapper.getMapper().get("isFoo6").getAccessor().getValue(foo), true);
+    }
+
+    @Test
+    public void setValue() throws Exception {
+        Foo foo = new Foo();
+        Mapper mapper = MapperHolder.getMapperCache(Foo.class);
+        mapper.getMapper().get("foo4").getAccessor().setValue(foo, 3);
+        mapper.getMapper().get("isFoo6").getAccessor().setValue(foo, true);
+        Assert.assertEquals(foo.getFoo4(), 3);
+        Assert.assertEquals(foo.getFoo6(), true);
+
+        mapper.getMapper().get("foo4").getAccessor().setValue(foo, null);
+        Assert.assertEquals(foo.getFoo4(), 3);
+    }
+
+    @Test
+    public void fieldValue() throws Exception {
+        Foo foo = FooSource.getEntity();
+        FieldValue fieldValue = new FieldValue(foo);
+        Assert.assertEquals(fieldValue.getValue(String.class, "foo1"), "123");
+        fieldValue.setValue(String.class, "fooImg", "456");
+        Assert.assertEquals(foo.getFooImg(), "456");
+    }
+}
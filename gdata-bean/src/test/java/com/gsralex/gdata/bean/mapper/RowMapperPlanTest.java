@@ -0,0 +1,60 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.jdbc.JdbcUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class RowMapperPlanTest {
+
+    private DataSource dataSource = H2DataSourceConfig.getDataSource("plan");
+
+    @Test
+    public void reuse() throws Exception {
+        MapperHelper mapperHelper = new MapperHelper();
+        String sql = "select id, foo_1 from t_foo";
+        try (Connection conn = dataSource.getConnection(); Statement statement = conn.createStatement()) {
+            RowMapperPlan<Foo> plan;
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                plan = mapperHelper.getPlan(sql, rs.getMetaData(), Foo.class);
+            }
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                Assert.assertSame(mapperHelper.getPlan(sql, rs.getMetaData(), Foo.class), plan);
+            }
+            //same sql key and column count, columns in another order
+            try (ResultSet rs = statement.executeQuery("select foo_1, id from t_foo")) {
+                RowMapperPlan<Foo> other = mapperHelper.getPlan(sql, rs.getMetaData(), Foo.class);
+                Assert.assertNotSame(other, plan);
+                Assert.assertTrue(other.matches(rs.getMetaData()));
+                Assert.assertFalse(plan.matches(rs.getMetaData()));
+            }
+        }
+    }
+
+    @Test
+    public void rebuildAfterAlter() {
+        JdbcUtils jdbcUtils = new JdbcUtils(dataSource);
+        H2DataSourceConfig.execute(dataSource, "create table t_shape(id int, foo_1 varchar(10))",
+                "insert into t_shape values(3, '7')");
+        List<Foo> list = jdbcUtils.queryForList("select * from t_shape", null, Foo.class);
+        Assert.assertEquals(list.get(0).getId(), 3);
+        Assert.assertEquals(list.get(0).getFoo1(), "7");
+
+        H2DataSourceConfig.execute(dataSource, "drop table t_shape",
+                "create table t_shape(foo_1 varchar(10), id int)", "insert into t_shape values('7', 3)");
+        list = jdbcUtils.queryForList("select * from t_shape", null, Foo.class);
+        Assert.assertEquals(list.get(0).getId(), 3);
+        Assert.assertEquals(list.get(0).getFoo1(), "7");
+    }
+}
@@ -0,0 +1,59 @@
+package com.gsralex.gdata.bean.mapper;
+
+import com.gsralex.gdata.bean.exception.DataException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class TypeConverterTest {
+
+    private enum Level {
+        LOW, HIGH
+    }
+
+    @Test
+    public void number() throws Exception {
+        Assert.assertEquals(TypeConverter.convert(5L, Integer.class), Integer.valueOf(5));
+        Assert.assertEquals(TypeConverter.convert(BigInteger.valueOf(5), long.class), Long.valueOf(5));
+        Assert.assertEquals(TypeConverter.convert(new BigDecimal("5.9"), Integer.class), Integer.valueOf(5));
+        Assert.assertEquals(TypeConverter.convert(7, BigDecimal.class), BigDecimal.valueOf(7));
+        Assert.assertEquals(TypeConverter.convert(" 12 ", Short.class), Short.valueOf((short) 12));
+        Assert.assertEquals(TypeConverter.convert(1, Boolean.class), Boolean.TRUE);
+        Assert.assertEquals(TypeConverter.convert(true, Integer.class), Integer.valueOf(1));
+        try {
+            TypeConverter.convert(3000000000L, Integer.class);
+            Assert.fail();
+        } catch (DataException e) {
+        }
+    }
+
+    @Test
+    public void enumAndTime() throws Exception {
+        Assert.assertEquals(TypeConverter.convert("HIGH", Level.class), Level.HIGH);
+        Assert.assertEquals(TypeConverter.convert(0, Level.class), Level.LOW);
+        Assert.assertEquals(TypeConverter.convert(Level.LOW, String.class), "LOW");
+        LocalDateTime time = LocalDateTime.of(2026, 10, 18, 12, 30);
+        Timestamp timestamp = Timestamp.valueOf(time);
+        Assert.assertEquals(TypeConverter.convert(timestamp, LocalDateTime.class), time);
+        Assert.assertEquals(TypeConverter.convert(timestamp, LocalDate.class), time.toLocalDate());
+        Assert.assertEquals(TypeConverter.convert(time, Date.class), timestamp);
+        Assert.assertNull(TypeConverter.getConverter(Level.class, Date.class));
+    }
+
+    @Test
+    public void register() throws Exception {
+        TypeConverter.register(String.class, StringBuilder.class, StringBuilder::new);
+        Assert.assertEquals(TypeConverter.convert("a", StringBuilder.class).toString(), "a");
+        Assert.assertTrue(TypeConverter.isValueType(StringBuilder.class));
+    }
+}
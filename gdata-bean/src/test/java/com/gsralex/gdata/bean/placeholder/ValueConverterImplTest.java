@@ -2,9 +2,13 @@ package com.gsralex.gdata.bean.placeholder;
 
 import com.gsralex.gdata.bean.domain.Foo;
 import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,4 +43,63 @@ public class ValueConverterImplTest {
         Assert.assertEquals(sqlObject.getObjects().length, 3);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void parse() throws Exception {
+        NamedSql namedSql = NamedSql.parse("select a::int, ':x', \"b:y\" from t -- :c\n"
+                + "where /* :d */ id=:id and name='it''s :e' and v=:v_1");
+        Assert.assertEquals(namedSql.getSql(), "select a::int, ':x', \"b:y\" from t -- :c\n"
+                + "where /* :d */ id=? and name='it''s :e' and v=?");
+        Assert.assertEquals(namedSql.getNames().size(), 2);
+        Assert.assertEquals(namedSql.getName(0), "id");
+        Assert.assertEquals(namedSql.getName(1), "v_1");
+        Assert.assertEquals(NamedSql.parse("select 1").getSql(), "select 1");
+    }
+
+    @Test
+    public void expand() throws Exception {
+        ValueConverter valueConverter = new ValueConverterImpl();
+        String pSql = "select * from t where id in (:ids) and type in (:types) and name=:name";
+        Map<String, Object> paramMap = new HashMap<>();
+        paramMap.put("ids", Arrays.asList(1, 2, 3));
+        paramMap.put("types", new int[]{7});
+        paramMap.put("name", "a");
+        SqlObject sqlObject = valueConverter.convertMap(pSql, paramMap);
+        Assert.assertEquals(sqlObject.getSql(), "select * from t where id in (?,?,?,?) and type in (?) and name=?");
+        Assert.assertArrayEquals(sqlObject.getObjects(), new Object[]{1, 2, 3, 3, 7, "a"});
+
+        //an empty list would bind null: "in (null)" and "not in (null)" both match nothing
+        paramMap.put("ids", Collections.emptyList());
+        try {
+            valueConverter.convertMap(pSql, paramMap);
+            Assert.fail();
+        } catch (DataException e) {
+            Assert.assertEquals(e.getMessage(), ExceptionMessage.PLH_EMPTYLIST);
+        }
+        paramMap.put("ids", Arrays.asList(1, 2, 3));
+        paramMap.put("types", new int[0]);
+        try {
+            valueConverter.convertMap(pSql, paramMap);
+            Assert.fail();
+        } catch (DataException e) {
+            Assert.assertEquals(e.getMessage(), ExceptionMessage.PLH_EMPTYLIST);
+        }
+
+        //padding with the last value keeps "not in" correct
+        String notIn = "select * from t where id not in (:ids)";
+        paramMap.clear();
+        paramMap.put("ids", Arrays.asList(1, 2, 3));
+        sqlObject = valueConverter.convertMap(notIn, paramMap);
+        Assert.assertEquals(sqlObject.getSql(), "select * from t where id not in (?,?,?,?)");
+        Assert.assertArrayEquals(sqlObject.getObjects(), new Object[]{1, 2, 3, 3});
+        paramMap.put("ids", new Integer[0]);
+        try {
+            valueConverter.convertMap(notIn, paramMap);
+            Assert.fail();
+        } catch (DataException e) {
+            Assert.assertEquals(e.getMessage(), ExceptionMessage.PLH_EMPTYLIST);
+        }
+
+        Assert.assertEquals(ValueConverterImpl.getBucketSize(4), 4);
+        Assert.assertEquals(ValueConverterImpl.getBucketSize(5), 8);
+    }
+}
@@ -0,0 +1,209 @@
+package com.gsralex.gdata.bean.result;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.jdbc.JdbcUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class ColumnarDataSetTest {
+
+    //crosses two bitmap words
+    private static final int ROWS = 150;
+
+    private DataSource dataSource;
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        dataSource = H2DataSourceConfig.getDataSource("columnar");
+        H2DataSourceConfig.execute(dataSource,
+                "create table t_num(id int primary key, l bigint, i int, d double, s varchar(20), t timestamp)");
+        jdbcUtils = new JdbcUtils(dataSource);
+        List<Object[]> rows = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            rows.add(new Object[]{row,
+                    row % 3 == 0 ? null : (long) row * 1000000000L,
+                    row % 5 == 0 ? null : row,
+                    row % 7 == 0 ? null : row + 0.5,
+                    row % 11 == 0 ? null : "s" + row,
+                    row % 13 == 0 ? null : new Date(row * 1000L)});
+        }
+        jdbcUtils.executeBatch("insert into t_num(id, l, i, d, s, t) values(?,?,?,?,?,?)", rows);
+    }
+
+    private ColumnarDataSet query(String sql) {
+        DataSet dataSet = jdbcUtils.queryForDataSet(sql);
+        Assert.assertTrue(dataSet instanceof ColumnarDataSet);
+        return (ColumnarDataSet) dataSet;
+    }
+
+    @Test
+    public void nulls() {
+        ColumnarDataSet dataSet = query("select id, l, i, d, s, t from t_num order by id");
+        Assert.assertEquals(dataSet.getRowCount(), ROWS);
+        Assert.assertEquals(dataSet.getRows().size(), ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            DataRowSet rowSet = dataSet.get(row);
+            Assert.assertEquals(rowSet.getIntValue("id"), row);
+
+            Assert.assertEquals(rowSet.isNull("l"), row % 3 == 0);
+            Assert.assertEquals(rowSet.getObject("l"), row % 3 == 0 ? null : (long) row * 1000000000L);
+            Assert.assertEquals(rowSet.getLongValue("l"), row % 3 == 0 ? 0L : (long) row * 1000000000L);
+
+            Assert.assertEquals(rowSet.isNull(3), row % 5 == 0);
+            Assert.assertEquals(rowSet.getObject(3), row % 5 == 0 ? null : row);
+            Assert.assertEquals(rowSet.getIntValue(3), row % 5 == 0 ? 0 : row);
+            Assert.assertEquals(rowSet.getLongValue(3), row % 5 == 0 ? 0L : row);
+
+            Assert.assertEquals(rowSet.isNull("d"), row % 7 == 0);
+            Assert.assertEquals(rowSet.getObject("d"), row % 7 == 0 ? null : row + 0.5);
+            Assert.assertEquals(rowSet.getDoubleValue("d"), row % 7 == 0 ? 0d : row + 0.5, 0);
+
+            Assert.assertEquals(rowSet.getString("s"), row % 11 == 0 ? null : "s" + row);
+            Assert.assertEquals(rowSet.isNull("t"), row % 13 == 0);
+        }
+    }
+
+    @Test
+    public void getters() {
+        ColumnarDataSet dataSet = query("select id, l, i, d, s, t from t_num order by id");
+        String[] labels = dataSet.getLabels();
+        for (DataRowSet row : dataSet.getRows()) {
+            //the typed getters convert exactly like the row based DataRowSetImpl
+            Map<String, Object> map = row.getMap();
+            DataRowSet expected = new DataRowSetImpl(labels, map);
+            for (int column = 1; column <= labels.length; column++) {
+                String label = labels[column - 1];
+                Assert.assertEquals(row.getObject(column), map.get(label));
+                Assert.assertEquals(row.getObject(label), expected.getObject(label));
+                Assert.assertEquals(row.getString(column), expected.getString(column));
+                Assert.assertEquals(row.isNull(column), expected.isNull(column));
+                if (!label.equals("s") && !label.equals("t")) {
+                    int c = column;
+                    //bigint values past Integer.MAX_VALUE fail getInt the same way
+                    assertSameResult(() -> row.getInt(c), () -> expected.getInt(c));
+                    assertSameResult(() -> row.getIntValue(label), () -> expected.getIntValue(label));
+                    Assert.assertEquals(row.getLong(label), expected.getLong(label));
+                    Assert.assertEquals(row.getDouble(column), expected.getDouble(column));
+                    Assert.assertEquals(row.getLongValue(column), expected.getLongValue(column));
+                    Assert.assertEquals(row.getDoubleValue(label), expected.getDoubleValue(label), 0);
+                }
+            }
+            Assert.assertEquals(row.getDate("t"), expected.getDate("t"));
+        }
+        DataRowSet row = dataSet.get(1);
+        Assert.assertTrue(row.getObject("l") instanceof Long);
+        Assert.assertTrue(row.getObject("i") instanceof Integer);
+        Assert.assertTrue(row.getObject("d") instanceof Double);
+        Assert.assertEquals(row.getString("i"), "1");
+        Assert.assertEquals(row.getIntValue("d"), 1);
+    }
+
+    private static void assertSameResult(Supplier<Object> actual, Supplier<Object> expected) {
+        Object expectedValue;
+        try {
+            expectedValue = expected.get();
+        } catch (DataException e) {
+            try {
+                actual.get();
+                Assert.fail(e.getMessage());
+            } catch (DataException actualException) {
+                Assert.assertEquals(actualException.getMessage(), e.getMessage());
+            }
+            return;
+        }
+        Assert.assertEquals(actual.get(), expectedValue);
+    }
+
+    @Test
+    public void labels() {
+        ColumnarDataSet dataSet = query("select id, i as X, l as x, s from t_num where id=1");
+        Assert.assertArrayEquals(dataSet.getLabels(), new String[]{"id", "x", "x", "s"});
+        DataRowSet row = dataSet.get(0);
+        //duplicated labels resolve to the first column, lookup ignores case
+        Assert.assertEquals(dataSet.getColumnIndex("x"), 2);
+        Assert.assertEquals(dataSet.getColumnIndex("X"), 2);
+        Assert.assertEquals(row.getObject("X"), 1);
+        Assert.assertEquals(row.getObject(3), 1000000000L);
+        Assert.assertEquals(row.getMap().get("x"), 1);
+        Assert.assertEquals(row.getMap().size(), 3);
+        Assert.assertEquals(row.getString("S"), "s1");
+
+        Assert.assertEquals(dataSet.getColumnIndex("missing"), -1);
+        Assert.assertNull(row.getObject("missing"));
+        Assert.assertTrue(row.isNull("missing"));
+        Assert.assertEquals(row.getIntValue("missing"), 0);
+        try {
+            row.getObject(5);
+            Assert.fail();
+        } catch (DataException e) {
+        }
+        try {
+            dataSet.get(1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    @Test
+    public void empty() {
+        ColumnarDataSet dataSet = query("select id, l from t_num where id < 0");
+        Assert.assertEquals(dataSet.getRowCount(), 0);
+        Assert.assertTrue(dataSet.getRows().isEmpty());
+        Assert.assertEquals(dataSet.getColumnCount(), 2);
+    }
+
+    @Test
+    public void copy() {
+        ColumnarDataSet dataSet = query("select id, l, t from t_num where id in (1, 2) order by id");
+        ColumnarDataSet copy = dataSet.copy();
+        copy.get(0).getDate("t").setTime(0);
+        Assert.assertEquals(dataSet.get(0).getDate("t").getTime(), 1000L);
+        Assert.assertEquals(copy.get(1).getLongValue("l"), 2000000000L);
+        Assert.assertEquals(copy.getRowCount(), 2);
+    }
+
+    @Test
+    public void generatedKeys() {
+        List<Foo> list = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            list.add(FooSource.getEntity());
+        }
+        jdbcUtils.batchInsert(list, true);
+        Set<Integer> ids = new HashSet<>();
+        for (Foo foo : list) {
+            Assert.assertTrue(foo.getId() > 0);
+            ids.add(foo.getId());
+        }
+        Assert.assertEquals(ids.size(), ROWS);
+
+        //multi-row values: the key rows of each statement are collected into one DataSet
+        jdbcUtils.setMultiRowInsert(true);
+        List<Foo> multiRow = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            multiRow.add(FooSource.getEntity());
+        }
+        jdbcUtils.batchInsert(multiRow, true);
+        for (Foo foo : multiRow) {
+            Assert.assertTrue(ids.add(foo.getId()));
+        }
+        Assert.assertEquals(ids.size(), ROWS * 2);
+    }
+}
@@ -0,0 +1,192 @@
+package com.gsralex.gdata.bean.result;
+
+import com.gsralex.gdata.bean.H2DataSourceConfig;
+import com.gsralex.gdata.bean.exception.DataException;
+import com.gsralex.gdata.bean.exception.ExceptionMessage;
+import com.gsralex.gdata.bean.jdbc.JdbcUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SpillingDataSetTest {
+
+    private static final String SQL = "select id, l, s, b, d, t, f from t_spill order by id";
+    private static final int ROWS = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JdbcUtils jdbcUtils;
+
+    @Before
+    public void setUp() {
+        DataSource dataSource = H2DataSourceConfig.getDataSource("spill");
+        H2DataSourceConfig.execute(dataSource, "create table t_spill(id int primary key, l bigint, "
+                + "s varchar(1000), b varbinary(100), d decimal(20, 4), t timestamp(9), f boolean)");
+        jdbcUtils = new JdbcUtils(dataSource);
+        List<Object[]> rows = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            Timestamp timestamp = new Timestamp(row * 1000L);
+            timestamp.setNanos(123456789);
+            //every 10th string is longer than a segment
+            char[] chars = new char[row % 10 == 0 ? 300 : row];
+            Arrays.fill(chars, (char) ('a' + row % 26));
+            rows.add(new Object[]{row,
+                    row % 3 == 0 ? null : (long) row << 40,
+                    row % 4 == 0 ? null : new String(chars),
+                    row % 5 == 0 ? null : new byte[]{(byte) row, 1, 2},
+                    row % 6 == 0 ? null : new BigDecimal(row + ".1234"),
+                    row % 7 == 0 ? null : timestamp,
+                    row % 8 == 0 ? null : row % 2 == 0});
+        }
+        jdbcUtils.executeBatch("insert into t_spill(id, l, s, b, d, t, f) values(?,?,?,?,?,?,?)", rows);
+    }
+
+    private SpillOptions options(long maxHeapBytes) {
+        SpillOptions options = new SpillOptions();
+        options.setMaxHeapBytes(maxHeapBytes);
+        options.setSegmentSize(256);
+        options.setDirectory(folder.getRoot());
+        return options;
+    }
+
+    private int fileCount() {
+        return folder.getRoot().list().length;
+    }
+
+    private void assertRows(SpillingDataSet dataSet) {
+        DataSet expected = jdbcUtils.queryForDataSet(SQL);
+        Assert.assertEquals(dataSet.getRowCount(), ROWS);
+        Assert.assertEquals(dataSet.getRows().size(), ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            DataRowSet actualRow = dataSet.get(row);
+            DataRowSet expectedRow = expected.get(row);
+            Map<String, Object> map = actualRow.getMap();
+            for (String label : dataSet.getLabels()) {
+                Object value = actualRow.getObject(label);
+                Object expectedValue = expectedRow.getObject(label);
+                if (expectedValue instanceof byte[]) {
+                    Assert.assertArrayEquals((byte[]) value, (byte[]) expectedValue);
+                    Assert.assertArrayEquals((byte[]) map.get(label), (byte[]) expectedValue);
+                } else {
+                    Assert.assertEquals(value, expectedValue);
+                    Assert.assertEquals(map.get(label), expectedValue);
+                }
+                Assert.assertEquals(actualRow.isNull(label), expectedValue == null);
+            }
+            Assert.assertEquals(actualRow.getIntValue(1), row);
+        }
+    }
+
+    @Test
+    public void allSpilled() {
+        SpillingDataSet dataSet = jdbcUtils.queryForSpillingDataSet(SQL, null, options(0));
+        Assert.assertTrue(dataSet.isSpilled());
+        Assert.assertEquals(dataSet.getSpilledRowCount(), ROWS);
+        //many 256 byte segments, the long strings get one of their own
+        Assert.assertTrue(dataSet.getSpilledBytes() > 256 * 10);
+        Assert.assertEquals(fileCount(), 1);
+        assertRows(dataSet);
+        //typed values keep their type and precision
+        DataRowSet row = dataSet.get(1);
+        Assert.assertTrue(row.getObject("l") instanceof Long);
+        Assert.assertEquals(((Timestamp) row.getObject("t")).getNanos(), 123456789);
+        Assert.assertEquals(row.getObject("d"), new BigDecimal("1.1234"));
+        Assert.assertNull(dataSet.get(0).getObject("l"));
+        Assert.assertTrue(dataSet.get(0).isNull(2));
+
+        dataSet.close();
+        Assert.assertEquals(fileCount(), 0);
+        try {
+            dataSet.get(1);
+            Assert.fail();
+        } catch (DataException e) {
+            Assert.assertEquals(e.getMessage(), ExceptionMessage.DS_CLOSED);
+        }
+        try {
+            row.getObject("l");
+            Assert.fail();
+        } catch (DataException e) {
+        }
+        //closing twice is allowed
+        dataSet.close();
+    }
+
+    @Test
+    public void partlySpilled() {
+        SpillingDataSet dataSet = jdbcUtils.queryForSpillingDataSet(SQL, null, options(4096));
+        Assert.assertTrue(dataSet.isSpilled());
+        Assert.assertTrue(dataSet.getSpilledRowCount() > 0);
+        Assert.assertTrue(dataSet.getSpilledRowCount() < ROWS);
+        assertRows(dataSet);
+        dataSet.close();
+        Assert.assertEquals(fileCount(), 0);
+    }
+
+    @Test
+    public void notSpilled() {
+        SpillingDataSet dataSet = jdbcUtils.queryForSpillingDataSet(SQL, null, options(Long.MAX_VALUE));
+        Assert.assertFalse(dataSet.isSpilled());
+        Assert.assertEquals(fileCount(), 0);
+        assertRows(dataSet);
+        dataSet.close();
+    }
+
+    @Test
+    public void empty() {
+        SpillingDataSet dataSet = jdbcUtils.queryForSpillingDataSet(SQL.replace("order by", "where id < 0 order by"),
+                null, options(0));
+        Assert.assertEquals(dataSet.getRowCount(), 0);
+        Assert.assertFalse(dataSet.isSpilled());
+        Assert.assertEquals(fileCount(), 0);
+        dataSet.close();
+    }
+
+    @Test
+    public void collected() throws InterruptedException {
+        int registered = SpillFiles.size();
+        SpillingDataSet dataSet = jdbcUtils.queryForSpillingDataSet(SQL, null, options(0));
+        Assert.assertEquals(SpillFiles.size(), registered + 1);
+        dataSet.close();
+        //close removes the file from the registry
+        Assert.assertEquals(SpillFiles.size(), registered);
+
+        jdbcUtils.queryForSpillingDataSet(SQL, null, options(0));
+        Assert.assertEquals(fileCount(), 1);
+        //never closed: the file goes once the DataSet is collected
+        for (int i = 0; i < 50 && SpillFiles.size() != registered; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(SpillFiles.size(), registered);
+        Assert.assertEquals(fileCount(), 0);
+    }
+
+    @Test
+    public void directory() {
+        File directory = new File(folder.getRoot(), "missing");
+        SpillOptions options = options(0);
+        options.setDirectory(directory);
+        try {
+            jdbcUtils.queryForSpillingDataSet(SQL, null, options);
+            Assert.fail();
+        } catch (DataException e) {
+        }
+        Assert.assertEquals(fileCount(), 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlTablesTest {
+
+    @Test
+    public void readTables() throws Exception {
+        Assert.assertEquals(SqlTables.getReadTables("select * from t_foo where id=?"),
+                new HashSet<>(Arrays.asList("t_foo")));
+        Assert.assertEquals(SqlTables.getReadTables("SELECT a.x FROM `db`.`T_A` a, t_c c LEFT JOIN t_b b ON a.id=b.id"),
+                new HashSet<>(Arrays.asList("t_a", "t_b", "t_c")));
+        Assert.assertEquals(SqlTables.getReadTables("select count(1) from (select id from t_d where name='from x') t"),
+                new HashSet<>(Arrays.asList("t_d")));
+        Assert.assertTrue(SqlTables.getReadTables("select 1").isEmpty());
+    }
+
+    @Test
+    public void writeTable() throws Exception {
+        Assert.assertEquals(SqlTables.getWriteTable("insert into t_foo(id) values(?)"), "t_foo");
+        Assert.assertEquals(SqlTables.getWriteTable("INSERT IGNORE INTO \"S\".\"T_FOO\" values(?)"), "t_foo");
+        Assert.assertEquals(SqlTables.getWriteTable("update `t_foo` set a=? where id=?"), "t_foo");
+        Assert.assertEquals(SqlTables.getWriteTable("delete from t_foo where id=?"), "t_foo");
+        Assert.assertEquals(SqlTables.getWriteTable("merge into t_foo key(id) values(?)"), "t_foo");
+        Assert.assertEquals(SqlTables.getWriteTable("truncate table t_foo"), "t_foo");
+        Assert.assertNull(SqlTables.getWriteTable("call refresh_all()"));
+    }
+}
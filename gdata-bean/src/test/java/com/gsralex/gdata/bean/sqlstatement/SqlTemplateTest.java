@@ -0,0 +1,86 @@
+package com.gsralex.gdata.bean.sqlstatement;
+
+import com.gsralex.gdata.bean.dialect.Dialect;
+import com.gsralex.gdata.bean.dialect.Dialects;
+import com.gsralex.gdata.bean.domain.Foo;
+import com.gsralex.gdata.bean.domain.FooSource;
+import com.gsralex.gdata.bean.mapper.EntitySnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class SqlTemplateTest {
+
+    /**
+     * 取不到productName时使用不带别名的格式
+     */
+    private static Dialect offlineDialect() {
+        Dialect dialect = Dialects.getDialect("");
+        Assert.assertSame(dialect, Dialects.getDefault());
+        return dialect;
+    }
+
+    @Test
+    public void insert() throws Exception {
+        SqlInsertStatement statement = new SqlInsertStatement(offlineDialect());
+        SqlTemplate template = statement.getTemplate(Foo.class);
+        Assert.assertEquals(template.getSql(),
+                "insert into t_foo(foo_1,foo_2,foo_3,foo_4,foo_img,foo_5,foo_date,foo_6) values(?,?,?,?,?,?,?,?)");
+        Assert.assertTrue(template.hasGeneratedKey());
+        Assert.assertSame(template, statement.getTemplate(Foo.class));
+        Foo foo = FooSource.getEntity();
+        Assert.assertEquals(template.getObjects(foo).length, 8);
+        Assert.assertEquals(template.getObjects(foo)[0], "123");
+    }
+
+    @Test
+    public void updateAndDelete() throws Exception {
+        SqlUpdateStatement update = new SqlUpdateStatement(offlineDialect());
+        Assert.assertEquals(update.getSql(Foo.class),
+                "update t_foo set foo_1=?,foo_2=?,foo_3=?,foo_4=?,foo_img=?,foo_5=?,foo_date=?,foo_6=? where id=?");
+        Foo foo = FooSource.getEntity();
+        foo.setId(5);
+        Object[] objects = update.getObjects(foo);
+        Assert.assertEquals(objects[objects.length - 1], 5);
+
+        SqlDeleteStatement delete = new SqlDeleteStatement(offlineDialect());
+        Assert.assertEquals(delete.getSql(Foo.class), "delete from t_foo where id=?");
+        Assert.assertArrayEquals(delete.getObjects(foo), new Object[]{5});
+    }
+
+    @Test
+    public void updateChanged() throws Exception {
+        SqlUpdateStatement update = new SqlUpdateStatement(offlineDialect());
+        Foo foo = FooSource.getEntity();
+        foo.setId(5);
+        EntitySnapshot snapshot = EntitySnapshot.capture(foo);
+        Assert.assertTrue(snapshot.getChangedColumns(foo).isEmpty());
+        foo.setFoo4(99);
+        foo.getFoo3().setTime(0);
+        BitSet changed = snapshot.getChangedColumns(foo);
+        SqlTemplate template = update.getChangedTemplate(Foo.class, changed);
+        Assert.assertEquals(template.getSql(), "update t_foo set foo_3=?,foo_4=? where id=?");
+        Assert.assertArrayEquals(template.getObjects(foo), new Object[]{foo.getFoo3(), 99, 5});
+        Assert.assertSame(template, update.getChangedTemplate(Foo.class, changed));
+        Assert.assertEquals(update.getChangedTemplate(Foo.class, EntitySnapshot.getAllColumns(Foo.class)).getSql(),
+                update.getSql(Foo.class));
+    }
+
+    @Test
+    public void inList() throws Exception {
+        SqlDeleteStatement delete = new SqlDeleteStatement(offlineDialect());
+        Assert.assertTrue(delete.supportsInList(Foo.class));
+        Assert.assertEquals(delete.getInSql(Foo.class, 3), "delete from t_foo where id in (?,?,?)");
+
+        SqlSelectStatement select = new SqlSelectStatement(offlineDialect());
+        Assert.assertEquals(select.getSql(Foo.class),
+                "select id,foo_1,foo_2,foo_3,foo_4,foo_img,foo_5,foo_date,foo_6 from t_foo where id=?");
+        Assert.assertEquals(select.getInSql(Foo.class, 2),
+                "select id,foo_1,foo_2,foo_3,foo_4,foo_img,foo_5,foo_date,foo_6 from t_foo where id in (?,?)");
+    }
+}
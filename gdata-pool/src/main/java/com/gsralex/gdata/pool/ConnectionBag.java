@@ -0,0 +1,156 @@
+package com.gsralex.gdata.pool;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 无锁的连接容器
+ * 1.先查本线程最近归还的连接(线程亲和)
+ * 2.再CAS扫描共享列表
+ * 3.都没有时在公平的SynchronousQueue上等待其他线程归还或新建的连接
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+class ConnectionBag {
+
+    private static final int THREAD_LIST_SIZE = 16;
+
+    interface Listener {
+        /**
+         * 有线程在等待连接，waiting为等待的线程数
+         */
+        void addBagItem(int waiting);
+    }
+
+    private final CopyOnWriteArrayList<PoolEntry> shared = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<WeakReference<PoolEntry>>> threadList = new ThreadLocal<List<WeakReference<PoolEntry>>>() {
+        @Override
+        protected List<WeakReference<PoolEntry>> initialValue() {
+            return new ArrayList<>(THREAD_LIST_SIZE);
+        }
+    };
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+    private final Listener listener;
+
+    ConnectionBag(Listener listener) {
+        this.listener = listener;
+    }
+
+    PoolEntry borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        List<WeakReference<PoolEntry>> list = threadList.get();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            PoolEntry entry = list.remove(i).get();
+            if (entry != null && entry.compareAndSet(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_IN_USE)) {
+                return entry;
+            }
+        }
+        int waiting = waiters.incrementAndGet();
+        try {
+            for (PoolEntry entry : shared) {
+                if (entry.compareAndSet(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_IN_USE)) {
+                    if (waiting > 1) {
+                        //may have taken a connection another waiter was promised
+                        listener.addBagItem(waiting - 1);
+                    }
+                    return entry;
+                }
+            }
+            listener.addBagItem(waiting);
+            long remaining = unit.toNanos(timeout);
+            do {
+                long start = System.nanoTime();
+                PoolEntry entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.compareAndSet(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_IN_USE)) {
+                    return entry;
+                }
+                remaining -= System.nanoTime() - start;
+            } while (remaining > 10000);
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    void requite(PoolEntry entry) {
+        entry.setState(PoolEntry.STATE_NOT_IN_USE);
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.getState() != PoolEntry.STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+                return;
+            } else if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+        List<WeakReference<PoolEntry>> list = threadList.get();
+        if (list.size() < THREAD_LIST_SIZE) {
+            list.add(new WeakReference<>(entry));
+        }
+    }
+
+    void add(PoolEntry entry) {
+        shared.add(entry);
+        while (waiters.get() > 0 && entry.getState() == PoolEntry.STATE_NOT_IN_USE && !handoffQueue.offer(entry)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 只能移除借出(IN_USE)或预留(RESERVED)的连接
+     */
+    boolean remove(PoolEntry entry) {
+        if (!entry.compareAndSet(PoolEntry.STATE_IN_USE, PoolEntry.STATE_REMOVED)
+                && !entry.compareAndSet(PoolEntry.STATE_RESERVED, PoolEntry.STATE_REMOVED)) {
+            return false;
+        }
+        return shared.remove(entry);
+    }
+
+    /**
+     * 预留空闲连接供后台检查，预留期间不会被借出
+     */
+    boolean reserve(PoolEntry entry) {
+        return entry.compareAndSet(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_RESERVED);
+    }
+
+    void unreserve(PoolEntry entry) {
+        if (entry.compareAndSet(PoolEntry.STATE_RESERVED, PoolEntry.STATE_NOT_IN_USE)) {
+            while (waiters.get() > 0 && entry.getState() == PoolEntry.STATE_NOT_IN_USE && !handoffQueue.offer(entry)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    List<PoolEntry> values() {
+        return new ArrayList<>(shared);
+    }
+
+    int getCount(int state) {
+        int count = 0;
+        for (PoolEntry entry : shared) {
+            if (entry.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int size() {
+        return shared.size();
+    }
+
+    int getWaitingThreadCount() {
+        return waiters.get();
+    }
+}
@@ -0,0 +1,183 @@
+package com.gsralex.gdata.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 借出给调用方的连接代理
+ * close归还到池中，归还前关闭未关闭的statement并恢复被修改过的连接状态
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+class ConnectionHandler implements InvocationHandler {
+
+    private static final int STATEMENT_PRUNE_SIZE = 64;
+
+    private final GdataPoolDataSource pool;
+    private final PoolEntry entry;
+    private final Connection delegate;
+    private final List<Statement> statements = new ArrayList<>();
+    private boolean closed;
+    private boolean autoCommitDirty;
+    private boolean readOnlyDirty;
+    private boolean isolationDirty;
+    private boolean catalogDirty;
+    private boolean autoCommit = true;
+    private int isolation;
+    private String catalog;
+
+    ConnectionHandler(GdataPoolDataSource pool, PoolEntry entry) {
+        this.pool = pool;
+        this.entry = entry;
+        this.delegate = entry.connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "close":
+                close();
+                return null;
+            case "isClosed":
+                return closed;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Proxy@" + Integer.toHexString(System.identityHashCode(proxy)) + " wrapping " + delegate;
+            case "unwrap":
+                if (((Class) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                break;
+            case "isWrapperFor":
+                if (((Class) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+        if (closed) {
+            if (name.equals("isValid")) {
+                return false;
+            }
+            throw new SQLException("Connection is closed", "08003");
+        }
+        if (name.equals("setAutoCommit")) {
+            beforeSetAutoCommit();
+        } else if (name.equals("setReadOnly")) {
+            readOnlyDirty = true;
+        } else if (name.equals("setTransactionIsolation")) {
+            beforeSetIsolation();
+        } else if (name.equals("setCatalog")) {
+            beforeSetCatalog();
+        }
+        Object result;
+        try {
+            result = method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                checkBroken((SQLException) cause);
+            }
+            throw cause;
+        }
+        if (name.equals("setAutoCommit")) {
+            autoCommit = (Boolean) args[0];
+        } else if (result instanceof Statement) {
+            trackStatement((Statement) result);
+        }
+        return result;
+    }
+
+    private void beforeSetAutoCommit() {
+        //pooled connections are handed out with autoCommit=true
+        autoCommitDirty = true;
+    }
+
+    private void beforeSetIsolation() throws SQLException {
+        if (!isolationDirty) {
+            isolation = delegate.getTransactionIsolation();
+            isolationDirty = true;
+        }
+    }
+
+    private void beforeSetCatalog() throws SQLException {
+        if (!catalogDirty) {
+            catalog = delegate.getCatalog();
+            catalogDirty = true;
+        }
+    }
+
+    private void trackStatement(Statement statement) {
+        if (statements.size() >= STATEMENT_PRUNE_SIZE) {
+            Iterator<Statement> iterator = statements.iterator();
+            while (iterator.hasNext()) {
+                try {
+                    if (iterator.next().isClosed()) {
+                        iterator.remove();
+                    }
+                } catch (SQLException e) {
+                    iterator.remove();
+                }
+            }
+        }
+        statements.add(statement);
+    }
+
+    /**
+     * 08开头的SQLState表示连接已不可用，归还时直接关闭
+     */
+    private void checkBroken(SQLException e) {
+        String sqlState = e.getSQLState();
+        if (sqlState != null && sqlState.startsWith("08")) {
+            entry.evicted = true;
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Statement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                //ignore
+            }
+        }
+        statements.clear();
+        try {
+            if (autoCommitDirty && !autoCommit) {
+                delegate.rollback();
+            }
+            if (autoCommitDirty) {
+                delegate.setAutoCommit(true);
+            }
+            if (readOnlyDirty) {
+                delegate.setReadOnly(false);
+            }
+            if (isolationDirty) {
+                delegate.setTransactionIsolation(isolation);
+            }
+            if (catalogDirty) {
+                delegate.setCatalog(catalog);
+            }
+        } catch (SQLException e) {
+            entry.evicted = true;
+        }
+        pool.release(entry);
+    }
+}
@@ -0,0 +1,388 @@
+package com.gsralex.gdata.pool;
+
+import org.apache.log4j.Logger;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 高并发连接池，可直接传给JdbcUtils(DataSource)
+ * 借出路径无锁，新建连接、空闲回收、生命周期和泄漏检测都在后台线程完成
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class GdataPoolDataSource implements DataSource, Closeable {
+
+    private static Logger LOGGER = Logger.getLogger(GdataPoolDataSource.class);
+
+    private final PoolConfig config;
+    private final ConnectionBag bag;
+    private final PoolMetrics metrics;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger pendingAdds = new AtomicInteger();
+    private final ThreadPoolExecutor addExecutor;
+    private final ScheduledExecutorService houseKeeper;
+    private volatile boolean closed;
+    private volatile SQLException lastCreateException;
+
+    public GdataPoolDataSource(PoolConfig config) {
+        config.validate();
+        this.config = config;
+        if (config.getDriverClassName() != null) {
+            try {
+                Class.forName(config.getDriverClassName());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("driverClassName:" + config.getDriverClassName(), e);
+            }
+        }
+        this.bag = new ConnectionBag(new ConnectionBag.Listener() {
+            @Override
+            public void addBagItem(int waiting) {
+                requestAdd(waiting);
+            }
+        });
+        this.metrics = new PoolMetrics(this);
+        this.addExecutor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(config.getMaxPoolSize()), threadFactory("adder"),
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.addExecutor.allowCoreThreadTimeOut(true);
+        this.houseKeeper = Executors.newSingleThreadScheduledExecutor(threadFactory("housekeeper"));
+        prewarm();
+        houseKeeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                houseKeep();
+            }
+        }, config.getHousekeepingPeriod(), config.getHousekeepingPeriod(), TimeUnit.MILLISECONDS);
+    }
+
+    private ThreadFactory threadFactory(final String suffix) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, config.getPoolName() + "-" + suffix);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * 启动时同步建立minIdle个连接，失败只记录日志
+     */
+    private void prewarm() {
+        for (int i = 0; i < config.getMinIdle(); i++) {
+            if (!addConnection()) {
+                LOGGER.warn(config.getPoolName() + " prewarm failed", lastCreateException);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException(config.getPoolName() + " is closed");
+        }
+        long start = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(config.getConnectionTimeout());
+        long remaining = timeout;
+        try {
+            do {
+                PoolEntry entry = bag.borrow(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    break;
+                }
+                long now = System.currentTimeMillis();
+                if (isExpired(entry, now)
+                        || (now - entry.lastAccessed > config.getAliveBypassWindow() && !isAlive(entry))) {
+                    closeEntry(entry);
+                    remaining = timeout - (System.nanoTime() - start);
+                    continue;
+                }
+                metrics.recordBorrow(System.nanoTime() - start);
+                return createProxy(entry);
+            } while (remaining > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(config.getPoolName() + " interrupted during getConnection", e);
+        }
+        metrics.recordTimeout();
+        throw new SQLTransientConnectionException(config.getPoolName() + " connection is not available, request timed out after "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms, " + metrics, "08001", lastCreateException);
+    }
+
+    private Connection createProxy(final PoolEntry entry) {
+        if (config.getLeakDetectionThreshold() > 0) {
+            final Exception borrowStack = new Exception("Apparent connection leak detected");
+            entry.leakTask = houseKeeper.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    metrics.recordLeak();
+                    LOGGER.warn(config.getPoolName() + " connection leak detection triggered for " + entry.connection, borrowStack);
+                }
+            }, config.getLeakDetectionThreshold(), TimeUnit.MILLISECONDS);
+        }
+        return (Connection) Proxy.newProxyInstance(GdataPoolDataSource.class.getClassLoader(),
+                new Class[]{Connection.class}, new ConnectionHandler(this, entry));
+    }
+
+    /**
+     * 连接代理close时调用
+     */
+    void release(PoolEntry entry) {
+        if (entry.leakTask != null) {
+            entry.leakTask.cancel(false);
+            entry.leakTask = null;
+        }
+        entry.lastAccessed = System.currentTimeMillis();
+        if (closed || entry.evicted || isExpired(entry, entry.lastAccessed)) {
+            closeEntry(entry);
+            return;
+        }
+        bag.requite(entry);
+    }
+
+    private boolean isExpired(PoolEntry entry, long now) {
+        return entry.evicted || (config.getMaxLifetime() > 0 && now - entry.createdAt > config.getMaxLifetime());
+    }
+
+    private boolean isAlive(PoolEntry entry) {
+        try {
+            if (config.getValidationQuery() == null) {
+                int seconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getValidationTimeout()));
+                if (entry.connection.isValid(seconds)) {
+                    return true;
+                }
+            } else {
+                try (Statement statement = entry.connection.createStatement()) {
+                    statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getValidationTimeout())));
+                    statement.execute(config.getValidationQuery());
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            LOGGER.warn(config.getPoolName() + " validation failed for " + entry.connection, e);
+        }
+        metrics.recordValidationFailure();
+        return false;
+    }
+
+    private void requestAdd(int waiting) {
+        if (closed) {
+            return;
+        }
+        if (pendingAdds.get() < waiting && totalConnections.get() + pendingAdds.get() < config.getMaxPoolSize()) {
+            pendingAdds.incrementAndGet();
+            addExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    boolean added;
+                    try {
+                        added = addConnection();
+                    } finally {
+                        pendingAdds.decrementAndGet();
+                    }
+                    //a request may have been skipped while this one was pending
+                    int waiting = bag.getWaitingThreadCount();
+                    if (added && waiting > pendingAdds.get()) {
+                        requestAdd(waiting);
+                    }
+                }
+            });
+        }
+    }
+
+    private boolean addConnection() {
+        while (true) {
+            int total = totalConnections.get();
+            if (total >= config.getMaxPoolSize()) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(total, total + 1)) {
+                break;
+            }
+        }
+        try {
+            Connection connection = createConnection();
+            PoolEntry entry = new PoolEntry(connection);
+            metrics.recordCreated();
+            bag.add(entry);
+            lastCreateException = null;
+            return true;
+        } catch (SQLException e) {
+            totalConnections.decrementAndGet();
+            lastCreateException = e;
+            return false;
+        }
+    }
+
+    private Connection createConnection() throws SQLException {
+        Connection connection;
+        if (config.getDataSource() != null) {
+            if (config.getUsername() != null) {
+                connection = config.getDataSource().getConnection(config.getUsername(), config.getPassword());
+            } else {
+                connection = config.getDataSource().getConnection();
+            }
+        } else {
+            Properties properties = new Properties();
+            properties.putAll(config.getProperties());
+            if (config.getUsername() != null) {
+                properties.setProperty("user", config.getUsername());
+            }
+            if (config.getPassword() != null) {
+                properties.setProperty("password", config.getPassword());
+            }
+            connection = DriverManager.getConnection(config.getJdbcUrl(), properties);
+        }
+        if (!connection.getAutoCommit()) {
+            connection.setAutoCommit(true);
+        }
+        return connection;
+    }
+
+    private void closeEntry(PoolEntry entry) {
+        if (!bag.remove(entry)) {
+            return;
+        }
+        totalConnections.decrementAndGet();
+        metrics.recordClosed();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            //ignore
+        }
+        if (!closed && bag.getWaitingThreadCount() > 0) {
+            requestAdd(bag.getWaitingThreadCount());
+        }
+    }
+
+    /**
+     * 关闭过期和超过minIdle的空闲连接，再补足minIdle
+     */
+    void houseKeep() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int idle = bag.getCount(PoolEntry.STATE_NOT_IN_USE);
+        for (PoolEntry entry : bag.values()) {
+            if (!bag.reserve(entry)) {
+                continue;
+            }
+            boolean idleTimeout = config.getIdleTimeout() > 0 && idle > config.getMinIdle()
+                    && now - entry.lastAccessed > config.getIdleTimeout();
+            if (isExpired(entry, now) || idleTimeout) {
+                idle--;
+                closeEntry(entry);
+            } else {
+                bag.unreserve(entry);
+            }
+        }
+        int fill = config.getMinIdle() - bag.getCount(PoolEntry.STATE_NOT_IN_USE);
+        for (int i = 0; i < fill; i++) {
+            if (!addConnection()) {
+                break;
+            }
+        }
+    }
+
+    ConnectionBag getBag() {
+        return bag;
+    }
+
+    public String getPoolName() {
+        return config.getPoolName();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 关闭空闲连接，使用中的连接在归还时关闭
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        houseKeeper.shutdownNow();
+        addExecutor.shutdownNow();
+        for (PoolEntry entry : bag.values()) {
+            if (bag.reserve(entry)) {
+                closeEntry(entry);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getConnection(username, password)");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        throw new SQLFeatureNotSupportedException("setLogWriter");
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        throw new SQLFeatureNotSupportedException("setLoginTimeout");
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("getParentLogger");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        throw new SQLException("not a wrapper for " + iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,213 @@
+package com.gsralex.gdata.pool;
+
+import javax.sql.DataSource;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接池配置，时间单位均为毫秒
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class PoolConfig {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private String poolName = "gdata-pool-" + POOL_NUMBER.incrementAndGet();
+    private String jdbcUrl;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private Properties properties = new Properties();
+    private DataSource dataSource;
+
+    private int maxPoolSize = 10;
+    private int minIdle = 10;
+    private long connectionTimeout = 30000;
+    private long idleTimeout = 600000;
+    private long maxLifetime = 1800000;
+    private long leakDetectionThreshold = 0;
+    private long validationTimeout = 5000;
+    private long aliveBypassWindow = 500;
+    private String validationQuery;
+    private long housekeepingPeriod = 30000;
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public void setPoolName(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public void setJdbcUrl(String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    /**
+     * 传给驱动的其他连接属性
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Properties properties) {
+        this.properties = properties;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 设置后从该DataSource创建物理连接，不再使用jdbcUrl
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * 启动时预热并由后台维持的空闲连接数
+     */
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * getConnection最长等待时间
+     */
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * 超过minIdle的连接空闲多久后关闭，0为不关闭
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * 物理连接最长存活时间，使用中的连接在归还时关闭，0为不限制
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * 连接借出超过该时间未归还时打印借出位置，0为关闭
+     */
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public long getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(long validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public long getAliveBypassWindow() {
+        return aliveBypassWindow;
+    }
+
+    /**
+     * 最近该时间内使用过的连接借出时不再校验
+     */
+    public void setAliveBypassWindow(long aliveBypassWindow) {
+        this.aliveBypassWindow = aliveBypassWindow;
+    }
+
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    /**
+     * 为空时使用Connection.isValid
+     */
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    public long getHousekeepingPeriod() {
+        return housekeepingPeriod;
+    }
+
+    public void setHousekeepingPeriod(long housekeepingPeriod) {
+        this.housekeepingPeriod = housekeepingPeriod;
+    }
+
+    void validate() {
+        if (dataSource == null && (jdbcUrl == null || jdbcUrl.length() == 0)) {
+            throw new IllegalArgumentException("jdbcUrl or dataSource is required");
+        }
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maxPoolSize:" + maxPoolSize);
+        }
+        if (minIdle < 0 || minIdle > maxPoolSize) {
+            minIdle = maxPoolSize;
+        }
+        if (connectionTimeout < 0 || validationTimeout < 0 || housekeepingPeriod <= 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+    }
+}
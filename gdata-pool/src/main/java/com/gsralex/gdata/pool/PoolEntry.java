@@ -0,0 +1,53 @@
+package com.gsralex.gdata.pool;
+
+import java.sql.Connection;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 池中的一个物理连接，状态通过CAS切换
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+class PoolEntry {
+
+    static final int STATE_NOT_IN_USE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+    static final int STATE_RESERVED = -2;
+
+    private static final AtomicIntegerFieldUpdater<PoolEntry> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(PoolEntry.class, "state");
+
+    final Connection connection;
+    final long createdAt;
+    volatile long lastAccessed;
+    volatile boolean evicted;
+    ScheduledFuture<?> leakTask;
+
+    private volatile int state = STATE_NOT_IN_USE;
+
+    PoolEntry(Connection connection) {
+        this.connection = connection;
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccessed = createdAt;
+    }
+
+    int getState() {
+        return state;
+    }
+
+    void setState(int state) {
+        this.state = state;
+    }
+
+    boolean compareAndSet(int expect, int update) {
+        return STATE_UPDATER.compareAndSet(this, expect, update);
+    }
+
+    @Override
+    public String toString() {
+        return "PoolEntry{" + connection + ", state=" + state + "}";
+    }
+}
@@ -0,0 +1,150 @@
+package com.gsralex.gdata.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接池指标：借出等待时间直方图、活跃/空闲/等待数、超时次数
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class PoolMetrics {
+
+    /**
+     * 等待时间直方图的上界(微秒)，最后一个桶为 >= 1s
+     */
+    private static final long[] BUCKET_BOUNDS = {10, 100, 1000, 10000, 100000, 1000000};
+
+    private final GdataPoolDataSource pool;
+    private final LongAdder[] waitBuckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+    private final LongAdder waitTimeTotal = new LongAdder();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+
+    PoolMetrics(GdataPoolDataSource pool) {
+        this.pool = pool;
+        for (int i = 0; i < waitBuckets.length; i++) {
+            waitBuckets[i] = new LongAdder();
+        }
+    }
+
+    void recordBorrow(long waitNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(waitNanos);
+        int i = 0;
+        while (i < BUCKET_BOUNDS.length && micros >= BUCKET_BOUNDS[i]) {
+            i++;
+        }
+        waitBuckets[i].increment();
+        waitTimeTotal.add(waitNanos);
+        borrows.increment();
+    }
+
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    void recordCreated() {
+        created.increment();
+    }
+
+    void recordClosed() {
+        closed.increment();
+    }
+
+    void recordLeak() {
+        leaks.increment();
+    }
+
+    void recordValidationFailure() {
+        validationFailures.increment();
+    }
+
+    public int getActiveConnections() {
+        return pool.getBag().getCount(PoolEntry.STATE_IN_USE);
+    }
+
+    public int getIdleConnections() {
+        return pool.getBag().getCount(PoolEntry.STATE_NOT_IN_USE);
+    }
+
+    public int getTotalConnections() {
+        return pool.getBag().size();
+    }
+
+    public int getPendingThreads() {
+        return pool.getBag().getWaitingThreadCount();
+    }
+
+    public long getBorrowCount() {
+        return borrows.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getClosedCount() {
+        return closed.sum();
+    }
+
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailures.sum();
+    }
+
+    /**
+     * 平均借出等待时间(纳秒)
+     */
+    public long getMeanWaitNanos() {
+        long count = borrows.sum();
+        return count == 0 ? 0 : waitTimeTotal.sum() / count;
+    }
+
+    public static long[] getWaitBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * 每个桶的借出次数，长度为getWaitBucketBounds().length+1
+     */
+    public long[] getWaitHistogram() {
+        long[] histogram = new long[waitBuckets.length];
+        for (int i = 0; i < waitBuckets.length; i++) {
+            histogram[i] = waitBuckets[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(pool.getPoolName()).append(" {active=").append(getActiveConnections())
+                .append(", idle=").append(getIdleConnections())
+                .append(", total=").append(getTotalConnections())
+                .append(", pending=").append(getPendingThreads())
+                .append(", borrows=").append(getBorrowCount())
+                .append(", timeouts=").append(getTimeoutCount())
+                .append(", wait=[");
+        long[] histogram = getWaitHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append(i < BUCKET_BOUNDS.length ? "<" + BUCKET_BOUNDS[i] + "us" : ">=1s").append(":").append(histogram[i]);
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+}
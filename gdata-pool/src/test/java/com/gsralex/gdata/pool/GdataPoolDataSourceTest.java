@@ -0,0 +1,132 @@
+package com.gsralex.gdata.pool;
+
+import com.gsralex.gdata.bean.jdbc.JdbcUtils;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gsralex
+ * @version 2026/10/18
+ */
+public class GdataPoolDataSourceTest {
+
+    private GdataPoolDataSource pool;
+
+    @Before
+    public void setUp() {
+        PoolConfig config = new PoolConfig();
+        config.setJdbcUrl("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaxPoolSize(4);
+        config.setMinIdle(2);
+        config.setConnectionTimeout(200);
+        pool = new GdataPoolDataSource(config);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void prewarmAndReuse() throws Exception {
+        Assert.assertEquals(pool.getMetrics().getTotalConnections(), 2);
+        Connection physical;
+        try (Connection conn = pool.getConnection()) {
+            physical = conn.unwrap(JdbcConnection.class);
+            Assert.assertEquals(pool.getMetrics().getActiveConnections(), 1);
+        }
+        try (Connection conn = pool.getConnection()) {
+            //thread-affine fast path gives back the same physical connection
+            Assert.assertSame(conn.unwrap(JdbcConnection.class), physical);
+        }
+        Assert.assertEquals(pool.getMetrics().getIdleConnections(), 2);
+        Assert.assertEquals(pool.getMetrics().getBorrowCount(), 2);
+    }
+
+    @Test
+    public void resetOnReturn() throws Exception {
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+        conn.setReadOnly(true);
+        conn.close();
+        Assert.assertTrue(conn.isClosed());
+        try {
+            conn.createStatement();
+            Assert.fail();
+        } catch (SQLException e) {
+            Assert.assertEquals(e.getSQLState(), "08003");
+        }
+        try (Connection again = pool.getConnection()) {
+            Assert.assertTrue(again.getAutoCommit());
+            Assert.assertFalse(again.isReadOnly());
+        }
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        List<Connection> list = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            list.add(pool.getConnection());
+        }
+        Assert.assertEquals(pool.getMetrics().getTotalConnections(), 4);
+        try {
+            pool.getConnection();
+            Assert.fail();
+        } catch (SQLTransientConnectionException e) {
+            Assert.assertEquals(pool.getMetrics().getTimeoutCount(), 1);
+        }
+        for (Connection conn : list) {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 200; j++) {
+                    try (Connection conn = pool.getConnection()) {
+                        conn.createStatement().execute("select 1");
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        Assert.assertEquals(pool.getMetrics().getBorrowCount(), 32 * 200);
+        Assert.assertTrue(pool.getMetrics().getTotalConnections() <= 4);
+        Assert.assertEquals(pool.getMetrics().getActiveConnections(), 0);
+    }
+
+    @Test
+    public void jdbcUtils() throws Exception {
+        JdbcUtils jdbcUtils = new JdbcUtils(pool);
+        jdbcUtils.executeUpdate("create table if not exists t_pool(id int primary key, name varchar(20))", null);
+        jdbcUtils.executeUpdate("delete from t_pool", null);
+        jdbcUtils.executeUpdate("insert into t_pool(id,name) values(?,?)", new Object[]{1, "a"});
+        List<Map<String, Object>> list = jdbcUtils.queryForList("select * from t_pool");
+        Assert.assertEquals(list.size(), 1);
+        Assert.assertEquals(pool.getMetrics().getActiveConnections(), 0);
+    }
+}
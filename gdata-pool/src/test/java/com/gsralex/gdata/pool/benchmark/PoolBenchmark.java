@@ -0,0 +1,114 @@
+package com.gsralex.gdata.pool.benchmark;
+
+import com.gsralex.gdata.pool.GdataPoolDataSource;
+import com.gsralex.gdata.pool.PoolConfig;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gdata-pool与commons-dbcp 1.4的借出/归还吞吐对比，h2内存库代替数据库
+ * mvn -pl gdata-pool -Pbench test-compile exec:exec
+ *
+ * @author gsralex
+ * @version 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolBenchmark {
+
+    private static final int POOL_SIZE = 32;
+    private static final String URL = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+
+    @Param({"gdata", "dbcp"})
+    public String pool;
+
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("gdata".equals(pool)) {
+            PoolConfig config = new PoolConfig();
+            config.setJdbcUrl(URL);
+            config.setUsername("sa");
+            config.setPassword("");
+            config.setMaxPoolSize(POOL_SIZE);
+            config.setMinIdle(POOL_SIZE);
+            dataSource = new GdataPoolDataSource(config);
+        } else {
+            BasicDataSource basicDataSource = new BasicDataSource();
+            basicDataSource.setDriverClassName("org.h2.Driver");
+            basicDataSource.setUrl(URL);
+            basicDataSource.setUsername("sa");
+            basicDataSource.setPassword("");
+            basicDataSource.setMaxActive(POOL_SIZE);
+            basicDataSource.setMaxIdle(POOL_SIZE);
+            basicDataSource.setInitialSize(POOL_SIZE);
+            dataSource = basicDataSource;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (dataSource instanceof GdataPoolDataSource) {
+            ((GdataPoolDataSource) dataSource).close();
+        } else {
+            ((BasicDataSource) dataSource).close();
+        }
+    }
+
+    @Benchmark
+    public Connection borrow() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        return connection;
+    }
+
+    @Benchmark
+    public int select() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("select 1");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * 依次以1~256个线程运行
+     */
+    public static void main(String[] args) throws Exception {
+        for (int threads = 1; threads <= 256; threads *= 4) {
+            Options options = new OptionsBuilder()
+                    .include(PoolBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}